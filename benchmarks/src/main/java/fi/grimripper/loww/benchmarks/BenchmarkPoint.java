@@ -0,0 +1,59 @@
+package fi.grimripper.loww.benchmarks;
+
+import fi.grimripper.loww.Point;
+
+/**
+ * A plain point implementation for benchmarks, so that they don't depend on a geometry library.
+ * 
+ * @author Marko Tuominen
+ */
+public class BenchmarkPoint extends Point {
+
+	static {
+		factory = new PointFactory() {
+			@Override
+			public Point createPoint( double x, double y ) {
+				return new BenchmarkPoint( x, y );
+			}
+		};
+	}
+	
+	private double x, y;
+	
+	private BenchmarkPoint( double x, double y ) {
+		this.x = x;
+		this.y = y;
+	}
+	
+	/**
+	 * Makes this class the point factory. Does nothing after the first call.
+	 */
+	public static void initialize() {
+		// the static initializer does the work
+	}
+
+	@Override
+	public double getX() {
+		return x;
+	}
+
+	@Override
+	public void setX( double x ) {
+		this.x = x;
+	}
+
+	@Override
+	public double getY() {
+		return y;
+	}
+
+	@Override
+	public void setY( double y ) {
+		this.y = y;
+	}
+
+	@Override
+	public double distance( double x, double y ) {
+		return Math.hypot( this.x - x, this.y - y );
+	}
+}
@@ -0,0 +1,225 @@
+package fi.grimripper.loww.benchmarks;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+
+import java.util.Random;
+
+import fi.grimripper.loww.Height;
+import fi.grimripper.loww.movement.MobileObject;
+import fi.grimripper.loww.templates.MovementTemplate;
+import fi.grimripper.loww.templates.Templates;
+import fi.grimripper.loww.tiles.Block;
+import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.MovementEvent;
+import fi.grimripper.loww.tiles.Obstacle;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+/**
+ * Grids, obstacles, blocks, movement events and mobile objects for benchmarks. Contents are placed
+ * randomly, but with a fixed seed, so each run uses the same setup.
+ *
+ * @author Marko Tuominen
+ */
+public class Fixtures {
+
+	static {
+		BenchmarkPoint.initialize();
+	}
+
+	/**
+	 * Grid shapes.
+	 */
+	public static enum Shape {
+		HEX, SQUARE;
+
+		/**
+		 * Creates an empty grid of this shape.
+		 *
+		 * @param size		number of rows and columns
+		 * @return			a new grid
+		 */
+		public TileGrid <?> createGrid( int size ) {
+			return this == HEX ? FilledRowHexGrid.createWithHexSize( 10, 10, size, size, size ) :
+				new FilledSquareGrid( 10, size, size );
+		}
+	}
+
+	/**
+	 * Grid shapes and templates that fit them, one for each template constant.
+	 */
+	public static enum Layout {
+		HEX_SINGLE_TILE( Shape.HEX, Templates.SINGLE_TILE_TEMPLATE ),
+		HEX_HORIZONTAL_TWO_TILE( Shape.HEX, Templates.HORIZONTAL_TWO_TILE_TEMPLATE ),
+		HEX_AND_NEIGHBORS( Shape.HEX, Templates.HEX_AND_NEIGHBORS_TEMPLATE ),
+		SQUARE_SINGLE_TILE( Shape.SQUARE, Templates.SINGLE_TILE_TEMPLATE ),
+		SQUARE_HORIZONTAL_TWO_TILE( Shape.SQUARE, Templates.HORIZONTAL_TWO_TILE_TEMPLATE ),
+		SQUARE_FOUR_SQUARE( Shape.SQUARE, Templates.FOUR_SQUARE_TEMPLATE ),
+		SQUARE_AND_NEIGHBORS( Shape.SQUARE, Templates.SQUARE_AND_NEIGHBORS_TEMPLATE );
+
+		private final Shape shape;
+		private final MovementTemplate template;
+
+		private Layout( Shape shape, MovementTemplate template ) {
+			this.shape = shape;
+			this.template = template;
+		}
+
+		/**
+		 * Creates an empty grid of this layout's shape.
+		 *
+		 * @param size		number of rows and columns
+		 * @return			a new grid
+		 */
+		public TileGrid <?> createGrid( int size ) {
+			return shape.createGrid( size );
+		}
+
+		/**
+		 * Gets the template for mobile objects.
+		 *
+		 * @return			template constant
+		 */
+		public MovementTemplate getTemplate() {
+			return template;
+		}
+	}
+
+	private static final Terrain[] TERRAIN = {
+		new Terrain( 1f, FLAT ), new Terrain( 1.5f, FLAT ), new Terrain( 2f, FLAT ) };
+
+	/**
+	 * Sets random terrain, and adds obstacles, blocks and movement events to a portion of tiles.
+	 * Tiles close to a center tile are left empty, so that mobile objects can start there.
+	 *
+	 * @param grid			populate this grid
+	 * @param center		leave tiles near this tile empty
+	 * @param obstacles		portion of tiles with an obstacle
+	 * @param blocks		portion of tiles with a block
+	 * @param events		portion of tiles with a movement event
+	 * @param seed			seed for placing things
+	 */
+	public static void populate( TileGrid <?> grid, Tile center, double obstacles, double blocks,
+			double events, long seed ) {
+		Random random = new Random( seed );
+		CostBlock block = new CostBlock();
+		RiskEvent event = new RiskEvent();
+
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row) {
+				t.setTerrain( TERRAIN[ random.nextInt( TERRAIN.length )]);
+				if (grid.distance( center, t ) <= 2)
+					continue;
+
+				if (random.nextDouble() < obstacles)
+					new StaticObstacle().setPosition( EAST, t );
+				if (random.nextDouble() < blocks)
+					t.addBlock( block );
+				if (random.nextDouble() < events)
+					t.addMovementEvent( event );
+			}
+	}
+
+	/**
+	 * A low obstacle that increases movement cost and blocks line of sight.
+	 */
+	public static class StaticObstacle extends Obstacle {
+
+		public StaticObstacle() {
+			super( LOW, Templates.SINGLE_TILE_TEMPLATE );
+		}
+
+		@Override
+		public float modifyMoveCost( float cost, int impassable ) {
+			return cost + 1;
+		}
+	}
+
+	/**
+	 * A mobile object that prevents others from moving through it.
+	 */
+	public static class Unit extends MobileObject {
+
+		public Unit( MovementTemplate template ) {
+			super( LOW, template );
+		}
+
+		@Override
+		public float modifyMoveCost( float cost, int impassable ) {
+			return impassable;
+		}
+	}
+
+	/**
+	 * A block that increases movement cost, but allows occupying.
+	 */
+	public static class CostBlock implements Block {
+
+		@Override
+		public Properties getProperties() {
+			return null;
+		}
+
+		@Override
+		public Height getHeight( Tile tile ) {
+			return LOW;
+		}
+
+		@Override
+		public float modifyMoveCost( Tile from, Tile to, MobileObject moving, Height height,
+				float cost ) {
+			return cost + 0.5f;
+		}
+
+		@Override
+		public boolean allowsTemplate( Tile tile, MobileObject moving, Height height,
+				Tile[] template ) {
+			return true;
+		}
+	}
+
+	/**
+	 * A movement event with a risk, which never prevents or interrupts movement.
+	 */
+	public static class RiskEvent implements MovementEvent {
+
+		@Override
+		public Properties getProperties() {
+			return null;
+		}
+
+		@Override
+		public Height getHeight( Tile tile ) {
+			return FLAT;
+		}
+
+		@Override
+		public boolean canEnterTile( MobileObject moving, Tile tile, Height height ) {
+			return true;
+		}
+
+		@Override
+		public boolean canLeaveTile( MobileObject moving, Tile tile, Height height ) {
+			return true;
+		}
+
+		@Override
+		public boolean enteringTile( MobileObject moving, Tile tile, Height height ) {
+			return true;
+		}
+
+		@Override
+		public boolean leavingTile( MobileObject moving, Tile tile, Height height ) {
+			return true;
+		}
+
+		@Override
+		public float getRisk( MobileObject moving, Tile tile, Height height ) {
+			return 1f;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package fi.grimripper.loww.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.benchmarks.Fixtures.Shape;
+import fi.grimripper.loww.benchmarks.Fixtures.Unit;
+import fi.grimripper.loww.templates.Templates;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+import fi.grimripper.loww.tiles.TileGrid.LineHelper;
+
+/**
+ * Benchmarks for line of sight, direct paths and stepping along direct lines with line helpers.
+ * Each invocation creates a new line helper for the next pair of tiles from a fixed set, because
+ * line helpers can't be reset. Creating the helper is included in the measurement.
+ * <p>
+ * Lines are drawn at one of three kinds of angles. Direct lines go from tile to neighbor tile
+ * in the same direction. Alternating lines go exactly between two directions, so that there are
+ * two equally good tiles on every other step: straight north or south on hex grids, and two
+ * columns for each row on square grids. Other lines go to random tiles at arbitrary angles.
+ * <p>
+ * Use <code>-p</code> to select parameters, and <code>-prof gc</code> to include allocation
+ * rates, for example:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar LineOfSightBenchmark -p shape=HEX -prof gc
+ * </pre>
+ *
+ * @author Marko Tuominen
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class LineOfSightBenchmark {
+
+	// number of line ends
+	private static final int LINES = 64;
+
+	/**
+	 * Kinds of line angles.
+	 */
+	public static enum Angle {
+		DIRECT, ALTERNATING, ARBITRARY
+	}
+
+	@Param
+	public Shape shape;
+
+	@Param
+	public Angle angle;
+
+	@Param({ "200" })
+	public int size;
+
+	@Param({ "8", "32" })
+	public int length;
+
+	@Param({ "0.0", "0.05", "0.2" })
+	public double obstacles;
+
+	private TileGrid <Tile> grid = null;
+	private Unit viewer = null;
+
+	// line ends, source and target tiles by line
+	private Tile[] sources = null;
+	private Tile[] targets = null;
+	private int next = 0;
+
+	@Setup
+	@SuppressWarnings( "unchecked" )
+	public void createGrid() {
+		grid = (TileGrid <Tile>)shape.createGrid( size );
+		Tile center = grid.getTileAtRC( size / 2, size / 2 );
+		Fixtures.populate( grid, center, obstacles, 0, 0, 1234 );
+
+		// the viewer only needs a location, for its height
+		viewer = new Unit( Templates.SINGLE_TILE_TEMPLATE );
+		viewer.setPosition( Direction.EAST, center );
+
+		Random random = new Random( 4321 );
+		sources = new Tile[ LINES ];
+		targets = new Tile[ LINES ];
+
+		for (int i = 0; i < LINES; i++) {
+			int row = length + random.nextInt( size - 2 * length );
+			int col = length + random.nextInt( size - 2 * length );
+			int rowShift = 0, colShift = 0;
+
+			switch (angle) {
+			case DIRECT:
+				colShift = length;
+				break;
+
+			case ALTERNATING:		// doubled rows on hex grids keep the same x-coordinate
+				rowShift = shape == Shape.HEX ? length & ~1 : length / 2;
+				colShift = shape == Shape.HEX ? 0 : length;
+				break;
+
+			default:
+				rowShift = random.nextInt( length + 1 );
+				colShift = length;
+			}
+
+			// transpose and mirror randomly, for lines in all directions (transposed hex lines
+			// would change the kind of angle, unless it's arbitrary)
+			if ((shape == Shape.SQUARE || angle == Angle.ARBITRARY) && random.nextBoolean()) {
+				int swap = rowShift;
+				rowShift = colShift;
+				colShift = swap;
+			}
+
+			rowShift *= random.nextBoolean() ? 1 : -1;
+			colShift *= random.nextBoolean() ? 1 : -1;
+			sources[i] = grid.getTileAtRC( row, col );
+			targets[i] = grid.getTileAtRC( row + rowShift, col + colShift );
+		}
+	}
+
+	@Benchmark
+	public boolean hasLineOfSight() {
+		return TileGrid.hasLineOfSight( nextLine(), viewer );
+	}
+
+	@Benchmark
+	public Tile[] getDirectPath() {
+		return TileGrid.getDirectPath( nextLine(), false );
+	}
+
+	@Benchmark
+	public Tile[] getDirectPathToEdge() {
+		return TileGrid.getDirectPath( nextLine(), true );
+	}
+
+	@Benchmark
+	public int nextTilesToTarget() {
+		LineHelper <Tile> helper = nextLine();
+		int steps = 0;
+
+		for (; !helper.targetReached(); steps++)
+			helper.nextTiles();
+
+		return steps;
+	}
+
+	@Benchmark
+	public int nextTilesToEdge() {
+		LineHelper <Tile> helper = nextLine();
+		int steps = 0;
+
+		for (; !helper.pathEnds(); steps++)
+			helper.nextTiles();
+
+		return steps;
+	}
+
+	// creates a line helper for the next line
+	private LineHelper <Tile> nextLine() {
+		int index = next++ % LINES;
+		return grid.createLineHelper( sources[ index ], targets[ index ]);
+	}
+}
@@ -0,0 +1,146 @@
+package fi.grimripper.loww.benchmarks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.benchmarks.Fixtures.Layout;
+import fi.grimripper.loww.benchmarks.Fixtures.Unit;
+import fi.grimripper.loww.movement.DefaultMovement;
+import fi.grimripper.loww.movement.MovementRadius;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+/**
+ * Benchmarks for generating a movement radius or only the reachable tiles, and for creating and
+ * executing movement paths with the default movement mode. A single mobile object starts at the
+ * center of the grid. Paths go to a fixed set of destinations spread around the movement radius.
+ * <p>
+ * The full parameter matrix takes a long time. Use <code>-p</code> to select parameters, and
+ * <code>-prof gc</code> to include allocation rates, for example:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar MovementBenchmark -p size=200 -prof gc
+ * </pre>
+ *
+ * @author Marko Tuominen
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class MovementBenchmark {
+
+	// maximum number of path destinations
+	private static final int DESTINATIONS = 64;
+
+	@Param
+	public Layout layout;
+
+	@Param({ "50", "200", "1000" })
+	public int size;
+
+	@Param({ "0.0", "0.1" })
+	public double obstacles;
+
+	@Param({ "0.0", "0.1" })
+	public double blocks;
+
+	@Param({ "0.0", "0.1" })
+	public double events;
+
+	@Param({ "12" })
+	public int movement;
+
+	private Unit unit = null;
+	private DefaultMovement move = null;
+	private Tile start = null;
+
+	// destinations in the movement radius, and facing where each can be occupied
+	private Tile[] destinations = null;
+	private Direction[] facings = null;
+	private int next = 0;
+
+	@Setup
+	public void createGrid() {
+		TileGrid <?> grid = layout.createGrid( size );
+		start = grid.getTileAtRC( size / 2, size / 2 );
+		Fixtures.populate( grid, start, obstacles, blocks, events, 1234 );
+
+		unit = new Unit( layout.getTemplate() );
+		unit.setPosition( Direction.EAST, start );
+		move = new DefaultMovement( unit, movement );
+		unit.addMovementMode( move );
+
+		// spread destinations evenly among reachable tiles
+		MovementRadius radius = move.movementRadius( movement, true );
+		Tile[] reachable = radius.getTiles();
+		List <Tile> tiles = new ArrayList <>();
+		List <Direction> directions = new ArrayList <>();
+		int step = Math.max( 1, reachable.length / DESTINATIONS );
+
+		for (int i = 0; i < reachable.length && tiles.size() < DESTINATIONS; i += step)
+			for (Direction facing : Direction.values())
+				if (reachable[i] != start && radius.isReachable( reachable[i], facing )) {
+					tiles.add( reachable[i] );
+					directions.add( facing );
+					break;
+				}
+
+		destinations = tiles.toArray( new Tile[ tiles.size() ]);
+		facings = directions.toArray( new Direction[ directions.size() ]);
+	}
+
+	/**
+	 * Moves the mobile object back to the start and generates its movement radius before each path
+	 * is executed.
+	 */
+	@State( Scope.Thread )
+	public static class Execution {
+
+		@Setup( Level.Invocation )
+		public void reset( MovementBenchmark benchmark ) {
+			benchmark.unit.setPosition( Direction.EAST, benchmark.start );
+			benchmark.move.movementRadius( benchmark.movement );
+		}
+	}
+
+	@Benchmark
+	public DefaultMovement movementRadius() {
+		move.movementRadius( movement );
+		return move;
+	}
+
+	@Benchmark
+	public BitSet reachableTiles() {
+		return move.reachableTiles( movement );
+	}
+
+	@Benchmark
+	public Tile[] getMovementPath() {
+		int index = next++ % destinations.length;
+		return move.getMovementPath( destinations[ index ], facings[ index ]);
+	}
+
+	@Benchmark
+	public Tile[] executeMovementPath( Execution execution ) {
+		int index = next++ % destinations.length;
+		return move.executeMovementPath( destinations[ index ], facings[ index ]);
+	}
+}
@@ -0,0 +1,734 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+/**
+ * A hierarchical view of a tile grid, for finding long paths without searching every tile along
+ * the way. The grid is divided into square clusters of rows and columns. Where movement crosses
+ * from a cluster to another, each run of adjacent crossings is an entrance, and it gets one
+ * transition in its middle, or one at each end if it's long. The tiles on both sides of the
+ * transitions are the nodes of an abstract graph. Transitions connect nodes in different
+ * clusters, and the best paths inside a cluster connect its nodes to each other. Remote neighbors
+ * in different clusters are transitions of their own.
+ * <p>
+ * A path is found by connecting the starting and destination tiles to their clusters' nodes,
+ * searching the abstract graph, and then refining each part of the path with a search inside a
+ * single cluster. Steps between tiles use the same rules as a flow field: the movement mode's
+ * rules for terrain, obstacles, blocks, events, heights and movement modifiers, for a single-tile
+ * template. Paths are compared by risk first, then by cost. Since the abstract graph only goes
+ * through transitions, the paths are close to the best ones, but not always the best.
+ * <p>
+ * A cluster graph is built for a movement mode, so it applies to the host's height and the mode's
+ * current movement modifiers. Other heights or modifiers need graphs of their own. Steps are only
+ * tested for a single tile, so the host must have a single-tile template. No tile is an initial
+ * tile, and the mode's current movement radius isn't used or changed.
+ * <p>
+ * If the movement mode's modifiers change, the graph is rebuilt. Changes in the tile grid are
+ * found from the grid's change journal, and only clusters around the changed tiles are rebuilt,
+ * unless the journal doesn't reach back to the previous update. The graph isn't thread safe.
+ *
+ * @author Marko Tuominen
+ * @see FlowField
+ * @see TileGrid#getChangedTiles(long)
+ */
+public class ClusterGraph {
+
+	/**
+	 * Default number of rows and columns in a cluster.
+	 */
+	public static final int DEFAULT_CLUSTER_SIZE = 10;
+
+	// entrances with at least this many crossings get a transition at both ends
+	private static final int LONG_ENTRANCE = 6;
+
+	// orders search labels by risk first, then by total cost
+	private static final Comparator <Label> RISK_AND_COST = new Comparator <Label>() {
+		@Override
+		public int compare( Label first, Label second ) {
+			int compare = Float.compare( first.risk, second.risk );
+			return compare != 0 ? compare : Float.compare( first.cost, second.cost );
+		}
+	};
+
+	private final MovementMode mode;
+	private final TileGrid <?> grid;
+	private final int clusterSize;
+
+	private Tile[][] rows;
+	private Tile[] tiles;					// tiles by id
+	private int clusterRows, clusterColumns;
+
+	// outgoing edges for node tiles by id, null for other tiles
+	private Edge[][] nodeEdges;
+	private int nodeCount = 0;
+
+	// transitions leaving and entering each cluster
+	private List <List <Edge>> exits, entries;
+
+	// remote neighbors of each tile, and tiles that have each tile as a remote neighbor
+	private Map <Tile, Tile[]> remoteTargets;
+	private Map <Tile, List <Tile>> remoteSources;
+
+	private TerrainCosts terrainCosts = null;	// identifies modifiers when the graph was built
+	private long version;
+
+	private float cost = -1, risk = -1;
+
+	/**
+	 * Creates a cluster graph with the default cluster size. The graph is built when it's first
+	 * used.
+	 *
+	 * @param mode			use this movement mode's rules for steps
+	 * @param grid			divide this tile grid into clusters
+	 * @throws IllegalArgumentException	if the host's template covers more than one tile
+	 */
+	public ClusterGraph( MovementMode mode, TileGrid <?> grid ) {
+		this( mode, grid, DEFAULT_CLUSTER_SIZE );
+	}
+
+	/**
+	 * Creates a cluster graph. The graph is built when it's first used.
+	 *
+	 * @param mode			use this movement mode's rules for steps
+	 * @param grid			divide this tile grid into clusters
+	 * @param clusterSize	number of rows and columns in a cluster, at least one
+	 * @throws IllegalArgumentException	if the host's template covers more than one tile
+	 */
+	public ClusterGraph( MovementMode mode, TileGrid <?> grid, int clusterSize ) {
+		mode.requireSingleTileTemplate();
+		this.mode = mode;
+		this.grid = grid;
+		this.clusterSize = Math.max( 1, clusterSize );
+	}
+
+	/**
+	 * Gets the number of rows and columns in a cluster.
+	 *
+	 * @return				cluster size
+	 */
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	/**
+	 * Gets the number of clusters in the tile grid.
+	 *
+	 * @return				number of clusters, or zero if the graph hasn't been built
+	 */
+	public int getClusterCount() {
+		return clusterRows * clusterColumns;
+	}
+
+	/**
+	 * Gets the number of nodes in the abstract graph. Each node is a tile next to a transition
+	 * between clusters.
+	 *
+	 * @return				number of nodes, or zero if the graph hasn't been built
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Updates the abstract graph to match the tile grid. Only clusters around the tiles that
+	 * changed since the previous update are rebuilt. The whole graph is built if it hasn't been
+	 * built yet, if the movement mode's modifiers have changed, or if the tile grid's change
+	 * journal no longer has all the changes. Finding a path updates the graph first, so this is
+	 * only needed for building the graph in advance.
+	 */
+	public void update() {
+		mode.startSingleSteps();
+		if (terrainCosts == null || terrainCosts != mode.getTerrainCosts())
+			build();
+
+		else {
+			Tile[] changed = grid.getChangedTiles( version );
+			if (changed == null)
+				build();			// journal doesn't have all the changes
+			else if (changed.length > 0)
+				rebuild( changed );
+		}
+
+		mode.finishSingleSteps();
+		version = grid.getVersion();
+	}
+
+	/**
+	 * Finds a path between two tiles. The graph is updated first, if the tile grid has changed.
+	 * The path's total cost and risk are available afterwards, until the next path is found.
+	 *
+	 * @param start			path from this tile
+	 * @param destination	path to this tile
+	 * @return				the path, without the starting tile, and empty if the destination
+	 * 						can't be reached
+	 * @see					#getCost()
+	 * @see					#getRisk()
+	 */
+	public Tile[] findPath( Tile start, Tile destination ) {
+		update();
+		cost = risk = -1;
+		if (indexOf( start ) < 0 || indexOf( destination ) < 0)
+			return new Tile[0];
+
+		mode.startSearchMetrics();
+		mode.startSingleSteps();
+		int startCluster = clusterOf( start ), destCluster = clusterOf( destination );
+		Map <Tile, Label> fromStart = searchCluster( start, startCluster, false, null );
+		Map <Tile, Label> toDest = searchCluster( destination, destCluster, true, null );
+
+		// direct path inside a single cluster, or the best through the abstract graph
+		Label direct = startCluster == destCluster ? fromStart.get( destination ) : null;
+		Label best = direct;
+		Map <Tile, Label> labels = new HashMap <>();
+		PriorityQueue <Label> queue = new PriorityQueue <>( 64, RISK_AND_COST );
+
+		for (Label label : fromStart.values())
+			if (nodeEdges[ label.tile.getId() ] != null) {
+				Label node = new Label( label.tile, label.cost, label.risk, null, false );
+				labels.put( node.tile, node );
+				queue.add( node );
+			}
+
+		while (!queue.isEmpty()) {
+			Label label = queue.remove();
+			if (labels.get( label.tile ) != label)
+				continue;			// a better path was found after this one
+			if (best != null && RISK_AND_COST.compare( label, best ) >= 0)
+				break;				// nothing better can be found
+
+			mode.countExplored( label.tile );
+			Label toGoal = toDest.get( label.tile );
+			if (toGoal != null) {
+				Label path = new Label( destination, label.cost + toGoal.cost,
+						label.risk + toGoal.risk, label, false );
+				if (best == null || RISK_AND_COST.compare( path, best ) < 0)
+					best = path;
+			}
+
+			for (Edge edge : nodeEdges[ label.tile.getId() ]) {
+				Label next = new Label( edge.to, label.cost + edge.cost,
+						label.risk + edge.risk, label, edge.transition );
+				Label earlier = labels.get( edge.to );
+				if (earlier == null || RISK_AND_COST.compare( next, earlier ) < 0) {
+					labels.put( edge.to, next );
+					queue.add( next );
+				}
+			}
+		}
+
+		Tile[] path = best == null ? new Tile[0] :
+			best == direct ? toPath( direct ) : refinePath( best, fromStart, toDest );
+		if (best != null) {
+			cost = best.cost;
+			risk = best.risk;
+		}
+
+		mode.finishSingleSteps();
+		mode.finishSearchMetrics();
+		return path;
+	}
+
+	/**
+	 * Gets the total cost of the path found last.
+	 *
+	 * @return				total cost, or a negative value if the destination couldn't be
+	 * 						reached
+	 */
+	public float getCost() {
+		return cost;
+	}
+
+	/**
+	 * Gets the total risk of the path found last.
+	 *
+	 * @return				total risk, or a negative value if the destination couldn't be
+	 * 						reached
+	 */
+	public float getRisk() {
+		return risk;
+	}
+
+	/**
+	 * Builds the whole abstract graph.
+	 */
+	private void build() {
+		terrainCosts = mode.getTerrainCosts();
+
+		rows = grid.getTiles();
+		tiles = new Tile[ grid.getTileCount() ];
+		remoteTargets = new HashMap <>();
+		remoteSources = new HashMap <>();
+		int columns = 0;
+
+		for (Tile[] row : rows) {
+			columns = Math.max( columns, row.length );
+			for (Tile tile : row)
+				if (tile != null && tile.getId() >= 0 && tile.getId() < tiles.length) {
+					tiles[ tile.getId() ] = tile;
+					updateRemoteNeighbors( tile );
+				}
+		}
+
+		clusterRows = (rows.length + clusterSize - 1) / clusterSize;
+		clusterColumns = (columns + clusterSize - 1) / clusterSize;
+		nodeEdges = new Edge[ tiles.length ][];
+		nodeCount = 0;
+
+		exits = new ArrayList <>( getClusterCount() );
+		entries = new ArrayList <>( getClusterCount() );
+		for (int i = 0; i < getClusterCount(); i++)
+			entries.add( new ArrayList <Edge>() );
+
+		for (int i = 0; i < getClusterCount(); i++) {
+			exits.add( findExits( i ));
+			for (Edge exit : exits.get( i ))
+				entries.get( clusterOf( exit.to )).add( exit );
+		}
+
+		for (int i = 0; i < getClusterCount(); i++)
+			connectCluster( i );
+	}
+
+	/**
+	 * Rebuilds clusters around changed tiles. A tile's changes affect paths in its own cluster,
+	 * transitions into it from its neighbors' clusters, and remote neighbors to and from it.
+	 *
+	 * @param changed		tiles that have changed
+	 */
+	private void rebuild( Tile[] changed ) {
+		Set <Integer> dirty = new LinkedHashSet <>();
+		for (Tile tile : changed)
+			if (indexOf( tile ) >= 0)
+				updateRemoteNeighbors( tile );
+
+		for (Tile tile : changed)
+			if (indexOf( tile ) >= 0) {
+				dirty.add( clusterOf( tile ));
+				addClusters( tile.getNeighbors(), dirty );
+				addClusters( remoteTargets.get( tile ), dirty );
+
+				List <Tile> sources = remoteSources.get( tile );
+				if (sources != null)
+					addClusters( sources.toArray( new Tile[ sources.size() ]), dirty );
+			}
+
+		// new transitions change nodes on both sides
+		Set <Integer> reconnect = new LinkedHashSet <>( dirty );
+		for (int cluster : dirty) {
+			for (Edge exit : exits.get( cluster )) {
+				entries.get( clusterOf( exit.to )).remove( exit );
+				reconnect.add( clusterOf( exit.to ));
+			}
+
+			exits.set( cluster, findExits( cluster ));
+			for (Edge exit : exits.get( cluster )) {
+				entries.get( clusterOf( exit.to )).add( exit );
+				reconnect.add( clusterOf( exit.to ));
+			}
+		}
+
+		for (int cluster : reconnect)
+			connectCluster( cluster );
+	}
+
+	/**
+	 * Finds the transitions out of a cluster. Crossings into each other cluster are grouped into
+	 * entrances, runs where both sides stay adjacent, and each entrance gets one or two
+	 * transitions. Each remote neighbor in another cluster is a transition.
+	 *
+	 * @param cluster		find transitions out of this cluster
+	 * @return				the transitions
+	 */
+	private List <Edge> findExits( int cluster ) {
+		List <Edge> exits = new ArrayList <>();
+		Map <Integer, List <Edge>> crossings = new LinkedHashMap <>();
+
+		for (Tile from : getClusterTiles( cluster )) {
+			boolean border = false;
+			for (Tile to : from.getNeighbors())
+				border |= to != null && clusterOf( to ) != cluster;
+			for (int i = 0; i < from.countRemoteNeighbors(); i++)
+				border |= clusterOf( from.getRemoteNeighbor( i )) != cluster;
+
+			if (!border || !mode.canLeaveTile( from ))
+				continue;		// no transitions from the tile
+
+			for (Tile to : from.getNeighbors()) {
+				Edge edge = createEdge( from, to, cluster );
+				if (edge == null)
+					continue;
+
+				List <Edge> toCluster = crossings.get( clusterOf( to ));
+				if (toCluster == null)
+					crossings.put( clusterOf( to ), toCluster = new ArrayList <>() );
+				toCluster.add( edge );
+			}
+
+			for (int i = 0; i < from.countRemoteNeighbors(); i++) {
+				Edge edge = createEdge( from, from.getRemoteNeighbor( i ), cluster );
+				if (edge != null)
+					exits.add( edge );
+			}
+		}
+
+		for (List <Edge> toCluster : crossings.values())
+			for (int start = 0, end = 1; start < toCluster.size(); end++)
+				if (end == toCluster.size() || !continues( toCluster.get( end - 1 ),
+						toCluster.get( end ))) {
+
+					// entrance ends, add transitions
+					if (end - start < LONG_ENTRANCE)
+						exits.add( toCluster.get( (start + end - 1) / 2 ));
+					else {
+						exits.add( toCluster.get( start ));
+						exits.add( toCluster.get( end - 1 ));
+					}
+					start = end;
+				}
+
+		return exits;
+	}
+
+	/**
+	 * Connects a cluster's nodes to each other with the best paths inside the cluster, and to
+	 * other clusters with transitions. The nodes are tiles on either side of transitions.
+	 *
+	 * @param cluster		connect nodes in this cluster
+	 */
+	private void connectCluster( int cluster ) {
+		Set <Tile> nodes = new LinkedHashSet <>();
+		for (Edge exit : exits.get( cluster ))
+			nodes.add( exit.from );
+		for (Edge entry : entries.get( cluster ))
+			nodes.add( entry.to );
+
+		for (Tile tile : getClusterTiles( cluster ))
+			if (nodeEdges[ tile.getId() ] != null) {
+				nodeEdges[ tile.getId() ] = null;
+				nodeCount--;
+			}
+
+		for (Tile node : nodes) {
+			List <Edge> edges = new ArrayList <>();
+			for (Edge exit : exits.get( cluster ))
+				if (exit.from == node)
+					edges.add( exit );
+
+			Map <Tile, Label> paths = searchCluster( node, cluster, false, null );
+			for (Tile to : nodes) {
+				Label path = paths.get( to );
+				if (to != node && path != null)
+					edges.add( new Edge( node, to, path.cost, path.risk, false ));
+			}
+
+			nodeEdges[ node.getId() ] = edges.toArray( new Edge[ edges.size() ]);
+			nodeCount++;
+		}
+	}
+
+	/**
+	 * Searches the best paths from or to a tile, inside a single cluster.
+	 *
+	 * @param source		search paths from or to this tile
+	 * @param cluster		the cluster to search
+	 * @param reverse		search paths to the source tile, instead of from it
+	 * @param goal			stop when the path to this tile is found, or <code>null</code> to
+	 * 						search the whole cluster
+	 * @return				best paths by tile; forward paths link to the previous tile, and
+	 * 						reverse paths to the next tile
+	 */
+	private Map <Tile, Label> searchCluster( Tile source, int cluster, boolean reverse,
+			Tile goal ) {
+		Map <Tile, Label> labels = new HashMap <>();
+		Map <Tile, Boolean> leaving = new HashMap <>();
+		PriorityQueue <Label> queue = new PriorityQueue <>( 16, RISK_AND_COST );
+		Set <Tile> settled = new LinkedHashSet <>();
+
+		Label first = new Label( source, 0, 0, null, false );
+		labels.put( source, first );
+		queue.add( first );
+
+		while (!queue.isEmpty()) {
+			Label label = queue.remove();
+			if (!settled.add( label.tile ))
+				continue;			// already found the best path
+			if (label.tile == goal)
+				break;
+			if (!reverse && !canLeave( label.tile, leaving ))
+				continue;			// events prevent leaving
+
+			for (Tile other : getClusterSteps( label.tile, cluster, reverse )) {
+				if (settled.contains( other ) || reverse && !canLeave( other, leaving ))
+					continue;
+
+				float[] step = reverse ? mode.testSingleStep( other, label.tile ) :
+					mode.testSingleStep( label.tile, other );
+				if (step == null)
+					continue;
+
+				Label next = new Label( other, label.cost + step[0], label.risk + step[1],
+						label, false );
+				Label earlier = labels.get( other );
+				if (earlier == null || RISK_AND_COST.compare( next, earlier ) < 0) {
+					labels.put( other, next );
+					queue.add( next );
+				}
+			}
+		}
+
+		labels.keySet().retainAll( settled );
+		return labels;
+	}
+
+	/**
+	 * Creates the full path from the best path found through the abstract graph. The parts
+	 * between nodes in the same cluster are searched again.
+	 *
+	 * @param best			the best path to the destination
+	 * @param fromStart		paths from the start inside its cluster
+	 * @param toDest		paths to the destination inside its cluster
+	 * @return				the path, without the starting tile
+	 */
+	private Tile[] refinePath( Label best, Map <Tile, Label> fromStart, Map <Tile, Label> toDest ) {
+		List <Label> nodes = new ArrayList <>();
+		for (Label node = best.previous; node != null; node = node.previous)
+			nodes.add( node );
+		Collections.reverse( nodes );
+
+		// from start to first node, between nodes, and from last node to destination
+		List <Tile> path = new ArrayList <>();
+		Collections.addAll( path, toPath( fromStart.get( nodes.get( 0 ).tile )));
+
+		for (int i = 1; i < nodes.size(); i++) {
+			Label node = nodes.get(i);
+			Tile from = nodes.get( i - 1 ).tile;
+			if (node.transition)
+				path.add( node.tile );
+			else
+				Collections.addAll( path, toPath( searchCluster(
+						from, clusterOf( from ), false, node.tile ).get( node.tile )));
+		}
+
+		for (Label next = toDest.get( best.previous.tile ).previous; next != null;
+				next = next.previous)
+			path.add( next.tile );
+
+		return path.toArray( new Tile[ path.size() ]);
+	}
+
+	/**
+	 * Gets the tiles that can be stepped to or from inside a cluster, including remote neighbors.
+	 *
+	 * @param tile			step from or to this tile
+	 * @param cluster		the cluster to stay in
+	 * @param reverse		get tiles that step to the tile, instead of from it
+	 * @return				the tiles in the cluster
+	 */
+	private List <Tile> getClusterSteps( Tile tile, int cluster, boolean reverse ) {
+		List <Tile> steps = new ArrayList <>();
+		for (Tile neighbor : tile.getNeighbors())
+			if (neighbor != null && clusterOf( neighbor ) == cluster)
+				steps.add( neighbor );
+
+		if (reverse) {
+			List <Tile> sources = remoteSources.get( tile );
+			if (sources != null)
+				for (Tile source : sources)
+					if (clusterOf( source ) == cluster)
+						steps.add( source );
+		}
+
+		else for (int i = 0; i < tile.countRemoteNeighbors(); i++)
+			if (clusterOf( tile.getRemoteNeighbor( i )) == cluster)
+				steps.add( tile.getRemoteNeighbor( i ));
+
+		return steps;
+	}
+
+	/**
+	 * Gets the tiles in a cluster.
+	 *
+	 * @param cluster		get tiles in this cluster
+	 * @return				the cluster's tiles, by rows
+	 */
+	private List <Tile> getClusterTiles( int cluster ) {
+		List <Tile> clusterTiles = new ArrayList <>();
+		int firstRow = cluster / clusterColumns * clusterSize;
+		int firstColumn = cluster % clusterColumns * clusterSize;
+
+		for (int row = firstRow; row < Math.min( rows.length, firstRow + clusterSize ); row++)
+			for (int col = firstColumn; col < Math.min(
+					rows[ row ].length, firstColumn + clusterSize ); col++)
+				if (indexOf( rows[ row ][ col ]) >= 0)
+					clusterTiles.add( rows[ row ][ col ]);
+
+		return clusterTiles;
+	}
+
+	/**
+	 * Creates a transition from a tile to a tile in another cluster, if the step is allowed.
+	 *
+	 * @param from			step from this tile
+	 * @param to			step to this tile
+	 * @param cluster		the first tile's cluster
+	 * @return				the transition, or <code>null</code> if the tiles are in the same
+	 * 						cluster or the step isn't allowed
+	 */
+	private Edge createEdge( Tile from, Tile to, int cluster ) {
+		if (indexOf( to ) < 0 || clusterOf( to ) == cluster)
+			return null;
+
+		float[] step = mode.testSingleStep( from, to );
+		return step == null ? null : new Edge( from, to, step[0], step[1], true );
+	}
+
+	/**
+	 * Checks if a crossing continues the same entrance as the previous crossing: both the tiles
+	 * left and the tiles entered are the same or adjacent.
+	 *
+	 * @param previous		the previous crossing
+	 * @param next			the next crossing
+	 * @return				the crossings are in the same entrance
+	 */
+	private static boolean continues( Edge previous, Edge next ) {
+		return (previous.from == next.from || previous.from.isAdjacent( next.from )) &&
+				(previous.to == next.to || previous.to.isAdjacent( next.to ));
+	}
+
+	/**
+	 * Checks if events allow leaving a tile, and remembers the result.
+	 *
+	 * @param tile			leave this tile
+	 * @param leaving		earlier results by tile
+	 * @return				the host can leave the tile
+	 */
+	private boolean canLeave( Tile tile, Map <Tile, Boolean> leaving ) {
+		Boolean canLeave = leaving.get( tile );
+		if (canLeave == null)
+			leaving.put( tile, canLeave = mode.canLeaveTile( tile ));
+		return canLeave;
+	}
+
+	/**
+	 * Updates remote neighbors for a tile, in both directions.
+	 *
+	 * @param tile			update this tile's remote neighbors
+	 */
+	private void updateRemoteNeighbors( Tile tile ) {
+		Tile[] previous = remoteTargets.remove( tile );
+		for (int i = 0; previous != null && i < previous.length; i++)
+			remoteSources.get( previous[i] ).remove( tile );
+
+		if (tile.countRemoteNeighbors() == 0)
+			return;
+
+		Tile[] targets = new Tile[ tile.countRemoteNeighbors() ];
+		for (int i = 0; i < targets.length; i++) {
+			targets[i] = tile.getRemoteNeighbor( i );
+			List <Tile> sources = remoteSources.get( targets[i] );
+			if (sources == null)
+				remoteSources.put( targets[i], sources = new ArrayList <>() );
+			sources.add( tile );
+		}
+
+		remoteTargets.put( tile, targets );
+	}
+
+	/**
+	 * Adds the clusters of tiles in the grid to a set.
+	 *
+	 * @param tiles			add these tiles' clusters, can be <code>null</code>
+	 * @param clusters		add to this set
+	 */
+	private void addClusters( Tile[] tiles, Set <Integer> clusters ) {
+		for (int i = 0; tiles != null && i < tiles.length; i++)
+			if (indexOf( tiles[i] ) >= 0)
+				clusters.add( clusterOf( tiles[i] ));
+	}
+
+	/**
+	 * Gets the cluster that a tile is in.
+	 *
+	 * @param tile			get this tile's cluster
+	 * @return				the cluster's index
+	 */
+	private int clusterOf( Tile tile ) {
+		return tile.getRow() / clusterSize * clusterColumns + tile.getColumn() / clusterSize;
+	}
+
+	/**
+	 * Gets a tile's index in the graph's tiles.
+	 *
+	 * @param tile			find this tile
+	 * @return				the tile's id, or -1 if the tile isn't in the tile grid
+	 */
+	private int indexOf( Tile tile ) {
+		int id = tile == null ? -1 : tile.getId();
+		return id >= 0 && id < tiles.length && tiles[ id ] == tile ? id : -1;
+	}
+
+	/**
+	 * Creates a path from a search label, following previous tiles to the start.
+	 *
+	 * @param label			the path's last label
+	 * @return				the path, without the starting tile
+	 */
+	private static Tile[] toPath( Label label ) {
+		List <Tile> path = new ArrayList <>();
+		for (; label != null && label.previous != null; label = label.previous)
+			path.add( label.tile );
+
+		Collections.reverse( path );
+		return path.toArray( new Tile[ path.size() ]);
+	}
+
+	/**
+	 * A connection between two nodes, either a transition between clusters, or the best path
+	 * inside a cluster.
+	 */
+	private static class Edge {
+
+		private final Tile from, to;
+		private final float cost, risk;
+		private final boolean transition;
+
+		private Edge( Tile from, Tile to, float cost, float risk, boolean transition ) {
+			this.from = from;
+			this.to = to;
+			this.cost = cost;
+			this.risk = risk;
+			this.transition = transition;
+		}
+	}
+
+	/**
+	 * A path to a tile, with total cost and risk, continuing from the previous label.
+	 */
+	private static class Label {
+
+		private final Tile tile;
+		private final float cost, risk;
+		private final Label previous;
+		private final boolean transition;		// reached through a transition
+
+		private Label( Tile tile, float cost, float risk, Label previous, boolean transition ) {
+			this.tile = tile;
+			this.cost = cost;
+			this.risk = risk;
+			this.previous = previous;
+			this.transition = transition;
+		}
+	}
+}
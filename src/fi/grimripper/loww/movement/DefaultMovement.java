@@ -4,17 +4,29 @@ import static fi.grimripper.loww.Direction.NORTHEAST;
 import static fi.grimripper.loww.Direction.NORTHWEST;
 import static fi.grimripper.loww.Direction.SOUTHEAST;
 import static fi.grimripper.loww.Direction.SOUTHWEST;
+import static fi.grimripper.loww.Height.VERY_HIGH;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.PATHS_CREATED;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.PATHS_REJECTED;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.PATHS_REMOVED;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
-import java.util.Map;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
 
 import fi.grimripper.loww.Direction;
 import fi.grimripper.loww.Height;
 import fi.grimripper.loww.templates.MovementTemplate;
 import fi.grimripper.loww.templates.Templates;
 import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
 
 /**
  * This is the default movement implementation, which progresses outward from a starting position.
@@ -28,16 +40,79 @@ public class DefaultMovement extends MovementMode {
 
 	private static Direction[] diagonals = { NORTHEAST, SOUTHEAST, SOUTHWEST, NORTHWEST };
 	
+	// unused path data for each saved path, before repairing movement radius is no longer allowed
+	private static final int MAX_POOLED_PER_PATH = 4;
+	
+	// explored paths between checking the deadline of a budgeted search
+	private static final int DEADLINE_CHECK_INTERVAL = 64;
+	
+	// orders path data by risk first, then by total cost and estimated remaining cost
+	private static final Comparator <PathData> RISK_AND_COST = new Comparator <PathData>() {
+		@Override
+		public int compare( PathData first, PathData second ) {
+			int compare = Float.compare( first.getRisk(), second.getRisk() );
+			return (compare != 0 ? compare : Float.compare( first.getTotalCost() + first.estimate,
+					second.getTotalCost() + second.estimate ));
+		}
+	};
+	
+	// orders destination candidates by score, and the later scored first among equal scores
+	private static final Comparator <Candidate> LOWEST_SCORE = new Comparator <Candidate>() {
+		@Override
+		public int compare( Candidate first, Candidate second ) {
+			int compare = Float.compare( first.score, second.score );
+			return compare != 0 ? compare : Integer.compare( second.order, first.order );
+		}
+	};
+	
 	protected float totalMove = -1;
 	
 	// saves path data for search
-	private LinkedList <PathData> progressTiles = new LinkedList <>();
+	private ArrayDeque <PathData> progressTiles = new ArrayDeque <>();
 	
 	// saves risk paths for search
-	private LinkedList <PathData> riskPaths = new LinkedList <>();
+	private ArrayDeque <PathData> riskPaths = new ArrayDeque <>();
+	
+	// saves path data for label-setting search, lowest risk and cost first
+	private PriorityQueue <PathData> settleQueue = new PriorityQueue <>( 64, RISK_AND_COST );
+	
+	// search order, breadth-first by default
+	private boolean labelSetting = false;
+	
+	// destination for a point-to-point search, and lower limit for cost of a single step
+	private Tile goal = null;
+	private float minimumMoveCost = 0;
+	
+	// the destination's tile grid, for counting steps to the destination
+	private TileGrid <?> goalGrid = null;
+	
+	// remote neighbors may reach the destination in a single step from anywhere
+	private boolean remoteSteps = false;
 	
 	// saves search results
-	private Map <Tile, ArrayList <PathData>> pathData = new HashMap <>();
+	private TileTable <PathFrontier> pathData = new TileTable <>();
+	
+	// path data objects reused between searches, and number of them currently in use
+	private ArrayList <PathData> pathPool = new ArrayList <>();
+	private int pooledPaths = 0;
+	
+	// path data for the starting location, after a complete movement radius has been generated
+	private PathData radiusStart = null;
+	
+	// starting location of a budgeted search that hasn't finished, and a request to stop one
+	private PathData partialStart = null;
+	private volatile boolean cancelled = false;
+	
+	// notified when best paths are found
+	private SettleListener settleListener = null;
+	
+	// reachability search: tiles, lowest costs and facing ordinals by id, and a heap of tile ids
+	private Tile[] reachTiles = new Tile[0];
+	private float[] reachCosts = new float[0];
+	private byte[] reachFacings = new byte[0];
+	private int[] heapIds = new int[16];
+	private float[] heapCosts = new float[16];
+	private int heapSize = 0;
 	
 	/**
 	 * Sets the movement mode's host and default movement.
@@ -59,56 +134,332 @@ public class DefaultMovement extends MovementMode {
 	 * and calls <code>addProgressTiles</code> for each to generate new successors. Successors with
 	 * a risk are stored separately, and iterated in the same way once there are no more safe paths
 	 * to explore.
+	 * <p>
+	 * In label-setting mode, all successors are instead kept in a single priority queue, ordered by
+	 * risk and then by total cost. Successor costs and risks are never negative, so a path taken
+	 * from the queue can't be improved later, and each path is explored only once.
 	 * 
 	 * @see		PathData
 	 * @see		#beginSearch(PathData, int)
 	 * @see		#addProgressTiles(PathData)
+	 * @see		#setLabelSetting(boolean)
 	 */
 	@Override
 	public void movementRadius( int totalMove ) {
+		startSearchMetrics();
+		PathData pathData = initializeSearch();
+		if (labelSetting) {
+			notifySettled( pathData );
+			pathData.settled = true;
+		}
+		beginSearch( pathData, totalMove );			// the first step
+		
+		// search all safe progress tiles first, then risk paths, or everything in settling order
+		searchPaths( labelSetting ? settleQueue : progressTiles );
+		searchPaths( riskPaths );		// empty in label-setting mode
+		
+		clearEventBuffer();			// might have events which didn't get executed
+		if (!labelSetting)
+			notifyAllSettled();
+		radiusStart = pathData;
+		finishSearchMetrics();
+	}
+	
+	/**
+	 * Starts determining movement radius, and stops when a deadline passes or the search is
+	 * cancelled. Paths are searched in label-setting order regardless of the search mode, so paths
+	 * that have been explored are final. Until the search is complete, movement paths and movement
+	 * radius only contain tiles and facings whose best path has been explored, and the movement
+	 * radius is marked incomplete. The search can be continued with {@link #resumeRadius(long)},
+	 * without starting over.
+	 * <p>
+	 * The deadline is compared to {@link System#nanoTime()}, and it's checked after every few
+	 * explored paths, so the search may run slightly past it. Changes in the tile grid while the
+	 * search is incomplete aren't noticed, so the search should then be started again.
+	 * 
+	 * @param totalMove		the host's total movement
+	 * @param deadline		stop after this time, in nanoseconds
+	 * @return				<code>true</code> if the movement radius is complete
+	 * @see					#cancelRadius()
+	 * @see					#isRadiusComplete()
+	 */
+	public boolean movementRadius( int totalMove, long deadline ) {
+		cancelled = false;				// cancelling an earlier search doesn't stop this one
+		beginBudgetedSearch( totalMove );
+		return searchUntil( deadline );
+	}
+	
+	/**
+	 * Continues a budgeted search that stopped before it was complete, until it's complete or a
+	 * deadline passes. If the host has moved or turned since the search started, the search starts
+	 * over with the same total movement.
+	 * 
+	 * @param deadline		stop after this time, in nanoseconds, compared to {@link
+	 * 						System#nanoTime()}
+	 * @return				<code>true</code> if the movement radius is complete
+	 * @see					#movementRadius(int, long)
+	 */
+	public boolean resumeRadius( long deadline ) {
+		if (partialStart == null)
+			return radiusStart != null;		// nothing to resume
+		
+		if (partialStart.getTile() != getHost().getLocation() ||
+				partialStart.getTemplateFacing() != getHost().getTemplateFacing())
+			beginBudgetedSearch( (int)totalMove );
+		else
+			startSearchMetrics();
+		
+		return searchUntil( deadline );
+	}
+	
+	/**
+	 * Stops a budgeted search that's currently running, as if its deadline had passed. This can
+	 * be called from another thread. The search can still be resumed. If the search isn't running,
+	 * it stops as soon as it's resumed, unless it's complete or a new search is started first.
+	 * 
+	 * @see					#movementRadius(int, long)
+	 */
+	public void cancelRadius() {
+		cancelled = true;
+	}
+	
+	/**
+	 * Checks if a budgeted search has stopped before it was complete.
+	 * 
+	 * @return				<code>false</code> if a budgeted search can be resumed,
+	 * 						<code>true</code> otherwise
+	 */
+	public boolean isRadiusComplete() {
+		return partialStart == null;
+	}
+	
+	/**
+	 * Determines which tiles the host can end its movement in, without movement paths. For a
+	 * template that's symmetric both horizontally and vertically, the host's facing doesn't
+	 * change its tiles, so only the lowest total cost to each tile matters. The search keeps
+	 * those in primitive arrays by tile id, instead of path data with preceding paths, risks and
+	 * occupy heights for each facing. It finds the same tiles as a movement radius with the same
+	 * total movement. Only tiles with ids are searched, and the result is indexed by tile id. Use
+	 * {@link BitSet#toLongArray()} for the tiles as bits in <code>long</code> values.
+	 * <p>
+	 * A step to a remote neighbor keeps the facing of the cheapest path to the tile before it. If
+	 * several paths with different facings have the same cost, only one of them is continued, so
+	 * a multi-tile template that enters different tiles depending on facing may miss a remote
+	 * neighbor. Asymmetric templates need a complete movement radius, so one is generated and
+	 * kept. Otherwise, the current movement radius is cleared.
+	 * 
+	 * @param totalMove		the host's total movement
+	 * @return				tile ids of tiles the host can occupy after moving
+	 * @see					#movementRadius(int)
+	 */
+	public BitSet reachableTiles( int totalMove ) {
+		MovementTemplate template = getHost().getTemplate();
+		BitSet reachable = new BitSet();
+		
+		if (!template.isHorizontallySymmetric() || !template.isVerticallySymmetric()) {
+			movementRadius( totalMove );		// facing matters, so search all paths
+			for (Tile tile : getMovementRadius().getTiles())
+				if (tile.getId() >= 0)
+					reachable.set( tile.getId() );
+			
+			return reachable;
+		}
+		
+		startSearchMetrics();
 		clearRadius();
+		heapSize = 0;
 		
 		Tile starting = getHost().getLocation();
-
-		// leave events ignored from initial tiles
-		initialTiles = getHost().getTemplate().getTiles( starting, getHost().getTemplateFacing() );
+		Direction startFacing = getHost().getTemplateFacing();
+		if (starting != null && starting.getId() >= 0) {
+			initialTiles = getTemplateTiles( starting, startFacing );	// leave events ignored
+			Arrays.fill( reachCosts, Float.POSITIVE_INFINITY );
+			setReachCost( starting, 0, startFacing );
+		}
 		
-		// initialize the starting tile
-		Height minHeight = getMinimumHeight( true, initialTiles );
-		Height occupyHeight =
-				calculateOrGetOccupyHeight( starting, getHost().getTemplateFacing() );
-		setOccupyHeight( starting, getHost().getTemplateFacing(), occupyHeight );
-		PathData pathData = new PathData( starting, null, 0, minHeight,
-				occupyHeight, getHost().getFacing(), getHost().getTemplateFacing(), 0 );
-		addPathData( pathData );		// adds initial path data to search
-		progressTiles.clear();			// ...but it's handled separately so remove it
+		Direction[] facings = Direction.values();
+		BitSet explored = new BitSet();
 		
-		beginSearch( pathData, totalMove );			// the first step
+		while (heapSize > 0) {
+			int id = removeReachable();
+			if (explored.get( id ))
+				continue;			// a cheaper path was explored earlier
+			explored.set( id );
+			
+			Tile tile = reachTiles[ id ];
+			Direction facing = facings[ reachFacings[ id ]];
+			Tile[] tiles = getTemplateTiles( tile, facing );
+			countExplored( tile );
+			
+			// check occupation and leave events, except in the starting tile
+			Height occupyHeight = calculateOrGetOccupyHeight( tile, facing );
+			boolean canLeave = true;
+			if (tile != starting) {
+				Height minHeight = getMinimumHeight( false, tiles );
+				Height moveHeight = getTerrainHeight( minHeight, tiles );
+				
+				// check occupation and events using occupy height, as in a movement radius
+				Height minOccupyHeight = getMinimumHeight( true, tiles );
+				if (occupyHeight != null && (!occupyHeight.equals( moveHeight ) ||
+						!minOccupyHeight.equals( minHeight )))
+					for (int j = 0; j < tiles.length && occupyHeight != null; j++)
+						if (testEnterEvents( tiles[j], minOccupyHeight, occupyHeight ) < 0)
+							occupyHeight = null;		// can't enter because of events
+				
+				clearEventBuffer();
+				canLeave = testLeaveEvents( moveHeight, tiles );
+			}
+			
+			if (occupyHeight != null && Height.compareHeights( occupyHeight, VERY_HIGH ) <= 0)
+				reachable.set( id );
+			
+			if (canLeave)
+				addReachableTiles( tile, facing, reachCosts[ id ], totalMove );
+		}
+		
+		clearEventBuffer();
+		finishSearchMetrics();
+		return reachable;
+	}
+	
+	/**
+	 * Repairs the movement radius after obstacles have been placed in tiles or removed from them,
+	 * instead of generating it again. Occupy data is cleared for the changed tiles, and for main
+	 * tiles whose template could cover them. Path data is removed from those main tiles and from
+	 * all paths that continue through them. Then the search continues from paths in the tiles
+	 * around the removed ones, which finds the same reachable tiles, total costs and risks as a new
+	 * movement radius. Of paths with equal cost and risk, a different one may be selected.
+	 * <p>
+	 * Only changes in obstacles are repaired. Changes in terrain, blocks, movement events or
+	 * movement modifiers still require generating the movement radius again. The movement radius
+	 * can't be repaired if it's not complete, or if the host has moved or turned after generating
+	 * it, or if a change affects the host's starting position. In that case, nothing is changed.
+	 * Repaired paths can't reuse the path data that was removed, so the radius isn't repaired
+	 * either after enough repairs have accumulated unused path data.
+	 * 
+	 * @param changed		obstacles were placed in or removed from these tiles
+	 * @return				<code>true</code> if the movement radius was repaired,
+	 * 						<code>false</code> if it needs to be generated again
+	 * @see					#movementRadius(int)
+	 * @see					MotionListener
+	 */
+	public boolean repairRadius( Collection <Tile> changed ) {
+		if (radiusStart == null || radiusStart.getTile() != getHost().getLocation() ||
+				radiusStart.getTemplateFacing() != getHost().getTemplateFacing())
+			return false;
 		
-		// search all safe progress tiles first, then risk paths
-		@SuppressWarnings( "unchecked" )
-		LinkedList <PathData>[] searchPaths = (LinkedList <PathData>[])new LinkedList[] {
-			progressTiles, riskPaths };
+		// main tiles whose template could cover a changed tile
+		MovementTemplate template = getHost().getTemplate();
+		int reach = Math.max( template.getWidth(), template.getHeight() ) - 1;
+		TileTable <Boolean> covering = new TileTable <>();
+		for (Tile tile : changed)
+			addTilesAround( tile, reach, covering );
 		
-		for (LinkedList <PathData> tileList : searchPaths)
-			// continue until there are no more tiles to continue to
-			while (!tileList.isEmpty()) {
-				
-				// don't check if path data has been removed
-				if (hasPathData( pathData = tileList.remove() )) {
-
-					// leave events from previous tiles first, before adding progress tiles
-					if (testLeaveEvents( pathData.getMoveHeight(),
-							getHost().getTemplate().getTiles(
-									pathData.getTile(), pathData.getTemplateFacing() )))
-						addProgressTiles( pathData );
-
-					else		// can turn in place even if events prevent leaving
-						determineSuccessors( pathData );
+		// too much unused path data, or starting location affected
+		List <Tile> reached = pathData.getTiles();
+		int paths = 0;
+		for (Tile tile : reached)
+			paths += pathData.get( tile ).size();
+		if (pooledPaths > paths * MAX_POOLED_PER_PATH ||
+				covering.get( radiusStart.getTile() ) != null)
+			return false;
+		
+		startSearchMetrics();
+		List <Tile> coveringTiles = covering.getTiles();
+		for (Tile tile : changed)
+			clearOccupyData( tile );
+		for (Tile tile : coveringTiles)
+			clearOccupyData( tile );
+		
+		// remove paths that end in covering tiles or go through them
+		IdentityHashMap <PathData, Boolean> removed = new IdentityHashMap <>();
+		TileTable <Boolean> removedFrom = new TileTable <>();
+		for (Tile tile : coveringTiles)
+			removedFrom.put( tile, Boolean.TRUE );
+		
+		for (Tile tile : reached) {
+			PathFrontier tilePaths = pathData.get( tile );
+			for (PathData data : tilePaths.toArray())
+				if (goesThrough( data, covering, removed )) {
+					tilePaths.remove( data );
+					count( PATHS_REMOVED );
+					removedFrom.put( tile, Boolean.TRUE );
 				}
-			}
+			
+			if (tilePaths.isEmpty())
+				clearOccupyData( tile );		// not reached, unless the search reaches it again
+		}
 		
-		clearEventBuffer();			// might have events which didn't get executed
+		// removed paths may have replaced other paths, which are found from the surrounding tiles
+		TileTable <Boolean> predecessors = new TileTable <>();
+		for (Tile tile : removedFrom.getTiles())
+			addTilesAround( tile, Math.max( 1, reach ), predecessors );
+		
+		for (Tile tile : reached)
+			for (int i = 0; i < tile.countRemoteNeighbors(); i++)
+				if (removedFrom.get( tile.getRemoteNeighbor( i )) != null)
+					predecessors.put( tile, Boolean.TRUE );
+		
+		for (Tile tile : predecessors.getTiles()) {
+			PathFrontier tilePaths = pathData.get( tile );
+			if (tilePaths != null)
+				for (PathData data : tilePaths.toArray())
+					(labelSetting ? settleQueue : data.getRisk() > 0 ? riskPaths : progressTiles)
+							.add( data );
+		}
+		
+		searchPaths( labelSetting ? settleQueue : progressTiles );
+		searchPaths( riskPaths );
+		
+		clearEventBuffer();
+		finishSearchMetrics();
+		return true;
+	}
+	
+	/**
+	 * Finds a movement path to a single destination. Paths are searched in the same order as in
+	 * label-setting mode, except that total cost includes an estimate of the remaining cost to the
+	 * destination. The search stops when the best path to the destination is found, so movement
+	 * data for other tiles is incomplete. The host can still move to the destination with {@link
+	 * #executeMovementPath(Tile, Direction)}.
+	 * <p>
+	 * Note that by default, the search isn't directed towards the destination at all. It explores
+	 * tiles in every direction, like a label-setting movement radius, and only stops earlier. The
+	 * estimate is the number of steps to the destination in its tile grid, multiplied by {@link
+	 * #getMinimumMoveCost()}. The minimum is zero until it's set, since terrain, obstacles and
+	 * movement modifiers can make any step cheaper than the costs seen so far, and a minimum
+	 * that's too high may miss the best path.
+	 * 
+	 * @see		#estimateCost(PathData, Tile)
+	 */
+	@Override
+	public Tile[] findPath( Tile destination, Direction facing, int maxCost ) {
+		startSearchMetrics();
+		PathData pathData = initializeSearch();
+		goal = destination;
+		
+		// the destination's grid counts steps to it, unless there's no estimate
+		goalGrid = destination == null || minimumMoveCost == 0 ? null : destination.getGrid();
+		remoteSteps = goalGrid != null && goalGrid.countRemoteNeighbors() > 0;
+		
+		// starting location may already be the destination
+		if (!isDestination( pathData, facing )) {
+			beginSearch( pathData, maxCost );
+			
+			while (!settleQueue.isEmpty())
+				if (hasPathData( pathData = settleQueue.remove() )) {
+					if (isDestination( pathData, facing ))
+						break;
+					explore( pathData );
+				}
+		}
+		
+		goal = null;
+		goalGrid = null;
+		settleQueue.clear();
+		clearEventBuffer();
+		finishSearchMetrics();
+		return getMovementPath( destination, facing );
 	}
 	
 	/**
@@ -118,13 +469,96 @@ public class DefaultMovement extends MovementMode {
 	 */
 	@Override
 	public Tile[] getMovementPath( Tile pathTo, Direction facing ) {
-		LinkedList <PathData> revPath = getReversedPath( pathTo, facing );
+		if (!canBeOccupied( pathTo, facing ))
+			return new Tile[0];			// no path, or no destination
+		
+		return toPath( selectBestPath( getPathData( pathTo ), facing ));
+	}
+
+	/**
+	 * Creates a movement radius from saved path data. Each tile and facing where the host can
+	 * occupy the tile gets its best path, the same one that's used for movement paths. Like
+	 * movement paths, this should only be used after the search is complete, or while a budgeted
+	 * search is incomplete, in which case the movement radius is marked incomplete.
+	 */
+	@Override
+	public MovementRadius getMovementRadius() {
+		List <Tile> reached = pathData.getTiles();
+		Direction[] facings = Direction.values();
+		Tile[] tiles = new Tile[ reached.size() ];
+		PathData[] bestPaths = new PathData[ tiles.length * facings.length ];
+		int count = 0;
 		
-		// no path, or no destination
-		if (revPath == null)
-			return new Tile[0];
+		for (Tile tile : reached) {
+			PathData[] paths = getPathData( tile );
+			boolean occupiable = false;
+			
+			for (Direction facing : facings)
+				if (canBeOccupied( tile, facing )) {
+					PathData best = selectBestPath( paths, facing );
+					bestPaths[ count * facings.length + facing.ordinal() ] = best;
+					occupiable |= best != null;
+				}
+			
+			if (occupiable)			// otherwise, the next tile reuses the range of nulls
+				tiles[ count++ ] = tile;
+		}
 		
-		return pathToArray( revPath, 0 );
+		return new MovementRadius( getHost(), Arrays.copyOf( tiles, count ),
+				Arrays.copyOf( bestPaths, count * facings.length ), partialStart == null );
+	}
+	
+	/**
+	 * Selects the destinations with the highest scores from the movement radius. Each tile and
+	 * facing where the host can occupy the tile is scored with its best path, the same one that's
+	 * used for movement paths, but paths are only created for the selected destinations. Like
+	 * movement paths, this should only be used after the search is complete, or while a budgeted
+	 * search is incomplete. Of destinations with equal scores, the ones scored first are selected.
+	 * 
+	 * @param scorer		scores the destinations
+	 * @param count			maximum number of destinations to select
+	 * @return				the selected destinations, highest score first
+	 */
+	public Destination[] selectDestinations( DestinationScorer scorer, int count ) {
+		count = Math.max( 0, count );
+		PriorityQueue <Candidate> selected = new PriorityQueue <>( count + 1, LOWEST_SCORE );
+		int scored = 0;
+		
+		for (Tile tile : pathData.getTiles()) {
+			PathData[] paths = null;
+			for (Direction facing : Direction.values()) {
+				if (!canBeOccupied( tile, facing ))
+					continue;
+				
+				if (paths == null)
+					paths = getPathData( tile );
+				PathData best = selectBestPath( paths, facing );
+				if (best == null)
+					continue;
+				
+				float score = scorer.scoreDestination(
+						tile, facing, best.getTotalCost(), best.getRisk() );
+				scored++;
+				if (Float.isNaN( score ) || selected.size() == count &&
+						(count == 0 || score <= selected.peek().score))
+					continue;		// not among the best so far
+				
+				if (selected.size() == count)
+					selected.remove();
+				selected.add( new Candidate( best, facing, score, scored ));
+			}
+		}
+		
+		// fill from the lowest score, creating paths only for the selected destinations
+		Destination[] destinations = new Destination[ selected.size() ];
+		for (int i = destinations.length - 1; i >= 0; i--) {
+			Candidate candidate = selected.remove();
+			PathData last = candidate.path;
+			destinations[i] = new Destination( last.getTile(), candidate.facing,
+					last.getTotalCost(), last.getRisk(), candidate.score, toPath( last ));
+		}
+		
+		return destinations;
 	}
 
 	/**
@@ -133,72 +567,157 @@ public class DefaultMovement extends MovementMode {
 	 * executed. If movement events prevent the mobile object from moving to its destination, finds
 	 * a place for the mobile object to occupy. This can be any tile along the movement path up to
 	 * and including the last tile the mobile object entered, as well as the starting tile.
+	 * <p>
+	 * Movement, interruptions and each executed movement event are recorded as flight recorder
+	 * events, when a recording has enabled them.
 	 */
 	@Override
 	public Tile[] executeMovementPath( Tile destination, Direction facing ) {
-		LinkedList <PathData> revPath = getReversedPath( destination, facing );
-		if (revPath == null)
-			return null;			// can't occupy
-
-		MovementTemplate template = getHost().getTemplate();
-		Tile[] oldTemplate =
-				template.getTiles( getHost().getLocation(), getHost().getTemplateFacing() );
-		Height minHeight = revPath.getLast().getMinHeight();
-		Height moveHeight = revPath.getLast().getMoveHeight();
+		FlightEvents.Execution recording = new FlightEvents.Execution();
+		recording.begin();
+		Tile start = getHost().getLocation();
 		
-		// events in starting location can't interrupt but are executed
-		executeLeaveEvents( minHeight, moveHeight, oldTemplate );
-		getHost().setLocation( null );
+		Tile[] path = executePath( destination, facing );
 		
-		// enter and leave each tile before the destination
-		for (int i = revPath.size() - 2; i > 0; i--) {
-			PathData currentPD = revPath.get( i );
-			Direction newFacing = currentPD.getTemplateFacing();
-			
-			Tile[] newTemplate = template.getTiles( currentPD.getTile(), newFacing );
-			minHeight = currentPD.getMinHeight();
-			moveHeight = currentPD.getMoveHeight();
-			
-			if (!executeEnterEvents(
-					minHeight, moveHeight, newTemplate, template.getMoveIndices( newFacing )))
-				return movementInterrupted( revPath, i + 1, true );
-			
-			// events allow entering, so execute buffered events as well
-			executeEventBuffer( moveHeight );
-			
-			if (!executeLeaveEvents( minHeight, moveHeight, newTemplate ))
-				return movementInterrupted( revPath, i, false );
-			
-			oldTemplate = newTemplate;
+		recording.end();
+		if (recording.shouldCommit()) {
+			recording.set( getHost(), start, destination, path );
+			recording.commit();
 		}
 		
-		// finally, enter events for destination tile
-		minHeight = revPath.getFirst().getMinHeight();
-		moveHeight = revPath.getFirst().getMoveHeight();
-		
-		Tile[] newTemplate = template.getTiles(
-				destination, revPath.getFirst().getTemplateFacing() );
-		
-		if (!executeEnterEvents( minHeight, moveHeight, newTemplate,
-				template.getMoveIndices( revPath.getFirst().getTemplateFacing() )))
-			return movementInterrupted( revPath, 1, true );
-		
-		// events allow entering, so execute buffered events as well
-		executeEventBuffer( moveHeight );
-		
-		getHost().setPosition( facing, destination );
-		return pathToArray( revPath, 0 );
+		return path;
 	}
 
 	@Override
 	public void clearRadius() {
 		super.clearRadius();
 		pathData.clear();
+		pooledPaths = 0;				// all pooled path data can be reused
 		totalMove = -1;
 		progressTiles.clear();
 		riskPaths.clear();
+		settleQueue.clear();
+		radiusStart = null;
+		partialStart = null;
+	}
+	
+	/**
+	 * Gets the minimum cost for a single step, which is used to estimate remaining cost in a
+	 * point-to-point search.
+	 * 
+	 * @return				minimum move cost
+	 * @see					#setMinimumMoveCost(float)
+	 */
+	public float getMinimumMoveCost() {
+		return minimumMoveCost;
+	}
+	
+	/**
+	 * Sets the minimum cost for a single step. This is usually the lowest terrain cost, with
+	 * changes from obstacles, blocks and movement modifiers. If some step costs less, {@link
+	 * #findPath(Tile, Direction, int)} may not find the best path.
+	 * 
+	 * @param minimumMoveCost	minimum move cost, zero for no estimate
+	 */
+	public void setMinimumMoveCost( float minimumMoveCost ) {
+		this.minimumMoveCost = Math.max( 0, minimumMoveCost );
+	}
+	
+	/**
+	 * Checks if movement radius is generated in label-setting mode.
+	 * 
+	 * @return				label-setting search is used
+	 * @see					#setLabelSetting(boolean)
+	 */
+	public boolean isLabelSetting() {
+		return labelSetting;
+	}
+	
+	/**
+	 * Sets the search order for movement radius generation. By default, the search progresses
+	 * outward from the starting location one step at a time, and a tile first reached by an
+	 * expensive path is explored again when a better path to it is found. In label-setting mode,
+	 * paths are explored in order of risk and total cost, so a path is never explored before a
+	 * path that would replace it. Both modes find paths with equal risk and total cost. Changing
+	 * the mode clears the current movement radius.
+	 * 
+	 * @param labelSetting	use label-setting search
+	 */
+	public void setLabelSetting( boolean labelSetting ) {
+		if (this.labelSetting != labelSetting)
+			clearRadius();
+		this.labelSetting = labelSetting;
+	}
+	
+	/**
+	 * Gets the listener for paths found during movement radius generation.
+	 * 
+	 * @return				the listener, or <code>null</code> if there's none
+	 * @see					#setSettleListener(SettleListener)
+	 */
+	public SettleListener getSettleListener() {
+		return settleListener;
+	}
+	
+	/**
+	 * Sets a listener for paths found during movement radius generation. In label-setting mode and
+	 * budgeted search, a path is final when it's explored, so the listener is notified right away.
+	 * In breadth-first mode, paths can be replaced until the search is complete, so the listener
+	 * is notified of all of them at the end. Repairing a movement radius and point-to-point
+	 * searches don't notify the listener.
+	 * 
+	 * @param listener		the new listener, <code>null</code> to stop notifications
+	 * @see					#movementRadius(int)
+	 * @see					#movementRadius(int, long)
+	 */
+	public void setSettleListener( SettleListener listener ) {
+		settleListener = listener;
 	}
 
+	/**
+	 * Estimates the cost of moving from a path's tile to a destination. The estimate must not be
+	 * higher than the actual cost, or the best path may not be found. Turning in place moves an
+	 * asymmetric template's main tile without cost, so the number of steps is reduced by the
+	 * template's dimensions. By default, multiplies the remaining steps by minimum move cost. The
+	 * steps are counted by the destination's tile grid, and there's no estimate from tiles in
+	 * other grids, or if the destination isn't in a tile grid.
+	 * <p>
+	 * A remote neighbor can be any distance away, but it's only a single step. If the
+	 * destination's tile grid has remote neighbors, the estimate is at most the cost of a single
+	 * step.
+	 * 
+	 * @param fromData		path data with tile, facing etc.
+	 * @param destination	estimate cost to this tile
+	 * @return				estimated remaining cost
+	 * @see					#getMinimumMoveCost()
+	 */
+	protected float estimateCost( PathData fromData, Tile destination ) {
+		Tile from = fromData.getTile();
+		if (minimumMoveCost == 0 || from == null || goalGrid == null || from.getGrid() != goalGrid)
+			return 0;
+		
+		int steps = goalGrid.distance( from, destination );
+		MovementTemplate template = getHost().getTemplate();
+		if (!template.isHorizontallySymmetric() || !template.isVerticallySymmetric())
+			steps -= Math.max( template.getWidth(), template.getHeight() ) - 1;
+		
+		float estimate = Math.max( 0, steps ) * minimumMoveCost;
+		return remoteSteps ? Math.min( estimate, minimumMoveCost ) : estimate;
+	}
+	
+	/**
+	 * Checks if a path goes to a tile with a specific facing. For a horizontally asymmetric
+	 * template, facing must be due east or due west for both.
+	 * 
+	 * @param pathData		path data with tile and template facing
+	 * @param facing		compare to this facing
+	 * @return				path has a suitable facing
+	 */
+	protected boolean isPathToFacing( PathData pathData, Direction facing ) {
+		return getHost().getTemplate().isHorizontallySymmetric() ||
+				pathData.getTemplateFacing().isDueEast() == facing.isDueEast();
+	}
+	
 	/**
 	 * Finds successive tiles for the host's starting location. By default, sets the movement
 	 * mode's total move, and calls {@link #addProgressTiles(PathData)} to add tiles.
@@ -231,18 +750,39 @@ public class DefaultMovement extends MovementMode {
 	protected void addProgressTiles( PathData fromData ) {
 		
 		MovementTemplate template = getHost().getTemplate();
-		Tile[] oldTemplate = template.getTiles( fromData.getTile(), fromData.getTemplateFacing() );
-		Tile[] neighbors = determineSuccessors( fromData );
+		Tile[] oldTemplate = getTemplateTiles( fromData.getTile(), fromData.getTemplateFacing() );
+		Tile from = fromData.getTile();
+		Direction fromFacing = fromData.getTemplateFacing();
+		boolean symmetric = template.isHorizontallySymmetric() &&
+				template.isVerticallySymmetric();
+		
+		// go through neighbors by index, unless a subclass decides them
+		Tile[] neighbors = null;
+		int adjacent = 0, count;
+		if (!usesDefaultSuccessors())
+			count = (neighbors = determineSuccessors( fromData )).length;
+		
+		else {
+			if (!symmetric)
+				addTurnInPlaceTiles( fromData );
+			adjacent = (symmetric ? from.countNeighbors() :
+				Templates.countMoveDirections( fromFacing, template ));
+			count = adjacent + from.countRemoteNeighbors();
+		}
 		
-		NeighborLoop: for (int i = 0; i < neighbors.length; i++) {	// check neighbors by direction
+		NeighborLoop: for (int i = 0; i < count; i++) {		// check neighbors by direction
+			Tile next = (neighbors != null ? neighbors[i] : i >= adjacent ?
+				from.getRemoteNeighbor( i - adjacent ) : symmetric ? from.getNeighbor( i ) :
+				from.getNeighbor( Templates.getMoveDirection( fromFacing, template, i )));
+			if (next == null)
+				continue;		// no neighbor to that direction
 			clearEventBuffer();
 			
 			// use direction to adjacent tile, or keep facing if the tiles aren't adjacent
-			Direction facing = (neighbors[i].isAdjacent( fromData.getTile() ) ?
-				fromData.getTile().getDirection( neighbors[i] ) : fromData.getTemplateFacing());
+			Direction facing = (next.isAdjacent( from ) ? from.getDirection( next ) : fromFacing);
 			Direction templateFacing = Templates.getTemplateDirection(
 					facing, fromData.getTemplateFacing(), template );
-			Tile[] newTemplate = template.getTiles( neighbors[i], templateFacing );
+			Tile[] newTemplate = getTemplateTiles( next, templateFacing );
 			
 			// get move height at the tile
 			Height minHeight = getMinimumHeight( false, newTemplate );
@@ -281,17 +821,22 @@ public class DefaultMovement extends MovementMode {
 			risk += getEventBufferRisk( terrainHeight );
 			
 			float totalCost = fromData.getTotalCost() + moveCost;
+			if (totalCost > totalMove)
+				continue;		// not enough movement
+			
 			risk += fromData.getRisk();
-			PathData toData = new PathData( neighbors[i],
+			PathData toData = createPathData( next,
 					fromData, totalCost, minHeight, terrainHeight, facing, templateFacing, risk );
 			
-			// already found a better path, or not enough movement
-			if (totalCost > totalMove || !shouldKeepPath( toData ))
+			if (!shouldKeepPath( toData )) {
+				count( PATHS_REJECTED );
+				releasePathData( toData );		// already found a better path
 				continue;
+			}
 			
 			// can move to tile, check occupation and events using occupy height
 			Height minOccupyHeight = getMinimumHeight( true, newTemplate );
-			Height occupyHeight = calculateOrGetOccupyHeight( neighbors[i], templateFacing );
+			Height occupyHeight = calculateOrGetOccupyHeight( next, templateFacing );
 			if (occupyHeight != null && (!occupyHeight.equals( terrainHeight ) ||
 					!minOccupyHeight.equals( minHeight )))
 				for (int j = 0; j < newTemplate.length && occupyHeight != null; j++)
@@ -300,7 +845,7 @@ public class DefaultMovement extends MovementMode {
 			
 			// add tile, but leave risk paths for later
 			addPathData( toData );
-			setOccupyHeight( neighbors[i], templateFacing, occupyHeight );
+			setOccupyHeight( next, templateFacing, occupyHeight );
 		}
 	}
 
@@ -313,6 +858,10 @@ public class DefaultMovement extends MovementMode {
 	 * Turning in place doesn't cost any movement, or change the tiles where the host is located.
 	 * Therefore, the total cost and risk, movement height, and occupy data in the new main tile's
 	 * path data are the same as in the old path data. Only the main tile and facing change.
+	 * <p>
+	 * While {@link #usesDefaultSuccessors()} returns <code>true</code>, {@link
+	 * #addProgressTiles(PathData)} doesn't call this, but goes through the same neighbors by index
+	 * without copying them.
 	 * 
 	 * @param pathData		path data for the host's position
 	 * @return				neighbors to check
@@ -324,19 +873,24 @@ public class DefaultMovement extends MovementMode {
 			return pathData.getTile().getAccessibleNeighbors( null );	// direction doesn't matter
 		
 		// asymmetric templates need special care
-		if (getHost().getTemplate().isHorizontallySymmetric() ||
-				getHost().getTemplate().isVerticallySymmetric())
-			addTurnInPlaceTile( pathData.getTemplateFacing().getOpposite(), pathData );
-		
-		else		// without any symmetricity, can turn to three directions
-			for (Direction d : diagonals)
-				if (d != pathData.getTemplateFacing())
-					addTurnInPlaceTile( d, pathData );
-		
+		addTurnInPlaceTiles( pathData );
 		return pathData.getTile().getAccessibleNeighbors( Templates.getMoveDirections(
 				pathData.getTemplateFacing(), getHost().getTemplate() ));
 	}
 
+	/**
+	 * Checks if the default successors are used for progress tiles. They're the neighbors
+	 * described in {@link #determineSuccessors(PathData)}, but they're checked by index instead of
+	 * calling it. Subclasses that override <code>determineSuccessors</code> must return
+	 * <code>false</code>, so that their successors are used instead.
+	 * 
+	 * @return				use default successors without calling <code>determineSuccessors</code>
+	 * @see					#addProgressTiles(PathData)
+	 */
+	protected boolean usesDefaultSuccessors() {
+		return true;
+	}
+
 	/**
 	 * Adds a tile for turning in place to the search and sets its occupy properties.
 	 * 
@@ -350,7 +904,7 @@ public class DefaultMovement extends MovementMode {
 				pathData.getTemplateFacing(), templateFacing );
 		
 		// template is the same, so same height
-		PathData toData = new PathData(
+		PathData toData = createPathData(
 				turnInPlace, pathData, pathData.getTotalCost(), pathData.getMinHeight(),
 				pathData.getMoveHeight(), newFacing, templateFacing, pathData.getRisk() );
 		
@@ -362,6 +916,11 @@ public class DefaultMovement extends MovementMode {
 			// add path to tile's data and search (leave risk paths for later)
 			addPathData( toData );
 		}
+		
+		else {
+			count( PATHS_REJECTED );
+			releasePathData( toData );
+		}
 	}
 	
 	/**
@@ -370,23 +929,50 @@ public class DefaultMovement extends MovementMode {
 	 * #shouldKeepPath(PathData, PathData)}, unless the host's template is asymmetric and the old
 	 * and new path data have different facing directions that would require the mobile object to
 	 * turn in place. In that case, the old and new path data don't affect each other.
+	 * <p>
+	 * While a tile's path data only contains paths that were kept this way, it's a Pareto frontier
+	 * sorted by cost, and the same comparison is made with binary searches instead of checking
+	 * each path. This is only done while {@link #usesPathFrontier()} returns <code>true</code>.
 	 * 
 	 * @param newPath		new path data with tile, facing etc.
 	 * @return				path should be added
 	 */
 	protected boolean shouldKeepPath( PathData newPath ) {
-		PathData[] pathData = getPathData( newPath.getTile() );
-		if (pathData.length == 0)
+		PathFrontier pathData = this.pathData.get( newPath.getTile() );
+		if (pathData == null || pathData.isEmpty())
 			return true;		// no path data yet
 		
-		boolean keepPath = true;
+		MovementTemplate template = getHost().getTemplate();
 		Direction newFacing = newPath.getTemplateFacing();
 		
+		if (usesPathFrontier() && pathData.isFrontier()) {
+			
+			// buckets that match the new path in the facing flags that matter for the template
+			int mask = (template.isHorizontallySymmetric() ? 0 : 1) |
+					(template.isVerticallySymmetric() ? 0 : 2);
+			int newBucket = PathFrontier.getBucket( newFacing ) & mask;
+			float cost = newPath.getTotalCost(), risk = newPath.getRisk();
+			boolean keepPath = true;
+			
+			// remove paths that are not worth exploring first, they can't be better than the new
+			for (int b = 0; b < 4; b++)
+				if ((b & mask) == newBucket)
+					count( PATHS_REMOVED, pathData.removeDominated( b, cost, risk ));
+			for (int b = 0; b < 4 && keepPath; b++)
+				if ((b & mask) == newBucket)
+					keepPath = !pathData.hasDominating( b, cost, risk );
+			
+			return keepPath;
+		}
+		
+		// copy existing paths, since comparing may remove them
+		boolean keepPath = true;
+		
 		// compare to all existing paths, those that are not worth exploring should be removed
-		for (PathData pd : pathData) {
-			if (!getHost().getTemplate().isHorizontallySymmetric() &&
+		for (PathData pd : pathData.toArray()) {
+			if (!template.isHorizontallySymmetric() &&
 					pd.getTemplateFacing().isDueEast() != newFacing.isDueEast() ||
-					!getHost().getTemplate().isVerticallySymmetric() &&
+					!template.isVerticallySymmetric() &&
 					pd.getTemplateFacing().isDueNorth() != newFacing.isDueNorth())
 				continue;	// no compare if asymmetric template and different relevant facing
 			
@@ -396,6 +982,19 @@ public class DefaultMovement extends MovementMode {
 		return keepPath;
 	}
 
+	/**
+	 * Checks if new paths are compared to a tile's paths with binary searches, while the paths are
+	 * a Pareto frontier. The binary searches don't call {@link #shouldKeepPath(PathData, PathData)}
+	 * or {@link #removePathData(PathData)}, so subclasses that override either of them must return
+	 * <code>false</code> to have each path compared with them.
+	 * 
+	 * @return				compare paths with binary searches when possible
+	 * @see					#shouldKeepPath(PathData)
+	 */
+	protected boolean usesPathFrontier() {
+		return true;
+	}
+
 	/**
 	 * Compares new path data to an old path data, and decides if the new path should be kept. If
 	 * any existing paths have higher total cost and equal or higher risk, they are removed. If any
@@ -429,8 +1028,7 @@ public class DefaultMovement extends MovementMode {
 	protected PathData selectBestPath( PathData[] pathData, Direction facing ) {
 		PathData currentPD = null;
 		for (PathData pd : pathData)		// check all paths, select the best
-			if (!getHost().getTemplate().isHorizontallySymmetric() &&
-					pd.getTemplateFacing().isDueEast() != facing.isDueEast())
+			if (!isPathToFacing( pd, facing ))
 				continue;					// for asymmetric templates, facing must be the same
 		
 			else if (currentPD == null ||
@@ -442,17 +1040,72 @@ public class DefaultMovement extends MovementMode {
 	}
 
 	/**
-	 * Adds a path data object for a tile, and also adds it to the search.
+	 * Creates a path data object for the search. Path data objects are pooled and reused after the
+	 * movement radius is cleared, so they shouldn't be saved elsewhere. Subclasses can override
+	 * this to create their own path data objects.
+	 * 
+	 * @param tile				the tile associated with the path data
+	 * @param path				path data for previous tile in movement path
+	 * @param totalCost			total cost needed to reach the tile
+	 * @param minHeight			minimum height without terrain
+	 * @param moveHeight		movement height at the tile
+	 * @param facing			the mobile object's facing when moving through the tile
+	 * @param templateFacing	facing for the mobile object's template in the tile
+	 * @param risk				risk to reach the tile
+	 * @return					new or reused path data
+	 * @see						#clearRadius()
+	 */
+	protected PathData createPathData( Tile tile, PathData path, float totalCost,
+			Height minHeight, Height moveHeight, Direction facing, Direction templateFacing,
+			float risk ) {
+		
+		count( PATHS_CREATED );
+		if (pooledPaths == pathPool.size())
+			pathPool.add( new PathData(
+					tile, path, totalCost, minHeight, moveHeight, facing, templateFacing, risk ));
+		else
+			pathPool.get( pooledPaths ).set(
+					tile, path, totalCost, minHeight, moveHeight, facing, templateFacing, risk );
+		
+		return pathPool.get( pooledPaths++ );
+	}
+	
+	/**
+	 * Returns path data that wasn't added to the search back to the pool. Only the latest path
+	 * data from {@link #createPathData(Tile, PathData, float, Height, Height, Direction,
+	 * Direction, float)} can be released, other path data is ignored.
+	 * 
+	 * @param data			release this path data
+	 */
+	protected void releasePathData( PathData data ) {
+		if (pooledPaths > 0 && pathPool.get( pooledPaths - 1 ) == data)
+			pooledPaths--;
+	}
+	
+	/**
+	 * Adds a path data object for a tile, and also adds it to the search. In label-setting mode,
+	 * point-to-point search and budgeted search, all path data goes to the same priority queue,
+	 * otherwise risk paths are kept separately.
 	 * 
 	 * @param data			add path data
 	 */
 	protected void addPathData( PathData data ) {
-		ArrayList <PathData> pathData = this.pathData.get( data.getTile() );
-		if (pathData == null)
-			this.pathData.put( data.getTile(), pathData = new ArrayList <PathData>() );
+		PathFrontier pathData = this.pathData.get( data.getTile() );
+		if (pathData == null) {		// recycle path data storage that was cleared, if possible
+			if ((pathData = this.pathData.getExpired( data.getTile() )) == null)
+				pathData = new PathFrontier();
+			else
+				pathData.clear();
+			
+			this.pathData.put( data.getTile(), pathData );
+		}
 		pathData.add( data );
 		
-		(data.getRisk() > 0 ? riskPaths : progressTiles).add( data );
+		if (goal != null)
+			data.estimate = estimateCost( data, goal );
+		
+		(labelSetting || goal != null || partialStart != null ? settleQueue :
+			data.getRisk() > 0 ? riskPaths : progressTiles).add( data );
 	}
 	
 	/**
@@ -461,8 +1114,9 @@ public class DefaultMovement extends MovementMode {
 	 * @param data			remove path data
 	 */
 	protected void removePathData( PathData data ) {
-		if (pathData.containsKey( data.getTile() ))
-			pathData.get( data.getTile() ).remove( data );
+		PathFrontier pathData = this.pathData.get( data.getTile() );
+		if (pathData != null && pathData.remove( data ))
+			count( PATHS_REMOVED );
 	}
 	
 	/**
@@ -472,20 +1126,33 @@ public class DefaultMovement extends MovementMode {
 	 * @return				movement mode has the path data
 	 */
 	protected boolean hasPathData( PathData data ) {
-		return pathData.containsKey( data.getTile() ) &&
-				pathData.get( data.getTile() ).contains( data );
+		PathFrontier pathData = this.pathData.get( data.getTile() );
+		return pathData != null && pathData.contains( data );
 	}
 	
 	/**
-	 * Gets all path data objects for a tile.
+	 * Gets all path data objects for a tile. While a budgeted search is incomplete, only path data
+	 * that has been explored is included, since the rest may still be replaced.
 	 * 
 	 * @param forTile		get path data for this tile
 	 * @return				the path data for the tile, if it exists
+	 * @see					#movementRadius(int, long)
 	 */
 	protected PathData[] getPathData( Tile forTile ) {
-		ArrayList <PathData> pathData = this.pathData.get( forTile );
-		return (pathData == null ? new PathData[0] :
-			pathData.toArray( new PathData[ pathData.size() ]));
+		PathFrontier pathData = this.pathData.get( forTile );
+		if (pathData == null)
+			return new PathData[0];
+		
+		PathData[] paths = pathData.toArray();
+		if (partialStart == null)
+			return paths;
+		
+		int settled = 0;
+		for (PathData pd : paths)
+			if (pd.settled)
+				paths[ settled++ ] = pd;
+		
+		return Arrays.copyOf( paths, settled );
 	}
 
 	/**
@@ -513,6 +1180,422 @@ public class DefaultMovement extends MovementMode {
     	return revPath;
 	}
 
+	/**
+	 * Clears old movement radius and initializes search at the host's current location. Sets the
+	 * starting tile's occupy height, and creates a path data object for it.
+	 * 
+	 * @return				path data for the starting location
+	 */
+	private PathData initializeSearch() {
+		clearRadius();
+		
+		Tile starting = getHost().getLocation();
+
+		// leave events ignored from initial tiles
+		initialTiles = getTemplateTiles( starting, getHost().getTemplateFacing() );
+		
+		// initialize the starting tile
+		Height minHeight = getMinimumHeight( true, initialTiles );
+		Height occupyHeight =
+				calculateOrGetOccupyHeight( starting, getHost().getTemplateFacing() );
+		setOccupyHeight( starting, getHost().getTemplateFacing(), occupyHeight );
+		PathData pathData = createPathData( starting, null, 0, minHeight,
+				occupyHeight, getHost().getFacing(), getHost().getTemplateFacing(), 0 );
+		addPathData( pathData );		// adds initial path data to search
+		progressTiles.clear();			// ...but it's handled separately so remove it
+		settleQueue.clear();
+		countExplored( starting );
+		
+		return pathData;
+	}
+	
+	/**
+	 * Continues search from paths in a search list until the list is empty. Paths that have been
+	 * removed are skipped.
+	 * 
+	 * @param searchList	take paths from this list
+	 */
+	private void searchPaths( Queue <PathData> searchList ) {
+		while (!searchList.isEmpty()) {
+			PathData pathData = searchList.remove();
+			if (hasPathData( pathData ))
+				explore( pathData );
+		}
+	}
+	
+	/**
+	 * Starts a budgeted search from the host's location, without searching any paths yet.
+	 * 
+	 * @param totalMove		the host's total movement
+	 */
+	private void beginBudgetedSearch( int totalMove ) {
+		startSearchMetrics();
+		PathData pathData = initializeSearch();
+		notifySettled( pathData );
+		pathData.settled = true;
+		partialStart = pathData;		// also sends all paths to the label-setting queue
+		beginSearch( pathData, totalMove );
+	}
+	
+	/**
+	 * Continues a budgeted search until it's complete, or until the deadline passes or the search
+	 * is cancelled. A complete search becomes the movement radius.
+	 * 
+	 * @param deadline		stop after this time, in nanoseconds
+	 * @return				the search is complete
+	 */
+	private boolean searchUntil( long deadline ) {
+		boolean complete = true;
+		
+		for (int i = 1; !settleQueue.isEmpty(); i++) {
+			if (cancelled || i % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+				cancelled = false;		// a cancellation only stops the search once
+				complete = false;
+				break;
+			}
+			
+			PathData pathData = settleQueue.remove();
+			if (hasPathData( pathData ))
+				explore( pathData );
+		}
+		
+		clearEventBuffer();
+		if (complete) {
+			radiusStart = partialStart;
+			partialStart = null;
+			cancelled = false;
+		}
+		
+		finishSearchMetrics();
+		return complete;
+	}
+	
+	/**
+	 * Continues search from a path taken from the search lists.
+	 * 
+	 * @param pathData		path data for the host's position
+	 */
+	private void explore( PathData pathData ) {
+		countExplored( pathData.getTile() );
+		if (goal == null && radiusStart == null && (labelSetting || partialStart != null))
+			notifySettled( pathData );		// not while finding paths again for a repair
+		pathData.settled = true;
+		
+		// leave events from previous tiles first, before adding progress tiles
+		if (testLeaveEvents( pathData.getMoveHeight(), getTemplateTiles(
+				pathData.getTile(), pathData.getTemplateFacing() )))
+			addProgressTiles( pathData );
+
+		else		// can turn in place even if events prevent leaving
+			determineSuccessors( pathData );
+	}
+	
+	/**
+	 * Notifies the settle listener of a path that's final, unless a path with the same tile and
+	 * template facing was already notified.
+	 * 
+	 * @param pathData		the explored path
+	 */
+	private void notifySettled( PathData pathData ) {
+		if (settleListener == null)
+			return;
+		
+		for (PathData pd : this.pathData.get( pathData.getTile() ).toArray())
+			if (pd != pathData && pd.settled &&
+					pd.getTemplateFacing() == pathData.getTemplateFacing())
+				return;			// already found a better path
+		
+		settleListener.pathSettled( this, pathData.getTile(), pathData.getTemplateFacing(),
+				pathData.getTotalCost(), pathData.getRisk() );
+	}
+	
+	/**
+	 * Notifies the settle listener of the best path for each tile and template facing, after a
+	 * breadth-first search is complete.
+	 */
+	private void notifyAllSettled() {
+		if (settleListener == null)
+			return;
+		
+		Direction[] facings = Direction.values();
+		PathData[] best = new PathData[ facings.length ];
+		for (Tile tile : pathData.getTiles()) {
+			Arrays.fill( best, null );
+			for (PathData pd : pathData.get( tile ).toArray()) {
+				int index = pd.getTemplateFacing().ordinal();
+				if (best[ index ] == null || RISK_AND_COST.compare( pd, best[ index ]) < 0)
+					best[ index ] = pd;
+			}
+			
+			for (PathData pd : best)
+				if (pd != null)
+					settleListener.pathSettled(
+							this, tile, pd.getTemplateFacing(), pd.getTotalCost(), pd.getRisk() );
+		}
+	}
+	
+	/**
+	 * Finds the lowest costs to a tile's neighbors in a reachability search. The steps are tested
+	 * the same way as in {@link #addProgressTiles(PathData)}, but risk isn't needed.
+	 * 
+	 * @param from			the explored tile
+	 * @param facing		template's facing in the explored tile
+	 * @param fromCost		lowest total cost to the explored tile
+	 * @param totalMove		the host's total movement
+	 */
+	private void addReachableTiles( Tile from, Direction facing, float fromCost, int totalMove ) {
+		MovementTemplate template = getHost().getTemplate();
+		Tile[] oldTemplate = getTemplateTiles( from, facing );
+		int adjacent = from.countNeighbors();		// direction doesn't matter
+		int count = adjacent + from.countRemoteNeighbors();
+		
+		NeighborLoop: for (int i = 0; i < count; i++) {
+			Tile to = (i < adjacent ?
+				from.getNeighbor( i ) : from.getRemoteNeighbor( i - adjacent ));
+			if (to.getId() < 0)
+				continue;			// can't be indexed
+			clearEventBuffer();
+			
+			// use direction to adjacent tile, or keep facing if the tiles aren't adjacent
+			Direction toFacing = to.isAdjacent( from ) ? from.getDirection( to ) : facing;
+			Tile[] newTemplate = getTemplateTiles( to, toFacing );
+			
+			Height minHeight = getMinimumHeight( false, newTemplate );
+			if (minHeight == null)
+				continue;		// outside tile grid
+			
+			Height terrainHeight = getTerrainHeight( minHeight, newTemplate );
+			if (!blocksAllowTemplate( newTemplate, terrainHeight ))
+				continue;		// entry blocked
+			
+			float moveCost = -1;
+			for (int j : template.getMoveIndices( toFacing )) {
+				if (testEnterEvents( newTemplate[j], minHeight, terrainHeight ) < 0)
+					continue NeighborLoop;		// events prevent entering
+				
+				float cost = getAndSaveCost( newTemplate[j], minHeight );
+				if (cost < getImpassableMoveCost())
+					cost = addBlockCosts(
+							oldTemplate[j], newTemplate[j], minHeight, terrainHeight, cost );
+				if (cost >= getImpassableMoveCost())
+					continue NeighborLoop;		// tile is impassable or blocked
+				
+				moveCost = Math.max( moveCost, cost );
+			}
+			
+			float totalCost = fromCost + moveCost;
+			if (totalCost <= totalMove && (to.getId() >= reachCosts.length ||
+					totalCost < reachCosts[ to.getId() ]))
+				setReachCost( to, totalCost, toFacing );
+		}
+	}
+	
+	/**
+	 * Saves a lower total cost to a tile in a reachability search, and adds the tile to the heap.
+	 * 
+	 * @param tile			the reached tile
+	 * @param totalCost		lowest total cost so far
+	 * @param facing		template's facing at the end of the path
+	 */
+	private void setReachCost( Tile tile, float totalCost, Direction facing ) {
+		int id = tile.getId();
+		if (id >= reachCosts.length) {
+			int length = Math.max( id + 1, reachCosts.length * 2 );
+			int oldLength = reachCosts.length;
+			reachTiles = Arrays.copyOf( reachTiles, length );
+			reachCosts = Arrays.copyOf( reachCosts, length );
+			reachFacings = Arrays.copyOf( reachFacings, length );
+			Arrays.fill( reachCosts, oldLength, length, Float.POSITIVE_INFINITY );
+		}
+		
+		reachTiles[ id ] = tile;
+		reachCosts[ id ] = totalCost;
+		reachFacings[ id ] = (byte)facing.ordinal();
+		
+		if (heapSize == heapIds.length) {
+			heapIds = Arrays.copyOf( heapIds, heapSize * 2 );
+			heapCosts = Arrays.copyOf( heapCosts, heapSize * 2 );
+		}
+		
+		// sift up, the cheapest tile is first
+		int index = heapSize++;
+		while (index > 0 && heapCosts[ (index - 1) / 2 ] > totalCost) {
+			heapIds[ index ] = heapIds[ (index - 1) / 2 ];
+			heapCosts[ index ] = heapCosts[ (index - 1) / 2 ];
+			index = (index - 1) / 2;
+		}
+		
+		heapIds[ index ] = id;
+		heapCosts[ index ] = totalCost;
+	}
+	
+	/**
+	 * Removes the cheapest tile from the heap of a reachability search. A tile can be in the heap
+	 * several times, with costs that were later lowered.
+	 * 
+	 * @return				the tile's id
+	 */
+	private int removeReachable() {
+		int first = heapIds[0];
+		int lastId = heapIds[ --heapSize ];
+		float lastCost = heapCosts[ heapSize ];
+		
+		// sift down the last tile from the top
+		int index = 0;
+		for (int child = 1; child < heapSize; child = 2 * index + 1) {
+			if (child + 1 < heapSize && heapCosts[ child + 1 ] < heapCosts[ child ])
+				child++;
+			if (heapCosts[ child ] >= lastCost)
+				break;
+			
+			heapIds[ index ] = heapIds[ child ];
+			heapCosts[ index ] = heapCosts[ child ];
+			index = child;
+		}
+		
+		heapIds[ index ] = lastId;
+		heapCosts[ index ] = lastCost;
+		return first;
+	}
+	
+	/**
+	 * Checks if a path ends at the destination of a point-to-point search, with a facing where the
+	 * host can occupy the destination.
+	 * 
+	 * @param pathData		path data with tile and facing
+	 * @param facing		facing at the destination
+	 * @return				path ends at destination
+	 */
+	private boolean isDestination( PathData pathData, Direction facing ) {
+		return pathData.getTile() == goal && isPathToFacing( pathData, facing ) &&
+				canBeOccupied( goal, facing );
+	}
+	
+	/**
+	 * Adds a tile and the tiles within a number of steps from it to a table.
+	 * 
+	 * @param tile			add tiles around this tile
+	 * @param steps			maximum number of steps between adjacent tiles
+	 * @param tiles			add tiles to this table
+	 */
+	private void addTilesAround( Tile tile, int steps, TileTable <Boolean> tiles ) {
+		List <Tile> added = new ArrayList <>();
+		tiles.put( tile, Boolean.TRUE );
+		added.add( tile );
+		
+		for (int first = 0, step = 0; step < steps; step++) {
+			int last = added.size();
+			for (int i = first; i < last; i++)
+				for (Tile neighbor : added.get( i ).getNeighbors())
+					if (tiles.get( neighbor ) == null) {
+						tiles.put( neighbor, Boolean.TRUE );
+						added.add( neighbor );
+					}
+			
+			first = last;
+		}
+	}
+	
+	/**
+	 * Checks if a path goes through any tile in a table. Results are saved for the path and all
+	 * the paths it continues, so each path is checked only once.
+	 * 
+	 * @param path			check this path
+	 * @param tiles			check for these tiles
+	 * @param checked		saved results for paths
+	 * @return				path ends in or goes through one of the tiles
+	 */
+	private boolean goesThrough( PathData path, TileTable <Boolean> tiles,
+			IdentityHashMap <PathData, Boolean> checked ) {
+		
+		// go backwards until a checked path, or a path in one of the tiles
+		Boolean result = null;
+		PathData previous = path;
+		while (previous != null && (result = checked.get( previous )) == null) {
+			if (tiles.get( previous.getTile() ) != null) {
+				result = Boolean.TRUE;
+				break;
+			}
+			previous = previous.getPath();
+		}
+		
+		if (result == null)
+			result = Boolean.FALSE;		// reached the starting location
+		
+		for (PathData pd = path; pd != previous; pd = pd.getPath())
+			checked.put( pd, result );
+		if (previous != null)
+			checked.put( previous, result );
+		
+		return result;
+	}
+	
+	/**
+	 * Moves the host along the best path to a destination, executing movement events.
+	 * 
+	 * @param destination		the destination tile
+	 * @param facing			the host's facing in the destination tile
+	 * @return					the path the host moved, or <code>null</code> if unreachable
+	 * @see						#executeMovementPath(Tile, Direction)
+	 */
+	private Tile[] executePath( Tile destination, Direction facing ) {
+		LinkedList <PathData> revList = getReversedPath( destination, facing );
+		if (revList == null)
+			return null;			// can't occupy
+		
+		PathData[] revPath = revList.toArray( new PathData[ revList.size() ]);
+
+		MovementTemplate template = getHost().getTemplate();
+		Tile[] oldTemplate =
+				getTemplateTiles( getHost().getLocation(), getHost().getTemplateFacing() );
+		Height minHeight = revPath[ revPath.length - 1 ].getMinHeight();
+		Height moveHeight = revPath[ revPath.length - 1 ].getMoveHeight();
+		
+		// events in starting location can't interrupt but are executed
+		executeLeaveEvents( minHeight, moveHeight, oldTemplate );
+		getHost().setLocation( null );
+		
+		// enter and leave each tile before the destination
+		for (int i = revPath.length - 2; i > 0; i--) {
+			PathData currentPD = revPath[i];
+			Direction newFacing = currentPD.getTemplateFacing();
+			
+			Tile[] newTemplate = getTemplateTiles( currentPD.getTile(), newFacing );
+			minHeight = currentPD.getMinHeight();
+			moveHeight = currentPD.getMoveHeight();
+			
+			if (!executeEnterEvents(
+					minHeight, moveHeight, newTemplate, template.getMoveIndices( newFacing )))
+				return movementInterrupted( revPath, i + 1, true );
+			
+			// events allow entering, so execute buffered events as well
+			executeEventBuffer( moveHeight );
+			
+			if (!executeLeaveEvents( minHeight, moveHeight, newTemplate ))
+				return movementInterrupted( revPath, i, false );
+			
+			oldTemplate = newTemplate;
+		}
+		
+		// finally, enter events for destination tile
+		minHeight = revPath[0].getMinHeight();
+		moveHeight = revPath[0].getMoveHeight();
+		
+		Tile[] newTemplate = getTemplateTiles( destination, revPath[0].getTemplateFacing() );
+		
+		if (!executeEnterEvents( minHeight, moveHeight, newTemplate,
+				template.getMoveIndices( revPath[0].getTemplateFacing() )))
+			return movementInterrupted( revPath, 1, true );
+		
+		// events allow entering, so execute buffered events as well
+		executeEventBuffer( moveHeight );
+		
+		// copy path before motion listeners get a chance to start a new search
+		Tile[] path = pathToArray( revPath, 0 );
+		getHost().setPosition( facing, destination );
+		return path;
+	}
+	
 	/**
 	 * Finds a location where to set a mobile object whose movement was interrupted. If enter
 	 * events were executed for a tile, but prevented entry, then leave events for that tile must
@@ -529,10 +1612,14 @@ public class DefaultMovement extends MovementMode {
 	 * @return					the path the mobile object moves to its final location (empty if
 	 * 							the mobile object re-occupies its starting location)
 	 */
-	private Tile[] movementInterrupted( LinkedList <PathData> revPath, int interruptAt,
+	private Tile[] movementInterrupted( PathData[] revPath, int interruptAt,
 			boolean failedEntry ) {
+		FlightEvents.Interruption recording = new FlightEvents.Interruption();
+		recording.begin();
+		
 		MovementTemplate template = getHost().getTemplate();
-		PathData current = revPath.get( interruptAt - 1 );
+		PathData current = revPath[ interruptAt - 1 ];
+		Tile interruptedAt = revPath[ failedEntry ? interruptAt - 1 : interruptAt ].getTile();
 		
 		// interruption is the only case where event buffer can escape execution
 		clearEventBuffer();
@@ -540,13 +1627,13 @@ public class DefaultMovement extends MovementMode {
 		// enter events interrupted -> must leave the tile again
 		if (failedEntry)
 			executeLeaveEvents( current.getMinHeight(), current.getMoveHeight(),
-					template.getTiles( current.getTile(), current.getTemplateFacing() ));
+					getTemplateTiles( current.getTile(), current.getTemplateFacing() ));
 		
 		// check tiles in backwards order, last is starting tile which at least can be occupied
 		int posIndex = interruptAt - 1;
-		while (++posIndex < revPath.size()) {		// always a valid tile somewhere
-			current = revPath.get( posIndex );
-			Tile[] tiles = template.getTiles( current.getTile(), current.getTemplateFacing() );
+		while (++posIndex < revPath.length) {		// always a valid tile somewhere
+			current = revPath[ posIndex ];
+			Tile[] tiles = getTemplateTiles( current.getTile(), current.getTemplateFacing() );
 			
 			executeEnterEvents( current.getMinHeight(), current.getMoveHeight(), tiles,
 					template.getMoveIndices( current.getTemplateFacing().getOpposite() ));
@@ -561,28 +1648,71 @@ public class DefaultMovement extends MovementMode {
 		}
 
 		// faces towards tile where would have moved next (next tile's post-move facing)
-		getHost().setPosition(
-				revPath.get( posIndex - 1 ).getTemplateFacing(), current.getTile() );
-		return pathToArray( revPath, posIndex );
+		Tile[] path = pathToArray( revPath, posIndex );
+		getHost().setPosition( revPath[ posIndex - 1 ].getTemplateFacing(), current.getTile() );
+		
+		recording.end();
+		if (recording.shouldCommit()) {
+			recording.set( interruptedAt, failedEntry, current.getTile() );
+			recording.commit();
+		}
+		
+		return path;
+	}
+	
+	/**
+	 * Creates a path from its last path data, by counting steps back to the starting location and
+	 * then filling the path from its end.
+	 * 
+	 * @param last		path data for the destination, or <code>null</code> for an empty path
+	 * @return			the path in an array, without the starting tile
+	 */
+	private Tile[] toPath( PathData last ) {
+		int length = 0;
+		for (PathData pd = last; pd != null && pd.getPath() != null; pd = pd.getPath())
+			length++;
+		
+		Tile[] path = new Tile[ length ];
+		for (PathData pd = last; length > 0; pd = pd.getPath())
+			path[ --length ] = pd.getTile();
+		
+		return path;
 	}
 	
 	/**
 	 * Copies path into an array.
 	 * 
-	 * @param revPath	a list of path data, in backwards order from destination tile, with
-	 * 					starting tile in last index
+	 * @param revPath	path data in backwards order from destination tile, with starting tile in
+	 * 					last index
 	 * @param last		index of last tile to include
 	 * @return			the given path in an array, without the starting tile
 	 */
-	private Tile[] pathToArray( LinkedList <PathData> revPath, int last ) {
-		Tile[] path = new Tile[ revPath.size() - last - 1 ];
+	private Tile[] pathToArray( PathData[] revPath, int last ) {
+		Tile[] path = new Tile[ revPath.length - last - 1 ];
 
-		for (int i = 0, j = revPath.size() - 2; i < path.length; i++, j--)
-			path[i] = revPath.get( j ).getTile();
+		for (int i = 0, j = revPath.length - 2; i < path.length; i++, j--)
+			path[i] = revPath[j].getTile();
 		
 		return path;
 	}
 	
+	/**
+	 * Adds the tiles for turning in place for an asymmetric template, as described in {@link
+	 * #determineSuccessors(PathData)}.
+	 * 
+	 * @param pathData		path data for the host's position
+	 */
+	private void addTurnInPlaceTiles( PathData pathData ) {
+		if (getHost().getTemplate().isHorizontallySymmetric() ||
+				getHost().getTemplate().isVerticallySymmetric())
+			addTurnInPlaceTile( pathData.getTemplateFacing().getOpposite(), pathData );
+		
+		else		// without any symmetricity, can turn to three directions
+			for (Direction d : diagonals)
+				if (d != pathData.getTemplateFacing())
+					addTurnInPlaceTile( d, pathData );
+	}
+	
 	/**
 	 * A data object to store movement data relevant to a single tile in a path. Paths can change
 	 * by facing if template is asymmetric. The tiles occupied at the destination can also vary
@@ -600,6 +1730,10 @@ public class DefaultMovement extends MovementMode {
 		private Direction facing = null;				// mobile object's facing in the tile
 		private Direction templateFacing = null;		// template's facing in the tile
 		private float risk = 0;						// total risk to reach this tile
+		private float estimate = 0;					// estimated cost to destination
+		private boolean settled = false;				// explored, or the starting location
+		PathFrontier store = null;						// path data where this was last added
+		int stored = 0;									// times added there and not removed
 
 		/**
 		 * Sets basic path data, without occupation.
@@ -616,6 +1750,18 @@ public class DefaultMovement extends MovementMode {
 		public PathData( Tile tile, PathData path, float totalCost, Height minHeight,
 				Height moveHeight, Direction facing, Direction templateFacing, float risk ) {
 			
+			set( tile, path, totalCost, minHeight, moveHeight, facing, templateFacing, risk );
+		}
+		
+		/**
+		 * Sets all path data, so that a pooled object can be reused.
+		 * 
+		 * @see					#PathData(Tile, PathData, float, Height, Height, Direction,
+		 * 						Direction, float)
+		 */
+		private void set( Tile tile, PathData path, float totalCost, Height minHeight,
+				Height moveHeight, Direction facing, Direction templateFacing, float risk ) {
+			
 			this.tile = tile;
 			this.path = path;
 			this.totalCost = totalCost;
@@ -624,6 +1770,10 @@ public class DefaultMovement extends MovementMode {
 			this.facing = facing;
 			this.templateFacing = templateFacing;
 			this.risk = risk;
+			estimate = 0;
+			settled = false;
+			store = null;
+			stored = 0;
 		}
 		
 	    /**
@@ -714,6 +1864,8 @@ public class DefaultMovement extends MovementMode {
 	     */
 	    public void setTotalCost( float totalCost ) {
 	    	this.totalCost = totalCost;
+	    	if (stored > 0)
+	    		store.invalidate();		// no longer sorted by cost
 	    }
 
 	    /**
@@ -750,6 +1902,8 @@ public class DefaultMovement extends MovementMode {
 	     */
 	    public void setTemplateFacing( Direction templateFacing ) {
 	    	this.templateFacing = templateFacing;
+	    	if (stored > 0)
+	    		store.invalidate();		// may be in the wrong bucket
 	    }
 
 		/**
@@ -759,6 +1913,26 @@ public class DefaultMovement extends MovementMode {
 		 */
 		public void setRisk( float risk ) {
 			this.risk = risk;
+			if (stored > 0)
+				store.invalidate();		// risk may no longer decrease with cost
+		}
+	}
+	
+	/**
+	 * A destination being considered for selection, with its best path and score.
+	 */
+	private static class Candidate {
+		
+		private final PathData path;
+		private final Direction facing;
+		private final float score;
+		private final int order;			// destinations scored up to this one
+		
+		private Candidate( PathData path, Direction facing, float score, int order ) {
+			this.path = path;
+			this.facing = facing;
+			this.score = score;
+			this.order = order;
 		}
 	}
 }
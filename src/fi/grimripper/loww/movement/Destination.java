@@ -0,0 +1,96 @@
+package fi.grimripper.loww.movement;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * A destination selected from a movement radius by its score, with the best path to it. Nothing
+ * changes after construction, so any number of threads can query the destination at the same
+ * time.
+ *
+ * @author Marko Tuominen
+ * @see DefaultMovement#selectDestinations(DestinationScorer, int)
+ */
+public class Destination {
+
+	private final Tile tile;
+	private final Direction facing;
+	private final float cost, risk, score;
+	private final Tile[] path;
+
+	/**
+	 * Creates a destination.
+	 *
+	 * @param tile			the host's main tile at the destination
+	 * @param facing		the host's facing at the destination
+	 * @param cost			total cost of the best path
+	 * @param risk			total risk of the best path
+	 * @param score			the destination's score
+	 * @param path			the best path, without the starting location
+	 */
+	Destination( Tile tile, Direction facing, float cost, float risk, float score, Tile[] path ) {
+		this.tile = tile;
+		this.facing = facing;
+		this.cost = cost;
+		this.risk = risk;
+		this.score = score;
+		this.path = path;
+	}
+
+	/**
+	 * Gets the destination tile.
+	 *
+	 * @return				the host's main tile at the destination
+	 */
+	public Tile getTile() {
+		return tile;
+	}
+
+	/**
+	 * Gets the facing at the destination.
+	 *
+	 * @return				the host's facing
+	 */
+	public Direction getFacing() {
+		return facing;
+	}
+
+	/**
+	 * Gets the total cost of the best path to the destination.
+	 *
+	 * @return				total cost
+	 */
+	public float getCost() {
+		return cost;
+	}
+
+	/**
+	 * Gets the total risk of the best path to the destination.
+	 *
+	 * @return				total risk
+	 */
+	public float getRisk() {
+		return risk;
+	}
+
+	/**
+	 * Gets the score the destination was selected by.
+	 *
+	 * @return				the destination's score
+	 * @see					DestinationScorer
+	 */
+	public float getScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the best path to the destination. The path is in the same format as movement paths: it
+	 * doesn't contain the starting location, and it's empty if the host is already there.
+	 *
+	 * @return				the path in a new array
+	 * @see					MovementMode#getMovementPath(Tile, Direction)
+	 */
+	public Tile[] getPath() {
+		return path.clone();
+	}
+}
@@ -0,0 +1,27 @@
+package fi.grimripper.loww.movement;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * Interface for scoring destinations in a movement radius. A movement mode applies the scorer to
+ * each tile and facing the host can occupy, using the best path's total cost and risk, without
+ * creating movement paths. Paths are only created for the destinations with the highest scores.
+ *
+ * @author Marko Tuominen
+ * @see DefaultMovement#selectDestinations(DestinationScorer, int)
+ */
+public interface DestinationScorer {
+
+	/**
+	 * Scores a destination. Higher scores are better, and destinations scored <code>NaN</code>
+	 * aren't selected at all.
+	 *
+	 * @param tile				the host's main tile at the destination
+	 * @param facing			the host's facing at the destination
+	 * @param totalCost			total cost of the best path to the destination
+	 * @param risk				total risk of the best path to the destination
+	 * @return					the destination's score
+	 */
+	public float scoreDestination( Tile tile, Direction facing, float totalCost, float risk );
+}
@@ -0,0 +1,197 @@
+package fi.grimripper.loww.movement;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import fi.grimripper.loww.Height;
+import fi.grimripper.loww.tiles.MovementEvent;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * Flight recorder events for executing movement. Movement events can contain any amount of logic,
+ * so a recording shows which events and tiles make movement slow. The events are disabled unless
+ * a recording enables them, so recordings made with default settings don't capture every
+ * movement callback. Enabled events are committed only when they take longer than their
+ * threshold, which a recording can also change.
+ *
+ * @author Marko Tuominen
+ * @see MovementMode#executeEnterEvents(Height, Height, Tile[], int[])
+ * @see MovementMode#executeLeaveEvents(Height, Height, Tile...)
+ * @see MovementMode#executeEventBuffer(Height)
+ */
+final class FlightEvents {
+
+	private static final String CATEGORY = "LoWW Movement";
+
+	private FlightEvents() {
+	}
+
+	/**
+	 * A mobile object moving along a movement path.
+	 */
+	@Name( "fi.grimripper.loww.MovementExecution" )
+	@Label( "Movement Execution" )
+	@Description( "A mobile object moves along a movement path, executing movement events" )
+	@Category( CATEGORY )
+	@Enabled( false )
+	@Threshold( "10 ms" )
+	static class Execution extends Event {
+
+		@Label( "Mobile Object Class" )
+		Class <?> hostClass;
+
+		@Label( "Start Row" )
+		int startRow;
+
+		@Label( "Start Column" )
+		int startColumn;
+
+		@Label( "Destination Row" )
+		int destinationRow;
+
+		@Label( "Destination Column" )
+		int destinationColumn;
+
+		@Label( "Path Length" )
+		@Description( "Number of tiles moved through, -1 if the destination was unreachable" )
+		int pathLength;
+
+		@Label( "Interrupted" )
+		@Description( "Movement events stopped the mobile object before its destination" )
+		boolean interrupted;
+
+		void set( MobileObject host, Tile start, Tile destination, Tile[] path ) {
+			hostClass = host.getClass();
+			startRow = row( start );
+			startColumn = column( start );
+			destinationRow = row( destination );
+			destinationColumn = column( destination );
+			pathLength = path == null ? -1 : path.length;
+			interrupted = path != null && host.getLocation() != destination;
+		}
+	}
+
+	/**
+	 * A mobile object finding a place to stay after movement events interrupted its movement.
+	 */
+	@Name( "fi.grimripper.loww.MovementInterruption" )
+	@Label( "Movement Interruption" )
+	@Description( "Movement events interrupt movement, and the mobile object backtracks" )
+	@Category( CATEGORY )
+	@Enabled( false )
+	@Threshold( "10 ms" )
+	static class Interruption extends Event {
+
+		@Label( "Row" )
+		@Description( "Row of the tile where movement was interrupted" )
+		int row;
+
+		@Label( "Column" )
+		@Description( "Column of the tile where movement was interrupted" )
+		int column;
+
+		@Label( "Failed Entry" )
+		@Description( "Enter events interrupted movement, rather than leave events" )
+		boolean failedEntry;
+
+		@Label( "Final Row" )
+		int finalRow;
+
+		@Label( "Final Column" )
+		int finalColumn;
+
+		void set( Tile interruptedAt, boolean failedEntry, Tile finalTile ) {
+			row = row( interruptedAt );
+			column = column( interruptedAt );
+			this.failedEntry = failedEntry;
+			finalRow = row( finalTile );
+			finalColumn = column( finalTile );
+		}
+	}
+
+	/**
+	 * Executing the buffered enter events after entering a tile.
+	 */
+	@Name( "fi.grimripper.loww.EventBufferExecution" )
+	@Label( "Event Buffer Execution" )
+	@Description( "Buffered movement events are executed after entering a tile" )
+	@Category( CATEGORY )
+	@Enabled( false )
+	@Threshold( "1 ms" )
+	static class EventBuffer extends Event {
+
+		@Label( "Buffered Events" )
+		int bufferedEvents;
+
+		@Label( "Height" )
+		String height;
+
+		void set( int bufferedEvents, Height height ) {
+			this.bufferedEvents = bufferedEvents;
+			this.height = String.valueOf( height );
+		}
+	}
+
+	/**
+	 * A single call to a movement event's enter or leave method during movement.
+	 */
+	@Name( "fi.grimripper.loww.MovementEventCallback" )
+	@Label( "Movement Event Callback" )
+	@Description( "A movement event is executed when a mobile object enters or leaves a tile" )
+	@Category( CATEGORY )
+	@Enabled( false )
+	@Threshold( "1 ms" )
+	@StackTrace( false )
+	static class Callback extends Event {
+
+		@Label( "Movement Event Class" )
+		Class <?> eventClass;
+
+		@Label( "Entering" )
+		@Description( "The mobile object was entering the tile, rather than leaving it" )
+		boolean entering;
+
+		@Label( "Buffered" )
+		@Description( "The event was executed from the event buffer" )
+		boolean buffered;
+
+		@Label( "Row" )
+		int row;
+
+		@Label( "Column" )
+		int column;
+
+		@Label( "Height" )
+		String height;
+
+		@Label( "Allowed" )
+		@Description( "The event allowed movement to continue" )
+		boolean allowed;
+
+		void set( MovementEvent event, boolean entering, boolean buffered, Tile tile,
+				Height height, boolean allowed ) {
+			eventClass = event.getClass();
+			this.entering = entering;
+			this.buffered = buffered;
+			row = row( tile );
+			column = column( tile );
+			this.height = String.valueOf( height );
+			this.allowed = allowed;
+		}
+	}
+
+	// tile coordinates, -1 without a tile
+	private static int row( Tile tile ) {
+		return tile == null ? -1 : tile.getRow();
+	}
+
+	private static int column( Tile tile ) {
+		return tile == null ? -1 : tile.getColumn();
+	}
+}
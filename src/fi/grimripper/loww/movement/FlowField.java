@@ -0,0 +1,374 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+/**
+ * The best next step towards a single target tile, from every tile that can reach it. A flow
+ * field is generated with a reverse search from the target, using the same rules for terrain,
+ * obstacles, blocks, movement events, heights and movement modifiers as a movement mode uses for
+ * single steps. Any number of mobile objects heading to the same target can then follow the
+ * field, instead of each generating its own movement radius.
+ * <p>
+ * The steps are decided for a mobile object with a single-tile template. Like in a movement
+ * radius, the best path from a tile has the lowest risk, and the lowest cost among paths with the
+ * same risk. Tiles along the way don't need to be occupiable, and the target is included even if
+ * it can't be occupied, so mobile objects should check occupation when they get close. Leaving a
+ * tile is tested at movement height, not occupy height.
+ * <p>
+ * A flow field describes the tile grid when it was generated, and the grid's version at that time
+ * tells if it's outdated. Nothing changes after generation, so any number of threads can follow
+ * the field at the same time.
+ *
+ * @author Marko Tuominen
+ * @see TileGrid#getVersion()
+ */
+public class FlowField {
+
+	// orders search labels by total cost first, then by risk
+	private static final Comparator <Label> COST_AND_RISK = new Comparator <Label>() {
+		@Override
+		public int compare( Label first, Label second ) {
+			int compare = Float.compare( first.cost, second.cost );
+			return compare != 0 ? compare : Float.compare( first.risk, second.risk );
+		}
+	};
+
+	private final Tile target;
+	private final long gridVersion;
+
+	// tiles by id, and the best path from each tile (null if unreachable)
+	private final Tile[] tiles;
+	private final Label[] best;
+	private final int size;
+
+	/**
+	 * Creates a flow field from search results.
+	 *
+	 * @param target		the target tile
+	 * @param gridVersion	tile grid's version during the search
+	 * @param tiles			tiles in the grid, by id
+	 * @param best			best path from each tile, by id
+	 * @param size			number of tiles that can reach the target
+	 */
+	private FlowField( Tile target, long gridVersion, Tile[] tiles, Label[] best, int size ) {
+		this.target = target;
+		this.gridVersion = gridVersion;
+		this.tiles = tiles;
+		this.best = best;
+		this.size = size;
+	}
+
+	/**
+	 * Generates a flow field towards a target tile. The movement mode's host is used for movement
+	 * events, heights and occupation, and its movement modifiers apply. The host's location
+	 * doesn't matter. Like a movement radius, the search keeps each path that has lower cost or
+	 * lower risk than the others found for a tile, so a risky but cheap path isn't lost to a safe
+	 * one that exceeds the maximum cost later.
+	 * <p>
+	 * The movement mode's current movement radius isn't used or changed. No tile is an initial
+	 * tile, so events in the host's location can also prevent leaving it.
+	 *
+	 * @param mode			use this movement mode's rules for single steps
+	 * @param grid			generate the field for tiles in this grid
+	 * @param target		the target tile
+	 * @param maxCost		maximum total cost to the target
+	 * @return				a new flow field
+	 * @throws IllegalArgumentException	if the host's template covers more than one tile
+	 */
+	public static FlowField generate( MovementMode mode, TileGrid <?> grid, Tile target,
+			int maxCost ) {
+		mode.requireSingleTileTemplate();
+		mode.startSearchMetrics();
+		mode.startSingleSteps();
+
+		Tile[] tiles = new Tile[ grid.getTileCount() ];
+		Tile[][] remoteSources = findTiles( grid, tiles );
+		Label[] best = new Label[ tiles.length ];
+
+		// paths that aren't worse than others for each tile, and if leaving is allowed (1) or not
+		List <List <Label>> labels = new ArrayList <>( Collections.nCopies(
+				tiles.length, (List <Label>)null ));
+		byte[] leaving = new byte[ tiles.length ];
+		int size = 0;
+
+		PriorityQueue <Label> queue = new PriorityQueue <>( 64, COST_AND_RISK );
+		int targetId = indexOf( target, tiles );
+		if (targetId >= 0) {
+			Label label = new Label( target, 0, 0, null );
+			labels.set( targetId, new ArrayList <Label>( 2 ));
+			labels.get( targetId ).add( label );
+			queue.add( label );
+		}
+
+		while (!queue.isEmpty()) {
+			Label label = queue.remove();
+			if (label.removed)
+				continue;			// a better path was found after this one
+
+			int to = label.tile.getId();
+			if (best[ to ] == null) {
+				mode.countExplored( label.tile );
+				size++;
+			}
+			if (best[ to ] == null || label.risk < best[ to ].risk)
+				best[ to ] = label;		// lowest risk, and lowest cost with that risk
+
+			// each tile that can step into this one, adjacent or through remote neighbors
+			Tile[] neighbors = label.tile.getNeighbors();
+			Tile[] remote = remoteSources == null ? null : remoteSources[ to ];
+			int count = neighbors.length + (remote == null ? 0 : remote.length);
+
+			for (int i = 0; i < count; i++) {
+				Tile from = i < neighbors.length ? neighbors[i] : remote[ i - neighbors.length ];
+				int id = indexOf( from, tiles );
+				if (id < 0)
+					continue;
+
+				if (leaving[ id ] == 0)
+					leaving[ id ] = (byte)(mode.canLeaveTile( from ) ? 1 : -1);
+				if (leaving[ id ] < 0)
+					continue;		// events prevent leaving
+
+				float[] step = mode.testSingleStep( from, label.tile );
+				if (step == null)
+					continue;		// can't move from the tile to this one
+
+				float cost = label.cost + step[0], risk = label.risk + step[1];
+				if (cost > maxCost || !keepPath( labels, id, cost, risk ))
+					continue;		// too expensive, or a better path was found earlier
+
+				Label path = new Label( from, cost, risk, label );
+				labels.get( id ).add( path );
+				queue.add( path );
+			}
+		}
+
+		mode.finishSingleSteps();
+		mode.finishSearchMetrics();
+		return new FlowField( target, grid.getVersion(), tiles, best, size );
+	}
+
+	/**
+	 * Gets the target tile.
+	 *
+	 * @return			the tile the field leads to
+	 */
+	public Tile getTarget() {
+		return target;
+	}
+
+	/**
+	 * Gets the tile grid's version when the flow field was generated. If the grid's version has
+	 * changed since, the field may be outdated.
+	 *
+	 * @return			tile grid's version during generation
+	 */
+	public long getGridVersion() {
+		return gridVersion;
+	}
+
+	/**
+	 * Gets the number of tiles that can reach the target, including the target itself.
+	 *
+	 * @return			number of tiles in the field
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the target can be reached from a tile.
+	 *
+	 * @param tile		check this tile
+	 * @return			the tile is in the field
+	 */
+	public boolean isReachable( Tile tile ) {
+		return getCost( tile ) >= 0;
+	}
+
+	/**
+	 * Gets the total cost of the best path from a tile to the target.
+	 *
+	 * @param tile		get cost from this tile
+	 * @return			total cost, or a negative value if the target can't be reached
+	 */
+	public float getCost( Tile tile ) {
+		Label label = getBest( tile );
+		return label == null ? -1 : label.cost;
+	}
+
+	/**
+	 * Gets the total risk of the best path from a tile to the target.
+	 *
+	 * @param tile		get risk from this tile
+	 * @return			total risk, or a negative value if the target can't be reached
+	 */
+	public float getRisk( Tile tile ) {
+		Label label = getBest( tile );
+		return label == null ? -1 : label.risk;
+	}
+
+	/**
+	 * Gets the next step from a tile towards the target. The next tile is either adjacent, or one
+	 * of the tile's remote neighbors. Taking the next step from each tile in turn reaches the
+	 * target without more risk than the best path, but when a cheaper path with more risk exists,
+	 * it may cost more than the best path. Use {@link #getPath(Tile)} to follow the best path
+	 * exactly.
+	 *
+	 * @param tile		get next step from this tile
+	 * @return			the next tile, or <code>null</code> at the target or if it can't be
+	 * 					reached
+	 */
+	public Tile getNextTile( Tile tile ) {
+		Label label = getBest( tile );
+		return label == null || label.next == null ? null : label.next.tile;
+	}
+
+	/**
+	 * Gets the direction of the next step from a tile towards the target.
+	 *
+	 * @param tile		get direction from this tile
+	 * @return			direction to the next tile, or <code>null</code> at the target, if it can't
+	 * 					be reached, or if the next tile is a remote neighbor that isn't adjacent
+	 */
+	public Direction getNextDirection( Tile tile ) {
+		Tile next = getNextTile( tile );
+		return next == null || !next.isAdjacent( tile ) ? null : tile.getDirection( next );
+	}
+
+	/**
+	 * Creates the best path from a tile to the target. The path is in the same format as movement
+	 * paths: it doesn't contain the starting tile, and it's empty if the target can't be reached.
+	 *
+	 * @param from		create path from this tile
+	 * @return			the path to the target
+	 */
+	public Tile[] getPath( Tile from ) {
+		List <Tile> path = new ArrayList <>();
+		Label label = getBest( from );
+		for (Label next = label == null ? null : label.next; next != null; next = next.next)
+			path.add( next.tile );
+
+		return path.toArray( new Tile[ path.size() ]);
+	}
+
+	/**
+	 * Gets the best path from a tile.
+	 *
+	 * @param tile			get path from this tile
+	 * @return				the best path, or <code>null</code> if the target can't be reached
+	 */
+	private Label getBest( Tile tile ) {
+		int id = indexOf( tile, tiles );
+		return id < 0 ? null : best[ id ];
+	}
+
+	/**
+	 * Checks if a new path from a tile should be kept, and removes the tile's earlier paths that
+	 * it's better than. A path is kept unless an earlier one has no more cost and no more risk.
+	 *
+	 * @param labels		paths for each tile, by id
+	 * @param id			the tile's id
+	 * @param cost			the new path's total cost
+	 * @param risk			the new path's total risk
+	 * @return				keep the new path
+	 */
+	private static boolean keepPath( List <List <Label>> labels, int id, float cost,
+			float risk ) {
+		List <Label> paths = labels.get( id );
+		if (paths == null) {
+			labels.set( id, new ArrayList <Label>( 2 ));
+			return true;
+		}
+
+		for (Label path : paths)
+			if (path.cost <= cost && path.risk <= risk)
+				return false;
+
+		for (Iterator <Label> it = paths.iterator(); it.hasNext();) {
+			Label path = it.next();
+			if (cost <= path.cost && risk <= path.risk) {
+				path.removed = true;
+				it.remove();
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Collects a grid's tiles by id, and the tiles that have each tile as a remote neighbor.
+	 *
+	 * @param grid			collect tiles in this grid
+	 * @param tiles			fill with tiles, by id
+	 * @return				tiles with each tile as remote neighbor, by id, or <code>null</code> if
+	 * 						there are no remote neighbors
+	 */
+	private static Tile[][] findTiles( TileGrid <?> grid, Tile[] tiles ) {
+		Tile[][] remoteSources = null;
+
+		for (Tile[] row : grid.getTiles())
+			for (Tile tile : row)
+				if (tile != null && tile.getId() >= 0 && tile.getId() < tiles.length)
+					tiles[ tile.getId() ] = tile;
+
+		for (Tile tile : tiles)
+			for (int i = 0; tile != null && i < tile.countRemoteNeighbors(); i++) {
+				int id = indexOf( tile.getRemoteNeighbor( i ), tiles );
+				if (id < 0)
+					continue;
+
+				if (remoteSources == null)
+					remoteSources = new Tile[ tiles.length ][];
+
+				Tile[] sources = remoteSources[ id ];
+				sources = (sources == null ?
+					new Tile[1] : Arrays.copyOf( sources, sources.length + 1 ));
+				sources[ sources.length - 1 ] = tile;
+				remoteSources[ id ] = sources;
+			}
+
+		return remoteSources;
+	}
+
+	/**
+	 * Gets a tile's index in an array of tiles by id.
+	 *
+	 * @param tile			find this tile
+	 * @param tiles			tiles by id
+	 * @return				the tile's id, or -1 if the tile isn't in the array
+	 */
+	private static int indexOf( Tile tile, Tile[] tiles ) {
+		int id = tile == null ? -1 : tile.getId();
+		return id >= 0 && id < tiles.length && tiles[ id ] == tile ? id : -1;
+	}
+
+	/**
+	 * A path from a tile to the target, with total cost and risk, continuing with the next tile's
+	 * path.
+	 */
+	private static class Label {
+
+		private final Tile tile;
+		private final float cost, risk;
+		private final Label next;
+		private boolean removed = false;
+
+		private Label( Tile tile, float cost, float risk, Label next ) {
+			this.tile = tile;
+			this.cost = cost;
+			this.risk = risk;
+			this.next = next;
+		}
+	}
+}
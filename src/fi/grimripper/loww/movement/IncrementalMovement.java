@@ -0,0 +1,141 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+
+import fi.grimripper.loww.tiles.Obstacle;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+/**
+ * Default movement that keeps its movement radius up to date while obstacles move. The movement
+ * mode is a motion listener, which can be attached to all tiles in a tile grid. It collects the
+ * tiles where obstacles are placed or removed, and when the movement radius is updated, repairs
+ * only the path data that the changes affect. The result is the same as generating the movement
+ * radius again with the same total move.
+ * <p>
+ * Changes are collected until {@link #updateRadius()} is called, so movement paths and the
+ * movement radius don't reflect them before that. If the changes can't be repaired, for example
+ * because the host itself has moved, the movement radius is generated again.
+ *
+ * @author Marko Tuominen
+ * @see DefaultMovement#repairRadius(java.util.Collection)
+ */
+public class IncrementalMovement extends DefaultMovement implements MotionListener {
+
+	// tiles where obstacles have changed since the movement radius was generated or updated
+	private ArrayList <Tile> changed = new ArrayList <>();
+	private TileTable <Boolean> changedTiles = new TileTable <>();
+
+	// total move for the latest movement radius
+	private int radiusMove = -1;
+
+	/**
+	 * Sets the movement mode's host and default movement.
+	 *
+	 * @param host			attach movement mode to this host mobile object
+	 * @param baseMove		set this movement value for the movement mode
+	 */
+	public IncrementalMovement( MobileObject host, int baseMove ) {
+		super( host, baseMove );
+	}
+
+	/**
+	 * Generates the movement radius, and forgets changes collected before it.
+	 */
+	@Override
+	public void movementRadius( int totalMove ) {
+		super.movementRadius( totalMove );
+		radiusMove = totalMove;
+		clearChanges();
+	}
+
+	/**
+	 * Updates the movement radius with the changes collected since it was generated or updated.
+	 * The changes are repaired if possible, otherwise the movement radius is generated again with
+	 * the same total move. Without an earlier movement radius, uses the current movement value.
+	 *
+	 * @return				<code>true</code> if the movement radius was repaired or didn't need
+	 * 						changes, <code>false</code> if it was generated again
+	 * @see					DefaultMovement#repairRadius(java.util.Collection)
+	 */
+	public boolean updateRadius() {
+		if (radiusMove >= 0 && repairRadius( changed )) {
+			clearChanges();
+			return true;
+		}
+
+		movementRadius( radiusMove >= 0 ? radiusMove : getMovement() );
+		return false;
+	}
+
+	/**
+	 * Attaches this movement mode as a motion listener to all tiles in a tile grid, so it's
+	 * notified when obstacles are placed in them or removed from them.
+	 *
+	 * @param grid			listen to tiles in this grid
+	 */
+	public void watch( TileGrid <?> grid ) {
+		for (Tile[] row : grid.getTiles())
+			for (Tile tile : row)
+				if (tile != null && !tile.hasMotionListener( this ))
+					tile.addMotionListener( this );
+	}
+
+	/**
+	 * Removes this movement mode from the motion listeners of all tiles in a tile grid.
+	 *
+	 * @param grid			stop listening to tiles in this grid
+	 */
+	public void unwatch( TileGrid <?> grid ) {
+		for (Tile[] row : grid.getTiles())
+			for (Tile tile : row)
+				if (tile != null)
+					tile.removeMotionListener( this );
+	}
+
+	/**
+	 * Checks if obstacles have changed since the movement radius was generated or updated.
+	 *
+	 * @return				there are changes to update
+	 */
+	public boolean hasChanges() {
+		return !changed.isEmpty();
+	}
+
+	@Override
+	public void clearRadius() {
+		super.clearRadius();
+		radiusMove = -1;
+		clearChanges();
+	}
+
+	@Override
+	public void objectMovedToTile( Obstacle obstacle, Tile tile ) {
+		addChange( tile );
+	}
+
+	@Override
+	public void objectMovedFromTile( Obstacle obstacle, Tile tile ) {
+		addChange( tile );
+	}
+
+	/**
+	 * Saves a tile where obstacles have changed, if it isn't saved yet.
+	 *
+	 * @param tile			obstacles changed in this tile
+	 */
+	private void addChange( Tile tile ) {
+		if (tile != null && changedTiles.get( tile ) == null) {
+			changedTiles.put( tile, Boolean.TRUE );
+			changed.add( tile );
+		}
+	}
+
+	/**
+	 * Forgets all saved changes.
+	 */
+	private void clearChanges() {
+		changed.clear();
+		changedTiles.clear();
+	}
+}
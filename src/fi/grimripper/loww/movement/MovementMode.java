@@ -4,15 +4,23 @@ import static fi.grimripper.loww.Direction.*;
 import static fi.grimripper.loww.Height.BLOCKING;
 import static fi.grimripper.loww.Height.DEEP;
 import static fi.grimripper.loww.Height.VERY_HIGH;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.BLOCK_CALLBACKS;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.EVENT_CALLBACKS;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.MODIFIER_CALLBACKS;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.PATHS_REEXPANDED;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.TERRAIN_COST_HITS;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.TERRAIN_COST_MISSES;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.TILES_SETTLED;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.TILE_DATA_HITS;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.TILE_DATA_MISSES;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Vector;
 
 import fi.grimripper.loww.Direction;
 import fi.grimripper.loww.Height;
 import fi.grimripper.loww.StateChangeListener;
+import fi.grimripper.loww.movement.SearchMetrics.Counter;
 import fi.grimripper.loww.templates.MovementTemplate;
 import fi.grimripper.loww.templates.Templates;
 import fi.grimripper.loww.tiles.Block;
@@ -57,6 +65,14 @@ public abstract class MovementMode {
 	 */
 	public static final int IMPASSABLE_MOVE_COST = 100;
 	
+	// shared empty arrays, passed to modifiers instead of new ones
+	private static final MovementModifier[] NO_MODIFIERS = new MovementModifier[0];
+	private static final Obstacle[] NO_OBSTACLES = new Obstacle[0];
+	private static final Block[] NO_BLOCKS = new Block[0];
+	
+	// number of facing directions, for saving data by facing
+	private static final int FACING_COUNT = Direction.values().length;
+	
 	// fields used while generating a movement radius
 	private MobileObject host = null;
 	protected Tile[] initialTiles = null;
@@ -77,9 +93,22 @@ public abstract class MovementMode {
 	private Vector <Tile> eventTiles = new Vector <Tile>();
 	
 	// collections to save movement-related data
-	private Map <Terrain, Float> terrainCosts = new HashMap <>();
-	private Map <Tile, TileData> tileData = new HashMap <>();
-	private Map <Tile, Height[]> occupyHeights = new HashMap <>();
+	private TerrainCosts terrainCosts = TerrainCosts.forModifiers( NO_MODIFIERS );
+	private TileTable <TileData> tileData = new TileTable <>();
+	private TileTable <Height[]> occupyHeights = new TileTable <>();
+	
+	// single step searches get their own tile data, radius data is set aside meanwhile
+	private TileTable <TileData> stepData = new TileTable <>(), radiusData = null;
+	private Tile[] radiusInitialTiles = null;
+	
+	// template tiles by main tile and facing, for the template they were determined with
+	private TileTable <Tile[][]> footprints = new TileTable <>();
+	private MovementTemplate footprintTemplate = null;
+	
+	// search counters, only collected while there's a listener and a search is running
+	private SearchMetricsListener metricsListener = null;
+	private SearchMetrics metrics = null, reusedMetrics = null;
+	private TileTable <Boolean> exploredTiles = null;
 
 	/**
 	 * Creates a new movement mode with host and default movement.
@@ -135,7 +164,8 @@ public abstract class MovementMode {
 	
 	/**
 	 * Forces the move costs of different terrain types to be re-calculated. Otherwise they're
-	 * saved and only updated when movement modifiers are added or removed.
+	 * saved and only updated when movement modifiers are added or removed. The costs are shared
+	 * with other movement modes that have the same modifiers, so they're cleared for those too.
 	 */
 	public void clearTerrainCosts() {
 		terrainCosts.clear();
@@ -149,7 +179,18 @@ public abstract class MovementMode {
 		occupyHeights.clear();
 		tileData.clear();
 	}
-	
+
+	/**
+	 * Forces the occupy data for a single tile to be re-calculated. This includes the tile's move
+	 * cost, and occupy heights for positions where it's the host's main tile.
+	 *
+	 * @param tile		clear occupy data for this tile
+	 */
+	protected void clearOccupyData( Tile tile ) {
+		occupyHeights.remove( tile );
+		tileData.remove( tile );
+	}
+
 	/**
 	 * Adds a movement modifier. Notifies state change listeners.
 	 * 
@@ -162,7 +203,7 @@ public abstract class MovementMode {
 				modifiers = new Vector <MovementModifier>();
 			
 			modifiers.add( mod );
-			clearTerrainCosts();		// re-calculate with new modifier
+			terrainCosts = TerrainCosts.forModifiers( getMovementModifiers() );
 			clearOccupyData();
 			tileData.clear();
 			
@@ -178,7 +219,7 @@ public abstract class MovementMode {
 	 * @return			the attached modifiers
 	 */
 	public MovementModifier[] getMovementModifiers() {
-		return modifiers == null ? new MovementModifier[0] :
+		return modifiers == null || modifiers.isEmpty() ? NO_MODIFIERS :
 				modifiers.toArray( new MovementModifier[ modifiers.size() ]);
 	}
 	
@@ -206,7 +247,7 @@ public abstract class MovementMode {
 			for (StateChangeListener <MovementMode> scl : listeners)
 				scl.stateChanged( this );
 			
-		clearTerrainCosts();		// re-calculate without the removed modifier
+		terrainCosts = TerrainCosts.forModifiers( getMovementModifiers() );
 		clearOccupyData();
 		tileData.clear();
 		return mod;
@@ -247,6 +288,28 @@ public abstract class MovementMode {
 			StateChangeListener <MovementMode> listener ) {
 		return listeners == null || !listeners.remove( listener ) ? null : listener;
 	}
+	
+	/**
+	 * Gets the listener for search counters.
+	 * 
+	 * @return				the listener, or <code>null</code> if counters aren't collected
+	 * @see					#setSearchMetricsListener(SearchMetricsListener)
+	 */
+	public SearchMetricsListener getSearchMetricsListener() {
+		return metricsListener;
+	}
+	
+	/**
+	 * Sets a listener for search counters. While there's a listener, each search counts path
+	 * data, saved data and callbacks, and the listener is notified when the search is finished.
+	 * Without a listener, nothing is counted.
+	 * 
+	 * @param listener		the new listener, <code>null</code> to stop collecting counters
+	 * @see					SearchMetrics
+	 */
+	public void setSearchMetricsListener( SearchMetricsListener listener ) {
+		metricsListener = listener;
+	}
 
 	/**
 	 * Calculates the occupy height for a main tile and facing. Terrain determines base occupy
@@ -261,7 +324,7 @@ public abstract class MovementMode {
 	public Height calculateOccupyHeight( Tile mainTile, Direction facing ) {
 		if (!Templates.isTemplateDirection( host.getTemplate(), facing ))
 			return null;
-		return calculateOccupyHeight( host.getTemplate().getTiles( mainTile, facing ));
+		return calculateOccupyHeight( getTemplateTiles( mainTile, facing ));
 	}
 
 	/**
@@ -301,6 +364,21 @@ public abstract class MovementMode {
 	 */
 	public abstract void movementRadius( int totalMove );
 
+	/**
+	 * Generates movement radius for the host mobile object, and optionally creates an immutable
+	 * copy of it. The copy can be saved and shared between threads, unlike the movement mode.
+	 * 
+	 * @param totalMove			the mobile object's total movement
+	 * @param copy				create a copy of the movement radius
+	 * @return					copy of the movement radius, or <code>null</code> if not requested
+	 * 							or not supported
+	 * @see						#getMovementRadius()
+	 */
+	public MovementRadius movementRadius( int totalMove, boolean copy ) {
+		movementRadius( totalMove );
+		return copy ? getMovementRadius() : null;
+	}
+
 	/**
 	 * Creates a mobile object's movement path to a particular tile. The path array doesn't contain
 	 * the mobile object's starting tile (it's location before moving). Instead, the first tile in
@@ -316,6 +394,38 @@ public abstract class MovementMode {
 	 */
 	public abstract Tile[] getMovementPath( Tile pathTo, Direction facing );
 
+	/**
+	 * Creates an immutable copy of the current movement radius. The copy isn't affected by later
+	 * searches or clearing the movement radius. By default, movement modes can't create a copy, and
+	 * this returns <code>null</code>.
+	 * 
+	 * @return				copy of the movement radius, or <code>null</code> if not supported
+	 * @see					#movementRadius(int)
+	 */
+	public MovementRadius getMovementRadius() {
+		return null;
+	}
+
+	/**
+	 * Finds a mobile object's movement path to a single destination. The path is in the same
+	 * format as in {@link #getMovementPath(Tile, Direction)}, and it's empty if the destination
+	 * can't be reached with the given total movement. After finding a path, the host can move to
+	 * the destination with {@link #executeMovementPath(Tile, Direction)}. Other movement data
+	 * created by the search isn't necessarily complete.
+	 * <p>
+	 * By default, generates a movement radius and creates the path from it. Subclasses can
+	 * replace this with a search that stops when the destination is reached.
+	 * 
+	 * @param destination		find movement path to this tile
+	 * @param facing			facing in the destination tile
+	 * @param maxCost			the mobile object's total movement
+	 * @return					the path to the given tile
+	 */
+	public Tile[] findPath( Tile destination, Direction facing, int maxCost ) {
+		movementRadius( maxCost );
+		return getMovementPath( destination, facing );
+	}
+
 	/**
 	 * Executes a mobile object's movement from its current location to a destination. Starting
 	 * from current location, executes movement events for each tile along the path. If movement is
@@ -484,10 +594,45 @@ public abstract class MovementMode {
 		initialTiles = null;
 		tileData.clear();
 		occupyHeights.clear();
+		footprints.clear();
 		eventBuffer.clear();
 		eventTiles.clear();
 	}
 	
+	/**
+	 * Gets the host's template tiles for a main tile and facing. The tiles are determined once for
+	 * each main tile and facing, and saved until movement radius is cleared or the host's template
+	 * changes. The returned array is shared, so it must not be modified.
+	 * 
+	 * @param mainTile		the template's main tile
+	 * @param facing		the template's facing
+	 * @return				template tiles, possibly <code>null</code>s outside the tile grid
+	 * @see					MovementTemplate#getTiles(Tile, Direction)
+	 */
+	protected Tile[] getTemplateTiles( Tile mainTile, Direction facing ) {
+		MovementTemplate template = host.getTemplate();
+		if (template != footprintTemplate) {		// tiles were saved for another template
+			footprints.clear();
+			footprintTemplate = template;
+		}
+		
+		Tile[][] byFacing = footprints.get( mainTile );
+		if (byFacing == null) {		// recycle an array that was cleared, if possible
+			if ((byFacing = footprints.getExpired( mainTile )) == null)
+				byFacing = new Tile[ FACING_COUNT ][];
+			else
+				Arrays.fill( byFacing, null );
+			
+			footprints.put( mainTile, byFacing );
+		}
+		
+		Tile[] tiles = byFacing[ facing.ordinal() ];
+		if (tiles == null)
+			tiles = byFacing[ facing.ordinal() ] = template.getTiles( mainTile, facing );
+		
+		return tiles;
+	}
+	
 	/**
 	 * Gets the movement cost which is treated as impassable. Any values higher than this are also
 	 * treated as impassable.
@@ -498,22 +643,103 @@ public abstract class MovementMode {
 		return IMPASSABLE_MOVE_COST;
 	}
 	
+	/**
+	 * Starts collecting counters for a search, if there's a listener for them. Movement modes
+	 * should call this at the beginning of each search, and {@link #finishSearchMetrics()} at the
+	 * end.
+	 */
+	protected void startSearchMetrics() {
+		if (metricsListener == null)
+			return;
+		
+		if (reusedMetrics == null) {
+			reusedMetrics = new SearchMetrics();
+			exploredTiles = new TileTable <>();
+		}
+		
+		exploredTiles.clear();
+		metrics = reusedMetrics;
+		metrics.start();
+	}
+	
+	/**
+	 * Stops collecting counters for a search, and notifies the listener. Does nothing if counters
+	 * weren't collected.
+	 */
+	protected void finishSearchMetrics() {
+		SearchMetrics finished = metrics;
+		if (finished == null)
+			return;
+		
+		metrics = null;			// the listener can start a new search
+		finished.stop();
+		if (metricsListener != null)
+			metricsListener.searchFinished( this, finished );
+	}
+	
+	/**
+	 * Adds one to a search counter, if counters are collected.
+	 * 
+	 * @param counter		add to this counter
+	 */
+	protected void count( Counter counter ) {
+		if (metrics != null)
+			metrics.add( counter, 1 );
+	}
+	
+	/**
+	 * Adds to a search counter, if counters are collected.
+	 * 
+	 * @param counter		add to this counter
+	 * @param amount		amount to add
+	 */
+	protected void count( Counter counter, int amount ) {
+		if (metrics != null)
+			metrics.add( counter, amount );
+	}
+	
+	/**
+	 * Counts a path explored from a tile, if counters are collected. The first path explored from
+	 * a tile settles it, and any later paths are counted as re-expanded.
+	 * 
+	 * @param tile			a path was explored from this tile
+	 */
+	protected void countExplored( Tile tile ) {
+		if (metrics == null)
+			return;
+		
+		else if (exploredTiles.get( tile ) == null) {
+			exploredTiles.put( tile, Boolean.TRUE );
+			metrics.add( TILES_SETTLED, 1 );
+		}
+		
+		else
+			metrics.add( PATHS_REEXPANDED, 1 );
+	}
+	
 	/**
 	 * Gets move cost of a terrain type with changes from movement modifiers. Terrain costs are
-	 * saved, and re-calculated only when movement modifiers are added or removed. The terrain
-	 * costs can be explicitly cleared in order to have them calculated again.
+	 * saved for each combination of modifiers, and shared by all movement modes with the same
+	 * modifiers. The terrain costs can be explicitly cleared in order to have them calculated
+	 * again.
 	 * 
 	 * @param terrain		get cost for this terrain
 	 * @return				cost for the given terrain, with modifiers
 	 * @see					#clearTerrainCosts()
 	 */
 	protected float getTerrainCost( Terrain terrain ) {
-		if (terrainCosts.containsKey( terrain ))
-			return terrainCosts.get( terrain );
+		float moveCost = terrainCosts.get( terrain );
+		if (!Float.isNaN( moveCost )) {
+			count( TERRAIN_COST_HITS );
+			return moveCost;
+		}
 		
-		float moveCost = terrain.getCost();
+		count( TERRAIN_COST_MISSES );
+		moveCost = terrain.getCost();
 
-		for (MovementModifier mod : getMovementModifiers())
+		MovementModifier[] modifiers = getMovementModifiers();
+		count( MODIFIER_CALLBACKS, modifiers.length );
+		for (MovementModifier mod : modifiers)
 			moveCost = mod.modifyTerrainCost( terrain, moveCost );
 
 		terrainCosts.put( terrain, moveCost );
@@ -532,8 +758,14 @@ public abstract class MovementMode {
 	protected TileData createTileData( Tile forTile ) {
 		TileData tileData = this.tileData.get( forTile );
 		
-		if (tileData == null)
-			this.tileData.put( forTile, tileData = new TileData() );
+		if (tileData == null) {		// recycle data that was cleared, if possible
+			if ((tileData = this.tileData.getExpired( forTile )) == null)
+				tileData = new TileData();
+			else
+				tileData.reset();
+			
+			this.tileData.put( forTile, tileData );
+		}
 		
 		return tileData;
 	}
@@ -554,7 +786,11 @@ public abstract class MovementMode {
 	protected float getAndSaveCost( Tile tile, Height height ) {
 		TileData tileData = createTileData( tile );
 		
-		if (!tileData.isMoveCostSet( height )) {
+		if (tileData.isMoveCostSet( height ))
+			count( TILE_DATA_HITS );
+		
+		else {
+			count( TILE_DATA_MISSES );
 			Terrain terrain = tile.getTerrain();
 
 			// base move cost by terrain, unless moving higher
@@ -578,22 +814,31 @@ public abstract class MovementMode {
 	 * @see				MovementModifier#modifyObstacleCost(Tile, Obstacle[], float)
 	 */
 	protected float addObstacleCosts( Tile tile, Height height, float cost ) {
-		Obstacle[] obstacles = tile.getObstacles();
-		Obstacle[] notIgnored = new Obstacle[ obstacles.length ];
+		MovementModifier[] modifiers = getMovementModifiers();
+		int obstacleCount = tile.countObstacles();
+		
+		// obstacles are only collected for modifiers
+		Obstacle[] notIgnored = modifiers.length == 0 || obstacleCount == 0 ? NO_OBSTACLES :
+			new Obstacle[ obstacleCount ];
 		int counter = 0;
 		
-		for (Obstacle o : obstacles)
+		for (int i = 0; i < obstacleCount; i++) {
+			Obstacle o = tile.getObstacle( i );
+			
 			if (!getHost().equals( o ) && !isIgnored( o, height )) {
 				cost = o.modifyMoveCost( cost, getImpassableMoveCost() );
-				notIgnored[ counter++ ] = o;
+				if (notIgnored.length > 0)
+					notIgnored[ counter++ ] = o;
 			}
+		}
 		
-		if (counter < obstacles.length)
-			obstacles = Arrays.copyOf( notIgnored, counter );
+		if (counter < notIgnored.length)
+			notIgnored = Arrays.copyOf( notIgnored, counter );
 		
 		// modifiers affect obstacle costs
-		for (MovementModifier mod : getMovementModifiers())
-			cost = mod.modifyObstacleCost( tile, obstacles, cost );
+		count( MODIFIER_CALLBACKS, modifiers.length );
+		for (MovementModifier mod : modifiers)
+			cost = mod.modifyObstacleCost( tile, notIgnored, cost );
 		
 		return cost;
 	}
@@ -613,28 +858,31 @@ public abstract class MovementMode {
 	 */
 	protected float addBlockCosts( Tile from, Tile to, Height minHeight, Height moveHeight,
 			float cost ) {
-		Block[] fromBlocks = from.getBlocks();
-		Block[] toBlocks = to.getBlocks();
-		Block[] notIgnored = new Block[ fromBlocks.length + toBlocks.length ];
-		int counter = 0;
+		MovementModifier[] modifiers = getMovementModifiers();
+		int fromCount = from.countBlocks(), toCount = to.countBlocks();
 		
-		for (Block block : fromBlocks)		// effects from blocks in old tile
-			if (!isIgnored( block, from, to, minHeight )) {
-				cost = block.modifyMoveCost( from, to, host, moveHeight, cost );
-				notIgnored[ counter++ ] = block;
-			}
+		// blocks are only collected for modifiers
+		Block[] notIgnored = modifiers.length == 0 || fromCount + toCount == 0 ? NO_BLOCKS :
+			new Block[ fromCount + toCount ];
+		int counter = 0;
 		
-		for (Block block : toBlocks)		// effects from blocks in new tile
+		for (int i = 0; i < fromCount + toCount; i++) {		// old tile first, then new tile
+			Block block = i < fromCount ? from.getBlock( i ) : to.getBlock( i - fromCount );
+			
 			if (!isIgnored( block, from, to, minHeight )) {
+				count( BLOCK_CALLBACKS );
 				cost = block.modifyMoveCost( from, to, host, moveHeight, cost );
-				notIgnored[ counter++ ] = block;
+				if (notIgnored.length > 0)
+					notIgnored[ counter++ ] = block;
 			}
+		}
 		
 		if (counter < notIgnored.length)
 			notIgnored = Arrays.copyOf( notIgnored, counter );
 		
 		// final changes from modifiers
-		for (MovementModifier mod : getMovementModifiers())
+		count( MODIFIER_CALLBACKS, modifiers.length );
+		for (MovementModifier mod : modifiers)
 			cost = mod.modifyBlockCost( to, from, host, moveHeight, notIgnored, cost );
 		
 		return cost;
@@ -652,15 +900,16 @@ public abstract class MovementMode {
 	 */
 	protected boolean blocksAllowTemplate( Tile[] template, Height height ) {
 		for (Tile t : template) {
-			Block[] blocks = t.getBlocks();
-			
-			for (Block b : blocks) {		// check all blocks
+			for (int j = 0; j < t.countBlocks(); j++) {		// check all blocks
+				Block b = t.getBlock( j );
+				
 				// needs to be ignored between the tile where it is and all neighbors in template
 				for (int i = 0; i < template.length; i++) {
 					if (t == template[i] || !t.isAdjacent( template[i] ) ||		// not neighbors
 							isIgnored( b, t, template[i], height ))				// or ignored
 						continue;
 					
+					count( BLOCK_CALLBACKS );
 					if (!b.allowsTemplate( t, host, height, template ))
 						return false;
 				}
@@ -695,14 +944,17 @@ public abstract class MovementMode {
 			
 			// movement modifiers can modify height
 			MovementModifier[] modifiers = getMovementModifiers();
+			count( MODIFIER_CALLBACKS, modifiers.length );
 			for (MovementModifier mod : modifiers)
 				minHeight = Height.max( minHeight, mod.getMovementHeight( t, minHeight, occupy ));
 		}
 		
 		for (Tile t : template)			// obstacles can modify height
-			for (Obstacle o : t.getObstacles())
+			for (int i = 0; i < t.countObstacles(); i++) {
+				Obstacle o = t.getObstacle( i );
 				if (occupy || !isIgnored( o, minHeight ))		// uses height from modifiers
 					minHeight = Height.max( minHeight, o.modifyMoveHeight( minHeight ));
+			}
 		
 		return minHeight;
 	}
@@ -749,7 +1001,7 @@ public abstract class MovementMode {
 		if (!Templates.isTemplateDirection( host.getTemplate(), facing ))
 			return false;
 		
-		Tile[] template = host.getTemplate().getTiles( tile, facing );
+		Tile[] template = getTemplateTiles( tile, facing );
 		
 		for (Tile t : template) {
 			TileData tileData = createTileData( t );
@@ -766,8 +1018,10 @@ public abstract class MovementMode {
 					else {		// not normally occupiable but modifiers can allow
 						MovementModifier[] mods = getMovementModifiers();
 	
-						for (int i = 0; i < mods.length && !canBeOccupied; i++)
+						for (int i = 0; i < mods.length && !canBeOccupied; i++) {
+							count( MODIFIER_CALLBACKS );
 							canBeOccupied |= mods[i].allowsOccupation( host, t );
+						}
 					}
 				}
 				
@@ -777,10 +1031,15 @@ public abstract class MovementMode {
 			if (!tileData.canBeOccupied( height ))
 				return false;
 			
-			for (Block block : t.getBlocks())		// blocks must allow occupation
-				if (block.getHeight( t ).compareTo( height ) >= 0 &&
-						!block.allowsTemplate( t, host, height, template ))
+			for (int i = 0; i < t.countBlocks(); i++) {		// blocks must allow occupation
+				Block block = t.getBlock( i );
+				if (block.getHeight( t ).compareTo( height ) < 0)
+					continue;
+				
+				count( BLOCK_CALLBACKS );
+				if (!block.allowsTemplate( t, host, height, template ))
 					return false;
+			}
 		}
 		
 		return true;
@@ -834,9 +1093,9 @@ public abstract class MovementMode {
 	 */
 	protected Height calculateOrGetOccupyHeight( Tile tile, Direction facing ) {
 		Height occupyHeight = null;
+		Height[] heights = occupyHeights.get( tile );
 		
-		if (occupyHeights.containsKey( tile ) &&
-				((occupyHeight = occupyHeights.get( tile )[ facing.ordinal() / 2 ]) == null ||
+		if (heights != null && ((occupyHeight = heights[ facing.ordinal() / 2 ]) == null ||
 				occupyHeight.compareTo( BLOCKING ) < 0))
 			return occupyHeight;		// occupy height already set for given direction
 		
@@ -902,9 +1161,13 @@ public abstract class MovementMode {
 		
 		Height[] heights = occupyHeights.get( tile );
 		
-		if (heights == null)		// new array, blocking for unset values
-			occupyHeights.put( tile,
-					heights = new Height[] { BLOCKING, BLOCKING, BLOCKING, BLOCKING });
+		if (heights == null) {		// new or recycled array, blocking for unset values
+			if ((heights = occupyHeights.getExpired( tile )) == null)
+				heights = new Height[ 4 ];
+			
+			Arrays.fill( heights, BLOCKING );
+			occupyHeights.put( tile, heights );
+		}
 		
 		int index = facing.ordinal() / 2;
 		heights[ index ] = Height.compareHeights( height, VERY_HIGH ) > 0 ? null : height;
@@ -930,14 +1193,20 @@ public abstract class MovementMode {
 	protected float testEnterEvents( Tile moveTo, Height minHeight, Height moveHeight ) {
 		float risk = 0;
 		
-		for (MovementEvent event : moveTo.getMovementEvents()) {
+		for (int i = 0; i < moveTo.countMovementEvents(); i++) {
+			MovementEvent event = moveTo.getMovementEvent( i );
 			int protection = getProtectionAgainst( event, moveTo, minHeight );
+			if (protection > 0)
+				continue;					// event is ignored and has no effect
 			
-			if (protection < 0 && !event.canEnterTile( host, moveTo, moveHeight ))
-				return -1;					// event prevents entering
+			if (protection < 0) {
+				count( EVENT_CALLBACKS );
+				if (!event.canEnterTile( host, moveTo, moveHeight ))
+					return -1;				// event prevents entering
+			}
 			
-			else if (protection <= 0)		// on positive, event is ignored and has no effect
-				risk += event.getRisk( host, moveTo, moveHeight );
+			count( EVENT_CALLBACKS );
+			risk += event.getRisk( host, moveTo, moveHeight );
 		}
 		
 		return risk;
@@ -957,10 +1226,15 @@ public abstract class MovementMode {
 	protected boolean testLeaveEvents( Height height, Tile... moveFrom ) {
 		
 		for (Tile t : moveFrom)
-			for (MovementEvent event : t.getMovementEvents())
-				if (getProtectionAgainst( event, t, height ) < 0 &&
-						!event.canLeaveTile( host, t, height ))
+			for (int i = 0; i < t.countMovementEvents(); i++) {
+				MovementEvent event = t.getMovementEvent( i );
+				if (getProtectionAgainst( event, t, height ) >= 0)
+					continue;		// event can't prevent leaving
+				
+				count( EVENT_CALLBACKS );
+				if (!event.canLeaveTile( host, t, height ))
 					return false;	// one event preventing move is enough
+			}
 		
 		return true;
 	}
@@ -985,8 +1259,8 @@ public abstract class MovementMode {
 				int protection = getProtectionAgainst( event, eventsAt[i], minHeight );
 				
 				if (protection <= 0)
-					enters &= event.enteringTile(
-							host, eventsAt[i], terrainHeight ) || protection == 0;
+					enters &= executeEvent( event, eventsAt[i], terrainHeight, true, false ) ||
+							protection == 0;
 			}
 	
 		return enters;
@@ -1012,7 +1286,8 @@ public abstract class MovementMode {
 				int protection = getProtectionAgainst( event, t, minHeight );
 				
 				if (protection <= 0)
-					leaves &= event.leavingTile( host, t, terrainHeight ) || protection == 0;
+					leaves &= executeEvent( event, t, terrainHeight, false, false ) ||
+							protection == 0;
 			}
 		
 		return leaves;
@@ -1031,6 +1306,7 @@ public abstract class MovementMode {
 		float risk = 0f;
 		executingBuffer = eventBuffer;
 		eventBuffer = null;						// prevents adding events while buffer is executed
+		count( EVENT_CALLBACKS, executingBuffer.size() );
 		
 		for (int i = 0; i < executingBuffer.size(); i++)	// check events in the buffer
 			risk += executingBuffer.get( i ).getRisk( host, eventTiles.get( i ), height );
@@ -1052,11 +1328,20 @@ public abstract class MovementMode {
 	 * @see					MovementEvent#enteringTile(MobileObject, Tile, Height)
 	 */
 	protected void executeEventBuffer( Height height ) {
+		FlightEvents.EventBuffer recording = new FlightEvents.EventBuffer();
+		recording.begin();
+		
 		executingBuffer = eventBuffer;
 		eventBuffer = null;		// prevents adding events while buffer is executed
 		
 		for (int i = 0; i < executingBuffer.size(); i++)
-			executingBuffer.get( i ).enteringTile( host, eventTiles.get( i ), height );
+			executeEvent( executingBuffer.get( i ), eventTiles.get( i ), height, true, true );
+		
+		recording.end();
+		if (recording.shouldCommit()) {
+			recording.set( executingBuffer.size(), height );
+			recording.commit();
+		}
 		
 		eventTiles.clear();
 		executingBuffer.clear();
@@ -1064,6 +1349,35 @@ public abstract class MovementMode {
 		executingBuffer = null;
 	}
 	
+	/**
+	 * Executes a movement event's enter or leave method, and records the call for the flight
+	 * recorder.
+	 * 
+	 * @param event			execute this event
+	 * @param tile			the event's tile
+	 * @param height		the host's movement height
+	 * @param entering		<code>true</code> to enter the tile, <code>false</code> to leave it
+	 * @param buffered		the event is executed from the event buffer
+	 * @return				the event allows movement
+	 * @see					FlightEvents.Callback
+	 */
+	private boolean executeEvent( MovementEvent event, Tile tile, Height height,
+			boolean entering, boolean buffered ) {
+		FlightEvents.Callback recording = new FlightEvents.Callback();
+		recording.begin();
+		
+		boolean allowed = entering ? event.enteringTile( host, tile, height ) :
+			event.leavingTile( host, tile, height );
+		
+		recording.end();
+		if (recording.shouldCommit()) {
+			recording.set( event, entering, buffered, tile, height, allowed );
+			recording.commit();
+		}
+		
+		return allowed;
+	}
+	
 	/**
 	 * Clears all movement events in the event buffer. The event buffer is cleared after executing
 	 * the events in it, or calculating risk from them. It should be explicitly cleared when
@@ -1090,9 +1404,11 @@ public abstract class MovementMode {
 		if (obstacle.getTotalHeight().compareTo( height ) < 0)
 			return true;
 		
-		for (MovementModifier mod : getMovementModifiers())		// ignore by modifiers
+		for (MovementModifier mod : getMovementModifiers()) {		// ignore by modifiers
+			count( MODIFIER_CALLBACKS );
 			if (mod.ignoresObstacle( obstacle ))
 				return true;
+		}
 		
 		return false;
 	}
@@ -1118,7 +1434,9 @@ public abstract class MovementMode {
 		int protection = isInitialTile( tile ) ? 0 : -1;
 		
 		// check if modifiers protect against the event
-		for (MovementModifier mod : getMovementModifiers())
+		MovementModifier[] modifiers = getMovementModifiers();
+		count( MODIFIER_CALLBACKS, modifiers.length );
+		for (MovementModifier mod : modifiers)
 			protection = Math.max( mod.getProtectionAgainstEvent( event, tile ), protection );
 		
 		return protection;
@@ -1141,9 +1459,11 @@ public abstract class MovementMode {
 				block.getHeight( to ).compareTo( height ) < 0)
 			return true;
 		
-		for (MovementModifier mod : getMovementModifiers())		// ignore by modifiers
+		for (MovementModifier mod : getMovementModifiers()) {		// ignore by modifiers
+			count( MODIFIER_CALLBACKS );
 			if (mod.ignoresBlock( block, from, to, height ))
 				return true;
+		}
 		
 		return false;
 	}
@@ -1165,6 +1485,118 @@ public abstract class MovementMode {
 			for (StateChangeListener <MovementMode> scl : listeners)
 				scl.stateChanged( this );
 	}
+	
+	/**
+	 * Gets the terrain costs for this movement mode's modifiers. Movement modes with the same
+	 * modifiers share the same terrain costs, and adding or removing a modifier replaces them, so
+	 * they identify the current combination of modifiers.
+	 * 
+	 * @return					shared terrain costs for current modifiers
+	 */
+	TerrainCosts getTerrainCosts() {
+		return terrainCosts;
+	}
+
+	/**
+	 * Starts a search outside movement modes, which steps between single tiles. The search gets
+	 * its own tile data, starting empty, and its own initial tiles. The movement radius's data and
+	 * initial tiles are set aside until {@link #finishSingleSteps()}, so the search neither uses
+	 * nor changes them.
+	 * 
+	 * @param initial			events in these tiles can't interrupt movement
+	 * @see						#canLeaveTile(Tile)
+	 * @see						#testSingleStep(Tile, Tile)
+	 */
+	void startSingleSteps( Tile... initial ) {
+		if (radiusData == null) {		// an unfinished search already set the radius aside
+			radiusData = tileData;
+			radiusInitialTiles = initialTiles;
+		}
+		
+		stepData.clear();
+		tileData = stepData;
+		initialTiles = initial.length == 0 ? null : initial;
+	}
+	
+	/**
+	 * Finishes a search started with {@link #startSingleSteps(Tile...)}, and restores the movement
+	 * radius's data and initial tiles.
+	 */
+	void finishSingleSteps() {
+		if (radiusData == null)
+			return;
+		
+		tileData = radiusData;
+		initialTiles = radiusInitialTiles;
+		radiusData = null;
+		radiusInitialTiles = null;
+	}
+
+	/**
+	 * Checks if events allow leaving a single tile at movement height. This's for searches outside
+	 * movement modes, which step between single tiles without a movement radius.
+	 * 
+	 * @param tile				leave this tile
+	 * @return					the host can leave the tile
+	 */
+	boolean canLeaveTile( Tile tile ) {
+		Height moveHeight = getTerrainHeight( getMinimumHeight( false, tile ), tile );
+		boolean canLeave = testLeaveEvents( moveHeight, tile );
+		clearEventBuffer();
+		return canLeave;
+	}
+
+	/**
+	 * Tests a single step between single tiles, the same way as entering a tile during movement
+	 * radius generation: blocks, enter events, terrain and obstacle costs and block costs apply.
+	 * Leaving the first tile isn't tested.
+	 * 
+	 * @param from				step from this tile
+	 * @param to				step to this tile
+	 * @return					cost and risk of the step, or <code>null</code> if the step isn't
+	 * 							allowed
+	 * @see						#canLeaveTile(Tile)
+	 */
+	float[] testSingleStep( Tile from, Tile to ) {
+		clearEventBuffer();
+
+		Height minHeight = getMinimumHeight( false, to );
+		if (minHeight == null)
+			return null;
+
+		Height terrainHeight = getTerrainHeight( minHeight, to );
+		if (!blocksAllowTemplate( new Tile[] { to }, terrainHeight ))
+			return null;		// entry blocked
+
+		float risk = testEnterEvents( to, minHeight, terrainHeight );
+		if (risk < 0)
+			return null;		// events prevent entering
+
+		float cost = getAndSaveCost( to, minHeight );
+		if (cost >= getImpassableMoveCost())
+			return null;		// tile is impassable
+
+		cost = addBlockCosts( from, to, minHeight, terrainHeight, cost );
+		if (cost >= getImpassableMoveCost())
+			return null;		// tile is blocked
+
+		risk += getEventBufferRisk( terrainHeight );
+		clearEventBuffer();
+		return new float[] { cost, risk };
+	}
+
+	/**
+	 * Checks that the host's template covers a single tile, so that single steps describe its
+	 * movement.
+	 * 
+	 * @throws IllegalArgumentException	if the host's template covers more than one tile
+	 * @see						#testSingleStep(Tile, Tile)
+	 */
+	void requireSingleTileTemplate() {
+		MovementTemplate template = getHost().getTemplate();
+		if (template.getWidth() != 1 || template.getHeight() != 1)
+			throw new IllegalArgumentException( "Host's template must be a single tile" );
+	}
 
 	/**
 	 * Data object for storing tile-related data during movement radius generation. All data in
@@ -1276,5 +1708,14 @@ public abstract class MovementMode {
 			if (canBeOccupied)
 				canOccupy |= mask;		// mark occupiable
 		}
+		
+		/**
+		 * Clears all saved move costs and occupy checks, so the data can be reused for another
+		 * tile. The cost array is kept.
+		 */
+		private void reset() {
+			moveCostSet = 0;
+			canOccupy = 0;
+		}
 	}
 }
@@ -33,8 +33,9 @@ public interface MovementModifier {
 	/**
 	 * Modifies movement cost for terrain. The <code>moveCost</code> parameter can also be very
 	 * large to indicate impassability, and this should be taken into consideration. This method is
-	 * executed only once per terrain type. When modifiers are added or removed, the cost is
-	 * calculated again.
+	 * executed only once per terrain type and combination of modifiers, and the result is shared by
+	 * all movement modes that have the same modifiers. The result shouldn't depend on anything
+	 * else than the terrain and the cost, unless the terrain costs are cleared when it changes.
 	 * 
 	 * @param terrain		terrain whose cost is modified
 	 * @param moveCost		the movement cost before changes from this modifier
@@ -0,0 +1,281 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.movement.DefaultMovement.PathData;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * An immutable copy of a movement radius. Contains the tiles where the host can move and which it
+ * can occupy, with the total cost and risk of the best path to each tile and facing. The best
+ * path has the lowest risk, and the lowest cost among paths with the same risk. The paths
+ * themselves are saved as links to the previous step, so they can be recreated.
+ * <p>
+ * A movement radius doesn't refer to the movement mode that created it, so it stays the same when
+ * the mode searches again, and it can be saved separately. Nothing changes after construction, so
+ * any number of threads can query costs and paths at the same time.
+ *
+ * @author Marko Tuominen
+ * @see MovementMode#getMovementRadius()
+ * @see MovementMode#movementRadius(int, boolean)
+ */
+public class MovementRadius {
+
+	// number of facing directions, for saving paths by facing
+	private static final int FACING_COUNT = Direction.values().length;
+
+	private final MobileObject host;
+	private final Tile[] tiles;
+	private final boolean complete;
+
+	// best path for each tile and facing, as index to path steps, negative if can't occupy
+	private final int[] bestPaths;
+
+	// path steps and links to previous steps, negative for starting location
+	private final Tile[] stepTiles;
+	private final float[] stepCosts;
+	private final float[] stepRisks;
+	private final int[] previousSteps;
+
+	// indices to tiles by tile
+	private final Map <Tile, Integer> indices;
+
+	/**
+	 * Creates a movement radius from the best paths to tiles. The path data is copied, so it can
+	 * be reused afterwards.
+	 *
+	 * @param host			the host whose movement radius this is
+	 * @param tiles			tiles that can be reached and occupied
+	 * @param bestPaths		best path for each tile and facing, by facing ordinal in each tile's
+	 * 						range of indices, <code>null</code> if the tile can't be occupied with
+	 * 						the facing
+	 * @param complete		the search was complete
+	 */
+	MovementRadius( MobileObject host, Tile[] tiles, PathData[] bestPaths, boolean complete ) {
+		this.host = host;
+		this.tiles = tiles;
+		this.complete = complete;
+		this.bestPaths = new int[ bestPaths.length ];
+
+		// best paths first, then any previous steps that aren't best paths themselves
+		Map <PathData, Integer> stepIndices = new IdentityHashMap <>();
+		List <PathData> steps = new ArrayList <>();
+		for (int i = 0; i < bestPaths.length; i++)
+			this.bestPaths[i] = bestPaths[i] == null ? -1 :
+					addStep( bestPaths[i], stepIndices, steps );
+
+		for (int i = 0; i < steps.size(); i++)
+			if (steps.get( i ).getPath() != null)
+				addStep( steps.get( i ).getPath(), stepIndices, steps );
+
+		stepTiles = new Tile[ steps.size() ];
+		stepCosts = new float[ steps.size() ];
+		stepRisks = new float[ steps.size() ];
+		previousSteps = new int[ steps.size() ];
+
+		for (int i = 0; i < stepTiles.length; i++) {
+			PathData step = steps.get( i );
+			stepTiles[i] = step.getTile();
+			stepCosts[i] = step.getTotalCost();
+			stepRisks[i] = step.getRisk();
+			previousSteps[i] = step.getPath() == null ? -1 : stepIndices.get( step.getPath() );
+		}
+
+		indices = new HashMap <>( tiles.length * 2 );
+		for (int i = 0; i < tiles.length; i++)
+			indices.put( tiles[i], i );
+	}
+
+	/**
+	 * Gets the host whose movement radius this is.
+	 *
+	 * @return			the host mobile object
+	 */
+	public MobileObject getHost() {
+		return host;
+	}
+
+	/**
+	 * Checks if the movement radius is complete. An incomplete movement radius comes from a
+	 * budgeted search that stopped early, and only has the tiles whose best paths were found
+	 * before it stopped.
+	 *
+	 * @return			the movement radius has all reachable tiles
+	 * @see				DefaultMovement#movementRadius(int, long)
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Gets the number of tiles in the movement radius.
+	 *
+	 * @return			number of reachable tiles
+	 */
+	public int size() {
+		return tiles.length;
+	}
+
+	/**
+	 * Gets the tiles in the movement radius. The host's starting location is included.
+	 *
+	 * @return			reachable tiles in a new array
+	 */
+	public Tile[] getTiles() {
+		return tiles.clone();
+	}
+
+	/**
+	 * Checks if the host can move to a tile and occupy it with some facing.
+	 *
+	 * @param tile		check this tile
+	 * @return			the tile is in the movement radius
+	 */
+	public boolean isReachable( Tile tile ) {
+		return indices.containsKey( tile );
+	}
+
+	/**
+	 * Checks if the host can move to a tile and occupy it with a specific facing.
+	 *
+	 * @param tile		check this tile
+	 * @param facing	facing in the tile
+	 * @return			the tile can be occupied with the facing
+	 */
+	public boolean isReachable( Tile tile, Direction facing ) {
+		return getBestPath( tile, facing ) >= 0;
+	}
+
+	/**
+	 * Gets the total cost of the best path to a tile, with any facing.
+	 *
+	 * @param tile		get cost to this tile
+	 * @return			total cost, or a negative value if the tile isn't in the movement radius
+	 */
+	public float getCost( Tile tile ) {
+		int step = getBestPath( tile );
+		return step < 0 ? -1 : stepCosts[ step ];
+	}
+
+	/**
+	 * Gets the total cost of the best path to a tile and facing.
+	 *
+	 * @param tile		get cost to this tile
+	 * @param facing	facing in the tile
+	 * @return			total cost, or a negative value if the tile and facing can't be occupied
+	 */
+	public float getCost( Tile tile, Direction facing ) {
+		int step = getBestPath( tile, facing );
+		return step < 0 ? -1 : stepCosts[ step ];
+	}
+
+	/**
+	 * Gets the total risk of the best path to a tile, with any facing.
+	 *
+	 * @param tile		get risk to this tile
+	 * @return			total risk, or a negative value if the tile isn't in the movement radius
+	 */
+	public float getRisk( Tile tile ) {
+		int step = getBestPath( tile );
+		return step < 0 ? -1 : stepRisks[ step ];
+	}
+
+	/**
+	 * Gets the total risk of the best path to a tile and facing.
+	 *
+	 * @param tile		get risk to this tile
+	 * @param facing	facing in the tile
+	 * @return			total risk, or a negative value if the tile and facing can't be occupied
+	 */
+	public float getRisk( Tile tile, Direction facing ) {
+		int step = getBestPath( tile, facing );
+		return step < 0 ? -1 : stepRisks[ step ];
+	}
+
+	/**
+	 * Creates the best path to a tile and facing. The path is in the same format as in {@link
+	 * MovementMode#getMovementPath(Tile, Direction)}: it doesn't contain the starting location, and
+	 * it's empty if the tile can't be occupied with the facing.
+	 *
+	 * @param pathTo	create path to this tile
+	 * @param facing	facing in the tile
+	 * @return			the path to the tile
+	 */
+	public Tile[] getPath( Tile pathTo, Direction facing ) {
+		int step = getBestPath( pathTo, facing );
+		if (step < 0)
+			return new Tile[0];
+
+		int length = 0;
+		for (int s = previousSteps[ step ]; s >= 0; s = previousSteps[s])
+			length++;
+
+		// fill from the destination backwards, the starting location isn't included
+		Tile[] path = new Tile[ length ];
+		for (int i = length - 1; i >= 0; i--, step = previousSteps[ step ])
+			path[i] = stepTiles[ step ];
+
+		return path;
+	}
+
+	/**
+	 * Gets the best path to a tile among all facings, with lowest risk and then lowest cost.
+	 *
+	 * @param tile		get best path to this tile
+	 * @return			index to the path's last step, negative if the tile can't be occupied
+	 */
+	private int getBestPath( Tile tile ) {
+		Integer index = indices.get( tile );
+		if (index == null)
+			return -1;
+
+		int best = -1;
+		for (int i = index * FACING_COUNT; i < (index + 1) * FACING_COUNT; i++) {
+			int step = bestPaths[i];
+			if (step < 0)
+				continue;
+			
+			else if (best < 0 || stepRisks[ step ] < stepRisks[ best ] ||
+					stepRisks[ step ] == stepRisks[ best ] && stepCosts[ step ] < stepCosts[ best ])
+				best = step;
+		}
+
+		return best;
+	}
+
+	/**
+	 * Gets the best path to a tile and facing.
+	 *
+	 * @param tile		get best path to this tile
+	 * @param facing	facing in the tile
+	 * @return			index to the path's last step, negative if the tile can't be occupied
+	 */
+	private int getBestPath( Tile tile, Direction facing ) {
+		Integer index = indices.get( tile );
+		return index == null ? -1 : bestPaths[ index * FACING_COUNT + facing.ordinal() ];
+	}
+
+	/**
+	 * Adds a path step if it hasn't been added yet.
+	 *
+	 * @param step			add this step
+	 * @param stepIndices	indices of added steps
+	 * @param steps			added steps in order
+	 * @return				the step's index
+	 */
+	private static int addStep( PathData step, Map <PathData, Integer> stepIndices,
+			List <PathData> steps ) {
+		Integer index = stepIndices.get( step );
+		if (index == null) {
+			stepIndices.put( step, index = steps.size() );
+			steps.add( step );
+		}
+
+		return index;
+	}
+}
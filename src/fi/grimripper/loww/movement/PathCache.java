@@ -0,0 +1,187 @@
+package fi.grimripper.loww.movement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+/**
+ * A size-bounded cache of movement paths in a tile grid, for repeating the same path queries
+ * without searching again. Paths are cached by movement mode, the host's location and template
+ * facing, destination and facing, total movement and the movement mode's combination of movement
+ * modifiers. When the cache is full, the least recently used path is dropped.
+ * <p>
+ * A cached path is only used if the tile grid's version hasn't changed since the path was found.
+ * Otherwise, it's searched again. Changes that aren't in the tile grid, such as changes in the
+ * host's template or the movement mode's settings, aren't noticed, so the cache should be cleared
+ * after them. Paths are shared between queries, so they can't be modified. The cache isn't thread
+ * safe.
+ *
+ * @author Marko Tuominen
+ * @see TileGrid#getVersion()
+ */
+public class PathCache {
+
+	private final TileGrid <?> grid;
+	private final int capacity;
+
+	// cached paths in order of use, least recently used first
+	private final LinkedHashMap <Key, CachedPath> paths;
+
+	private long hits = 0, misses = 0;
+
+	/**
+	 * Creates an empty path cache for a tile grid.
+	 *
+	 * @param grid			paths are in this tile grid
+	 * @param capacity		maximum number of cached paths, at least one
+	 */
+	public PathCache( TileGrid <?> grid, int capacity ) {
+		this.grid = grid;
+		this.capacity = Math.max( 1, capacity );
+		paths = new LinkedHashMap <Key, CachedPath>( 16, 0.75f, true ) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry( Map.Entry <Key, CachedPath> eldest ) {
+				return size() > PathCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Gets a movement path from the host's current location to a destination. If the path isn't
+	 * cached, or the tile grid has changed, the path is found with {@link
+	 * MovementMode#findPath(Tile, Direction, int)}, which replaces the movement mode's earlier
+	 * search results.
+	 *
+	 * @param mode			movement mode for the path
+	 * @param destination	path to this tile
+	 * @param facing		facing in the destination tile
+	 * @param totalMove		the host's total movement
+	 * @return				the path to the destination, without the starting tile, and empty if
+	 * 						the destination can't be reached
+	 */
+	public List <Tile> getMovementPath( MovementMode mode, Tile destination, Direction facing,
+			int totalMove ) {
+		Key key = new Key( mode, destination, facing, totalMove );
+		CachedPath cached = paths.get( key );
+		if (cached != null && cached.version == grid.getVersion()) {
+			hits++;
+			return cached.path;
+		}
+
+		misses++;
+		Tile[] path = mode.findPath( destination, facing, totalMove );
+		cached = new CachedPath( Collections.unmodifiableList( Arrays.asList( path )),
+				grid.getVersion() );
+		paths.put( key, cached );
+		return cached.path;
+	}
+
+	/**
+	 * Gets the maximum number of cached paths.
+	 *
+	 * @return				capacity of the cache
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of cached paths, including paths that are outdated but haven't been
+	 * searched again yet.
+	 *
+	 * @return				number of cached paths
+	 */
+	public int size() {
+		return paths.size();
+	}
+
+	/**
+	 * Gets the number of queries that used a cached path.
+	 *
+	 * @return				number of cache hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of queries that had to search a path.
+	 *
+	 * @return				number of cache misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Removes all cached paths.
+	 */
+	public void clear() {
+		paths.clear();
+	}
+
+	/**
+	 * Identifies a path query. Movement modes, tiles and terrain costs are compared by identity.
+	 */
+	private static class Key {
+
+		private final MovementMode mode;
+		private final TerrainCosts modifiers;		// identifies the combination of modifiers
+		private final Tile start, destination;
+		private final Direction templateFacing, facing;
+		private final int totalMove;
+
+		private Key( MovementMode mode, Tile destination, Direction facing, int totalMove ) {
+			this.mode = mode;
+			modifiers = mode.getTerrainCosts();
+			start = mode.getHost().getLocation();
+			templateFacing = mode.getHost().getTemplateFacing();
+			this.destination = destination;
+			this.facing = facing;
+			this.totalMove = totalMove;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			if (!(obj instanceof Key))
+				return false;
+
+			Key other = (Key)obj;
+			return mode == other.mode && modifiers == other.modifiers && start == other.start &&
+					destination == other.destination && templateFacing == other.templateFacing &&
+					facing == other.facing && totalMove == other.totalMove;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode( mode );
+			hash = 31 * hash + System.identityHashCode( start );
+			hash = 31 * hash + System.identityHashCode( destination );
+			hash = 31 * hash + (facing == null ? 0 : facing.ordinal());
+			return 31 * hash + totalMove;
+		}
+	}
+
+	/**
+	 * A cached path, and the tile grid's version when it was found.
+	 */
+	private static class CachedPath {
+
+		private final List <Tile> path;
+		private final long version;
+
+		private CachedPath( List <Tile> path, long version ) {
+			this.path = path;
+			this.version = version;
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package fi.grimripper.loww.movement;
+
+import java.util.Arrays;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.movement.DefaultMovement.PathData;
+
+/**
+ * The path data saved for a single tile during movement radius generation. Path data is kept in
+ * four buckets by template facing: whether it's due east, and whether it's due north. Asymmetric
+ * templates only compare path data with the same facing in those respects, so a comparison
+ * always covers whole buckets. Each bucket is sorted by total cost, and path data with equal
+ * costs stays in the order it was added.
+ * <p>
+ * While no path data in a bucket has both lower or equal cost and lower or equal risk than
+ * another, the bucket is a Pareto frontier: risk decreases as cost increases. Then a binary
+ * search finds both the path data that a new path would replace, and any that's at least as good
+ * as the new path. Path data added without such checks can break this, and so can changing the
+ * cost, risk or template facing of path data that's already saved. Then the frontier is no longer
+ * valid, and comparisons have to check all path data until the tile is cleared.
+ * <p>
+ * Each path data object remembers the tile data it's saved in, and how many times, so checking
+ * if path data is still saved doesn't require searching.
+ *
+ * @author Marko Tuominen
+ * @see DefaultMovement#shouldKeepPath(PathData)
+ */
+class PathFrontier {
+
+	// buckets by template facing's due east (1) and due north (2) flags
+	private static final int BUCKETS = 4;
+
+	private final PathData[][] buckets = new PathData[ BUCKETS ][];
+	private final int[] sizes = new int[ BUCKETS ];
+	private int size = 0;
+	private boolean frontier = true;
+
+	/**
+	 * Gets the bucket for path data with a template facing.
+	 *
+	 * @param templateFacing	template facing, <code>null</code> goes to the first bucket
+	 * @return					the bucket's index
+	 */
+	static int getBucket( Direction templateFacing ) {
+		return templateFacing == null ? 0 : (templateFacing.isDueEast() ? 1 : 0) |
+				(templateFacing.isDueNorth() ? 2 : 0);
+	}
+
+	/**
+	 * Gets the number of saved path data objects, counting each time the same one was added.
+	 *
+	 * @return			number of path data objects
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if there's any saved path data.
+	 *
+	 * @return			no path data is saved
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Checks if each bucket is still a Pareto frontier, so binary searches can be used.
+	 *
+	 * @return			the buckets are valid frontiers
+	 */
+	boolean isFrontier() {
+		return frontier;
+	}
+
+	/**
+	 * Marks the buckets as no longer valid frontiers, after saved path data has changed.
+	 */
+	void invalidate() {
+		frontier = false;
+	}
+
+	/**
+	 * Gets all saved path data, bucket by bucket in order of total cost.
+	 *
+	 * @return			the path data in a new array
+	 */
+	PathData[] toArray() {
+		PathData[] paths = new PathData[ size ];
+		for (int b = 0, count = 0; b < BUCKETS; count += sizes[b], b++)
+			if (sizes[b] > 0)
+				System.arraycopy( buckets[b], 0, paths, count, sizes[b] );
+
+		return paths;
+	}
+
+	/**
+	 * Adds path data after any with lower or equal total cost, and checks that its bucket is
+	 * still a frontier.
+	 *
+	 * @param data		add this path data
+	 */
+	void add( PathData data ) {
+		int b = getBucket( data.getTemplateFacing() );
+		PathData[] bucket = buckets[b];
+		if (bucket == null)
+			bucket = buckets[b] = new PathData[2];
+		else if (sizes[b] == bucket.length)
+			bucket = buckets[b] = Arrays.copyOf( bucket, bucket.length * 2 );
+
+		float cost = data.getTotalCost(), risk = data.getRisk();
+		int index = search( b, cost, true );
+		System.arraycopy( bucket, index, bucket, index + 1, sizes[b] - index );
+		bucket[ index ] = data;
+		sizes[b]++;
+		size++;
+
+		// neighbors must have lower cost and higher risk, or higher cost and lower risk
+		if (index > 0 && (bucket[ index - 1 ].getTotalCost() == cost ||
+				bucket[ index - 1 ].getRisk() <= risk) ||
+				index + 1 < sizes[b] && bucket[ index + 1 ].getRisk() >= risk)
+			frontier = false;
+
+		if (data.store != this) {
+			data.store = this;
+			data.stored = 0;
+		}
+		data.stored++;
+	}
+
+	/**
+	 * Removes path data once, if it's saved.
+	 *
+	 * @param data		remove this path data
+	 * @return			the path data was saved
+	 */
+	boolean remove( PathData data ) {
+		if (!contains( data ))
+			return false;
+
+		// path data that hasn't changed is where its cost and template facing put it
+		int b = getBucket( data.getTemplateFacing() );
+		for (int i = search( b, data.getTotalCost(), false ); i < sizes[b] &&
+				buckets[b][i].getTotalCost() == data.getTotalCost(); i++)
+			if (buckets[b][i] == data) {
+				removeRange( b, i, i + 1 );
+				return true;
+			}
+
+		for (b = 0; b < BUCKETS; b++)
+			for (int i = 0; i < sizes[b]; i++)
+				if (buckets[b][i] == data) {
+					removeRange( b, i, i + 1 );
+					return true;
+				}
+
+		return false;
+	}
+
+	/**
+	 * Checks if path data is saved.
+	 *
+	 * @param data		check this path data
+	 * @return			the path data is saved
+	 */
+	boolean contains( PathData data ) {
+		return data.store == this && data.stored > 0;
+	}
+
+	/**
+	 * Removes path data in a bucket that has higher cost and equal or higher risk than a new
+	 * path, or equal cost and higher risk. The bucket must be a frontier, so these are all next to
+	 * each other, starting from the first path data with equal or higher cost.
+	 *
+	 * @param b			remove from this bucket
+	 * @param cost		the new path's total cost
+	 * @param risk		the new path's risk
+	 * @return			number of removed path data objects
+	 */
+	int removeDominated( int b, float cost, float risk ) {
+		int first = search( b, cost, false ), end = first;
+		while (end < sizes[b] && buckets[b][ end ].getRisk() >= risk &&
+				(buckets[b][ end ].getTotalCost() > cost || buckets[b][ end ].getRisk() > risk))
+			end++;
+
+		removeRange( b, first, end );
+		return end - first;
+	}
+
+	/**
+	 * Checks if a bucket has path data with both equal or lower cost and equal or lower risk than
+	 * a new path. The bucket must be a frontier, so only the path data with the highest cost that
+	 * isn't higher than the new path's needs to be checked.
+	 *
+	 * @param b			check this bucket
+	 * @param cost		the new path's total cost
+	 * @param risk		the new path's risk
+	 * @return			the bucket has path data that's at least as good
+	 */
+	boolean hasDominating( int b, float cost, float risk ) {
+		int index = search( b, cost, true ) - 1;
+		return index >= 0 && buckets[b][ index ].getRisk() <= risk;
+	}
+
+	/**
+	 * Removes all path data, so the object can be reused for another tile or search.
+	 */
+	void clear() {
+		for (int b = 0; b < BUCKETS; b++) {
+			for (int i = 0; i < sizes[b]; i++)
+				if (buckets[b][i].store == this)
+					buckets[b][i].stored = 0;
+
+			if (buckets[b] != null)
+				Arrays.fill( buckets[b], 0, sizes[b], null );
+			sizes[b] = 0;
+		}
+
+		size = 0;
+		frontier = true;
+	}
+
+	/**
+	 * Finds the first path data in a bucket with higher total cost, or with equal or higher cost.
+	 *
+	 * @param b			search this bucket
+	 * @param cost		compare to this cost
+	 * @param after		skip path data with equal cost
+	 * @return			index of the first path data, or the bucket's size if there's none
+	 */
+	private int search( int b, float cost, boolean after ) {
+		int low = 0, high = sizes[b];
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			float middleCost = buckets[b][ middle ].getTotalCost();
+			if (middleCost < cost || after && middleCost == cost)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Removes a range of path data from a bucket. An empty tile starts over as a valid frontier.
+	 *
+	 * @param b			remove from this bucket
+	 * @param from		first index to remove
+	 * @param to		index after the last one to remove
+	 */
+	private void removeRange( int b, int from, int to ) {
+		if (from == to)
+			return;
+
+		PathData[] bucket = buckets[b];
+		for (int i = from; i < to; i++)
+			bucket[i].stored--;
+
+		System.arraycopy( bucket, to, bucket, from, sizes[b] - to );
+		Arrays.fill( bucket, sizes[b] - (to - from), sizes[b], null );
+		sizes[b] -= to - from;
+		size -= to - from;
+
+		if (size == 0)
+			frontier = true;
+	}
+}
@@ -0,0 +1,122 @@
+package fi.grimripper.loww.movement;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Determines movement radii for many mobile objects in parallel. Each mobile object's active
+ * movement mode generates its radius in a fork/join pool, and the results are returned as
+ * immutable {@link MovementRadius} objects. The movement modes keep their radii afterwards, as if
+ * they had been generated one by one.
+ * <p>
+ * Movement modes don't share search state with each other, so radii for different mobile objects
+ * can be generated at the same time. Terrain costs are shared, but they're safe for concurrent
+ * use. Everything else that the searches have in common is only read, as long as these rules are
+ * followed during the batch:
+ * <ul>
+ * <li>The tile grid doesn't change. Tiles, terrain, obstacles, blocks and movement events aren't
+ * added, removed or moved, and mobile objects aren't moved. Tiles and obstacles are only read, and
+ * lazily counted neighbors are the same in every thread.</li>
+ * <li>Movement modifiers, blocks and movement events can be called from several threads at once,
+ * if they're shared by mobile objects. Their methods used when generating a movement radius must
+ * not change state that affects other calls.</li>
+ * <li>A mobile object is only included once, and its movement modes aren't used elsewhere.</li>
+ * </ul>
+ * Movement events aren't executed when generating a movement radius, so motion listeners aren't
+ * notified during the batch.
+ *
+ * @author Marko Tuominen
+ * @see MovementMode#movementRadius(int, boolean)
+ */
+public class RadiusBatch {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a batch that uses the common fork/join pool.
+	 */
+	public RadiusBatch() {
+		this( ForkJoinPool.commonPool() );
+	}
+
+	/**
+	 * Creates a batch that uses a specific fork/join pool.
+	 *
+	 * @param pool			generate movement radii in this pool
+	 */
+	public RadiusBatch( ForkJoinPool pool ) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Generates movement radii for mobile objects in parallel, and waits until they're all done.
+	 * Mobile objects without an active movement mode, or whose mode can't create a copy of its
+	 * movement radius, aren't included in the results. Duplicates are only searched once.
+	 *
+	 * @param mobiles		generate movement radii for these mobile objects
+	 * @return				unmodifiable map of movement radii, in the order of the mobile objects
+	 */
+	public Map <MobileObject, MovementRadius> movementRadius(
+			Collection <? extends MobileObject> mobiles ) {
+		MobileObject[] hosts = new LinkedHashSet <>( mobiles ).toArray( new MobileObject[0] );
+		MovementRadius[] radii = new MovementRadius[ hosts.length ];
+		pool.invoke( new RadiusTask( hosts, radii, 0, hosts.length ));
+
+		Map <MobileObject, MovementRadius> results = new LinkedHashMap <>();
+		for (int i = 0; i < hosts.length; i++)
+			if (radii[i] != null)
+				results.put( hosts[i], radii[i] );
+
+		return Collections.unmodifiableMap( results );
+	}
+
+	/**
+	 * Generates a movement radius for a single mobile object, with its active movement mode and
+	 * the mode's movement value. Called in a worker thread. Subclasses can override this to use a
+	 * different movement value.
+	 *
+	 * @param mobile		generate movement radius for this mobile object
+	 * @return				copy of the movement radius, or <code>null</code> if there isn't one
+	 */
+	protected MovementRadius movementRadius( MobileObject mobile ) {
+		MovementMode mode = mobile.getMovementMode();
+		if (mode == null)
+			return null;
+
+		return mode.movementRadius( mode.getMovement(), true );
+	}
+
+	// splits a range of mobile objects in halves until there's a single mobile object
+	private class RadiusTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final MobileObject[] hosts;
+		private final MovementRadius[] radii;
+		private final int from, to;
+
+		private RadiusTask( MobileObject[] hosts, MovementRadius[] radii, int from, int to ) {
+			this.hosts = hosts;
+			this.radii = radii;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1)
+				radii[ from ] = movementRadius( hosts[ from ]);
+
+			else if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll( new RadiusTask( hosts, radii, from, middle ),
+						new RadiusTask( hosts, radii, middle, to ));
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * A path that takes several turns, split into the part moved on each turn. Each turn ends on a
+ * tile the host can occupy, with the facing of the turn's last step. A route is complete if it
+ * reaches its destination. Nothing changes after construction, so any number of threads can query
+ * the route at the same time.
+ *
+ * @author Marko Tuominen
+ * @see RoutePlanner#planRoute(Tile, int)
+ */
+public class Route {
+
+	private final Tile start, destination;
+	private final Tile[][] turns;
+	private final Direction[] facings;
+	private final float cost, risk;
+	private final int explored;
+	private final boolean budgetExceeded;
+
+	/**
+	 * Creates a route.
+	 *
+	 * @param start				the host's starting location
+	 * @param destination		the route's destination
+	 * @param turns				path for each turn, without the turn's starting tile, or
+	 * 							<code>null</code> if the destination wasn't reached
+	 * @param facings			facing at the end of each turn
+	 * @param cost				total cost of the route
+	 * @param risk				total risk of the route
+	 * @param explored			number of search nodes explored for the route
+	 * @param budgetExceeded	the search stopped at its node budget
+	 */
+	Route( Tile start, Tile destination, Tile[][] turns, Direction[] facings, float cost,
+			float risk, int explored, boolean budgetExceeded ) {
+		this.start = start;
+		this.destination = destination;
+		this.turns = turns;
+		this.facings = facings;
+		this.cost = cost;
+		this.risk = risk;
+		this.explored = explored;
+		this.budgetExceeded = budgetExceeded;
+	}
+
+	/**
+	 * Gets the host's location when the route was planned.
+	 *
+	 * @return				the starting tile
+	 */
+	public Tile getStart() {
+		return start;
+	}
+
+	/**
+	 * Gets the route's destination.
+	 *
+	 * @return				the destination tile
+	 */
+	public Tile getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Checks if the route reaches its destination.
+	 *
+	 * @return				the route is complete
+	 */
+	public boolean isComplete() {
+		return turns != null;
+	}
+
+	/**
+	 * Checks if the search stopped because it explored as many nodes as its budget allowed. If
+	 * so, an incomplete route doesn't mean the destination can't be reached.
+	 *
+	 * @return				the node budget was exceeded
+	 */
+	public boolean isBudgetExceeded() {
+		return budgetExceeded;
+	}
+
+	/**
+	 * Gets the number of search nodes explored while planning the route.
+	 *
+	 * @return				number of explored nodes
+	 */
+	public int getExploredNodes() {
+		return explored;
+	}
+
+	/**
+	 * Gets the number of turns the route takes.
+	 *
+	 * @return				number of turns, zero if the route is incomplete or the host is
+	 * 						already at the destination
+	 */
+	public int getTurnCount() {
+		return turns == null ? 0 : turns.length;
+	}
+
+	/**
+	 * Gets the path moved on a turn. The path is in the same format as movement paths: it doesn't
+	 * contain the tile where the turn starts.
+	 *
+	 * @param turn			get path for this turn, starting from zero
+	 * @return				the turn's path
+	 */
+	public Tile[] getPath( int turn ) {
+		return turns[ turn ].clone();
+	}
+
+	/**
+	 * Gets the tile where a turn ends.
+	 *
+	 * @param turn			get end tile for this turn, starting from zero
+	 * @return				the turn's last tile, which the host can occupy
+	 */
+	public Tile getEndTile( int turn ) {
+		return turns[ turn ][ turns[ turn ].length - 1 ];
+	}
+
+	/**
+	 * Gets the host's facing where a turn ends.
+	 *
+	 * @param turn			get end facing for this turn, starting from zero
+	 * @return				facing in the turn's last tile
+	 */
+	public Direction getEndFacing( int turn ) {
+		return facings[ turn ];
+	}
+
+	/**
+	 * Gets the whole route as a single path.
+	 *
+	 * @return				the path over all turns, without the starting tile, and empty if the
+	 * 						route is incomplete
+	 */
+	public Tile[] getPath() {
+		List <Tile> path = new ArrayList <>();
+		for (int i = 0; i < getTurnCount(); i++)
+			for (Tile tile : turns[i])
+				path.add( tile );
+
+		return path.toArray( new Tile[ path.size() ]);
+	}
+
+	/**
+	 * Gets the total cost of the route over all turns.
+	 *
+	 * @return				total cost, or a negative value if the route is incomplete
+	 */
+	public float getCost() {
+		return cost;
+	}
+
+	/**
+	 * Gets the total risk of the route over all turns.
+	 *
+	 * @return				total risk, or a negative value if the route is incomplete
+	 */
+	public float getRisk() {
+		return risk;
+	}
+}
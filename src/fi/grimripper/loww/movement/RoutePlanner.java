@@ -0,0 +1,286 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * Plans routes that take more than one turn. A movement radius only reaches as far as a single
+ * turn's movement, so a route planner searches further, ending a turn whenever movement runs out.
+ * Each turn must end on a tile the host can occupy, with the facing of the turn's last step, as
+ * decided by {@link MovementMode#canOccupy(Tile, Direction)}. Steps use the same rules and the
+ * same cost and risk as the movement mode, but they're tested for a single tile, so the host must
+ * have a single-tile template.
+ * <p>
+ * The best route takes the fewest turns. Among those, it has the lowest risk, and then the lowest
+ * movement used on the last turn. The search can't tell in advance how far the destination is, so
+ * it has a budget: it stops after exploring that many search nodes, and the route is incomplete.
+ *
+ * @author Marko Tuominen
+ * @see Route
+ */
+public class RoutePlanner {
+
+	/**
+	 * Default maximum number of search nodes explored for a route.
+	 */
+	public static final int DEFAULT_NODE_BUDGET = 100000;
+
+	// orders search labels by turns, risk, movement used on the last turn, and total cost
+	private static final Comparator <Label> TURN_ORDER = new Comparator <Label>() {
+		@Override
+		public int compare( Label first, Label second ) {
+			int compare = Integer.compare( first.turn, second.turn );
+			if (compare == 0)
+				compare = Float.compare( first.risk, second.risk );
+			if (compare == 0)
+				compare = Float.compare( first.used, second.used );
+			return compare != 0 ? compare : Float.compare( first.cost, second.cost );
+		}
+	};
+
+	private final MovementMode mode;
+	private int nodeBudget;
+
+	/**
+	 * Creates a route planner with the default node budget.
+	 *
+	 * @param mode			plan routes with this movement mode
+	 * @throws IllegalArgumentException	if the host's template covers more than one tile
+	 */
+	public RoutePlanner( MovementMode mode ) {
+		this( mode, DEFAULT_NODE_BUDGET );
+	}
+
+	/**
+	 * Creates a route planner.
+	 *
+	 * @param mode			plan routes with this movement mode
+	 * @param nodeBudget	maximum number of search nodes explored for a route, at least one
+	 * @throws IllegalArgumentException	if the host's template covers more than one tile
+	 */
+	public RoutePlanner( MovementMode mode, int nodeBudget ) {
+		mode.requireSingleTileTemplate();
+		this.mode = mode;
+		setNodeBudget( nodeBudget );
+	}
+
+	/**
+	 * Gets the movement mode used for planning routes.
+	 *
+	 * @return				the movement mode
+	 */
+	public MovementMode getMovementMode() {
+		return mode;
+	}
+
+	/**
+	 * Gets the maximum number of search nodes explored for a route. A search node is a tile and
+	 * facing reached on a specific turn with specific risk and movement.
+	 *
+	 * @return				the node budget
+	 */
+	public int getNodeBudget() {
+		return nodeBudget;
+	}
+
+	/**
+	 * Sets the maximum number of search nodes explored for a route.
+	 *
+	 * @param nodeBudget	the node budget, at least one
+	 */
+	public void setNodeBudget( int nodeBudget ) {
+		this.nodeBudget = Math.max( 1, nodeBudget );
+	}
+
+	/**
+	 * Plans a route from the host's location to a destination. The host's facing is kept on steps
+	 * to remote neighbors, otherwise it's the direction of the step. Like in a movement radius,
+	 * events in the host's location can't interrupt movement. The movement mode's current movement
+	 * radius isn't used or changed.
+	 *
+	 * @param destination	plan a route to this tile
+	 * @param movePerTurn	the host's total movement on each turn, at least one
+	 * @return				the route, incomplete if the destination can't be reached or the
+	 * 						node budget runs out
+	 */
+	public Route planRoute( Tile destination, int movePerTurn ) {
+		movePerTurn = Math.max( 1, movePerTurn );
+		Tile start = mode.getHost().getLocation();
+
+		mode.startSearchMetrics();
+		mode.startSingleSteps( start );		// events in the location can't prevent leaving
+
+		Map <Tile, List <Label>> labels = new HashMap <>();
+		Map <Tile, Boolean> leaving = new HashMap <>();
+		PriorityQueue <Label> queue = new PriorityQueue <>( 64, TURN_ORDER );
+		offer( new Label( start, mode.getHost().getFacing(), 0, 0, 0, 0, null, false ),
+				labels, queue );
+
+		Label goal = null;
+		int explored = 0;
+		boolean budgetExceeded = false;
+
+		while (start != null && !queue.isEmpty()) {
+			Label label = queue.remove();
+			if (label.removed)
+				continue;			// a better label was found after this one
+			if (explored == nodeBudget) {
+				budgetExceeded = true;
+				break;
+			}
+
+			explored++;
+			mode.countExplored( label.tile );
+			boolean canOccupy = label.previous != null &&
+					mode.canOccupy( label.tile, label.facing );
+
+			if (label.tile == destination && (canOccupy || label.previous == null)) {
+				goal = label;
+				break;
+			}
+
+			// end the turn here, and continue with full movement on the next one
+			if (canOccupy && !label.turnEnd && label.used > 0)
+				offer( new Label( label.tile, label.facing, label.turn + 1, 0, label.cost,
+						label.risk, label, true ), labels, queue );
+
+			Boolean canLeave = leaving.get( label.tile );
+			if (canLeave == null)
+				leaving.put( label.tile, canLeave = mode.canLeaveTile( label.tile ));
+			if (!canLeave)
+				continue;			// events prevent leaving
+
+			Tile[] neighbors = label.tile.getNeighbors();
+			int count = neighbors.length + label.tile.countRemoteNeighbors();
+			for (int i = 0; i < count; i++) {
+				Tile next = i < neighbors.length ? neighbors[i] :
+					label.tile.getRemoteNeighbor( i - neighbors.length );
+				float[] step = next == null ? null : mode.testSingleStep( label.tile, next );
+				if (step == null || label.used + step[0] > movePerTurn)
+					continue;		// can't move there, or not on this turn
+
+				Direction facing = (next.isAdjacent( label.tile ) ?
+					label.tile.getDirection( next ) : label.facing);
+				offer( new Label( next, facing, label.turn, label.used + step[0],
+						label.cost + step[0], label.risk + step[1], label, false ), labels, queue );
+			}
+		}
+
+		mode.finishSingleSteps();
+		mode.finishSearchMetrics();
+		return createRoute( start, destination, goal, explored, budgetExceeded );
+	}
+
+	/**
+	 * Adds a search label, unless another label for the same tile and facing has no more turns,
+	 * movement, risk or cost. Labels that the new one is better than are removed.
+	 *
+	 * @param label			add this label
+	 * @param labels		labels by tile
+	 * @param queue			labels waiting to be explored
+	 */
+	private static void offer( Label label, Map <Tile, List <Label>> labels,
+			PriorityQueue <Label> queue ) {
+		List <Label> tileLabels = labels.get( label.tile );
+		if (tileLabels == null)
+			labels.put( label.tile, tileLabels = new ArrayList <>( 2 ));
+
+		for (Label other : tileLabels)
+			if (other.facing == label.facing && other.turn <= label.turn &&
+					other.used <= label.used && other.risk <= label.risk &&
+					other.cost <= label.cost)
+				return;
+
+		for (Iterator <Label> it = tileLabels.iterator(); it.hasNext();) {
+			Label other = it.next();
+			if (other.facing == label.facing && label.turn <= other.turn &&
+					label.used <= other.used && label.risk <= other.risk &&
+					label.cost <= other.cost) {
+				other.removed = true;
+				it.remove();
+			}
+		}
+
+		tileLabels.add( label );
+		queue.add( label );
+	}
+
+	/**
+	 * Creates a route by following search labels back from the destination, splitting the path
+	 * where turns end.
+	 *
+	 * @param start				the starting tile
+	 * @param destination		the destination tile
+	 * @param goal				label at the destination, <code>null</code> if not reached
+	 * @param explored			number of explored search nodes
+	 * @param budgetExceeded	the search stopped at its node budget
+	 * @return					the route
+	 */
+	private static Route createRoute( Tile start, Tile destination, Label goal, int explored,
+			boolean budgetExceeded ) {
+		if (goal == null)
+			return new Route( start, destination, null, null, -1, -1, explored, budgetExceeded );
+
+		List <Tile[]> turns = new ArrayList <>();
+		List <Direction> facings = new ArrayList <>();
+		List <Tile> path = new ArrayList <>();
+		Direction facing = goal.facing;
+
+		for (Label label = goal; label != null; label = label.previous)
+			if (label.turnEnd || label.previous == null) {
+				if (path.isEmpty())
+					continue;		// already at the destination
+
+				Collections.reverse( path );
+				turns.add( path.toArray( new Tile[ path.size() ]));
+				facings.add( facing );
+				path.clear();
+				facing = label.facing;
+			}
+
+			else
+				path.add( label.tile );
+
+		Collections.reverse( turns );
+		Collections.reverse( facings );
+		return new Route( start, destination, turns.toArray( new Tile[ turns.size() ][] ),
+				facings.toArray( new Direction[ facings.size() ]), goal.cost, goal.risk,
+				explored, false );
+	}
+
+	/**
+	 * A tile and facing reached on a turn, with movement used on that turn, and total cost and
+	 * risk of the route so far.
+	 */
+	private static class Label {
+
+		private final Tile tile;
+		private final Direction facing;
+		private final int turn;
+		private final float used, cost, risk;
+		private final Label previous;
+		private final boolean turnEnd;			// the turn before this label ended here
+		private boolean removed = false;
+
+		private Label( Tile tile, Direction facing, int turn, float used, float cost, float risk,
+				Label previous, boolean turnEnd ) {
+			this.tile = tile;
+			this.facing = facing;
+			this.turn = turn;
+			this.used = used;
+			this.cost = cost;
+			this.risk = risk;
+			this.previous = previous;
+			this.turnEnd = turnEnd;
+		}
+	}
+}
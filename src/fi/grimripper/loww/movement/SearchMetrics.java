@@ -0,0 +1,134 @@
+package fi.grimripper.loww.movement;
+
+import java.util.Arrays;
+
+/**
+ * Counters for a single movement search. A movement mode collects counters only while it has a
+ * {@link SearchMetricsListener}, and reports them to the listener when the search is finished.
+ * Otherwise nothing is counted.
+ * <p>
+ * Each movement mode reuses the same metrics object for all of its searches, and resets the
+ * counters before each search. A listener that keeps the counters after the notification should
+ * copy them.
+ *
+ * @author Marko Tuominen
+ * @see MovementMode#setSearchMetricsListener(SearchMetricsListener)
+ */
+public class SearchMetrics {
+
+	/**
+	 * Things counted during a search.
+	 */
+	public static enum Counter {
+
+		/**
+		 * Path data objects created for the search, including those rejected right away.
+		 */
+		PATHS_CREATED,
+
+		/**
+		 * New paths that weren't kept, because a better path already existed.
+		 */
+		PATHS_REJECTED,
+
+		/**
+		 * Saved paths that were removed, because a better path was found.
+		 */
+		PATHS_REMOVED,
+
+		/**
+		 * Paths explored from a tile where another path had already been explored.
+		 */
+		PATHS_REEXPANDED,
+
+		/**
+		 * Tiles where at least one path was explored.
+		 */
+		TILES_SETTLED,
+
+		/**
+		 * Move costs found in saved tile data.
+		 */
+		TILE_DATA_HITS,
+
+		/**
+		 * Move costs that had to be calculated and saved in tile data.
+		 */
+		TILE_DATA_MISSES,
+
+		/**
+		 * Terrain costs found in the shared terrain cost table.
+		 */
+		TERRAIN_COST_HITS,
+
+		/**
+		 * Terrain costs that had to be calculated with movement modifiers.
+		 */
+		TERRAIN_COST_MISSES,
+
+		/**
+		 * Calls to movement event methods that test entering, leaving or risk. Event heights
+		 * aren't counted.
+		 */
+		EVENT_CALLBACKS,
+
+		/**
+		 * Calls to block methods that modify costs or test templates. Block heights aren't
+		 * counted.
+		 */
+		BLOCK_CALLBACKS,
+
+		/**
+		 * Calls to movement modifier methods.
+		 */
+		MODIFIER_CALLBACKS
+	}
+
+	private final long[] counts = new long[ Counter.values().length ];
+	private long startTime = 0, wallTime = 0;
+
+	/**
+	 * Gets the value of a counter.
+	 *
+	 * @param counter	get this counter
+	 * @return			counted value in the latest search
+	 */
+	public long get( Counter counter ) {
+		return counts[ counter.ordinal() ];
+	}
+
+	/**
+	 * Gets the time from the beginning to the end of the search.
+	 *
+	 * @return			wall time in nanoseconds
+	 */
+	public long getWallTime() {
+		return wallTime;
+	}
+
+	/**
+	 * Resets all counters and starts timing a search.
+	 */
+	void start() {
+		Arrays.fill( counts, 0 );
+		wallTime = 0;
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * Stops timing the search.
+	 */
+	void stop() {
+		wallTime = System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Adds to a counter.
+	 *
+	 * @param counter	add to this counter
+	 * @param amount	amount to add
+	 */
+	void add( Counter counter, int amount ) {
+		counts[ counter.ordinal() ] += amount;
+	}
+}
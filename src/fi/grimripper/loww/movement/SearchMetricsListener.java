@@ -0,0 +1,24 @@
+package fi.grimripper.loww.movement;
+
+/**
+ * Interface for collecting counters from movement searches. The listener can be set to a movement
+ * mode, which then counts path data, tile data and callbacks during each search, and notifies the
+ * listener when the search is finished. Movement modes don't count anything without a listener.
+ * <p>
+ * The notification comes from the thread that ran the search. If movement modes with the same
+ * listener search in parallel, for example in a {@link RadiusBatch}, the listener must be thread
+ * safe.
+ *
+ * @author Marko Tuominen
+ * @see MovementMode#setSearchMetricsListener(SearchMetricsListener)
+ */
+public interface SearchMetricsListener {
+
+	/**
+	 * Notification when a movement mode has finished a search.
+	 *
+	 * @param mode			the movement mode that searched
+	 * @param metrics		counters for the search, reused by the next search
+	 */
+	public void searchFinished( MovementMode mode, SearchMetrics metrics );
+}
@@ -0,0 +1,33 @@
+package fi.grimripper.loww.movement;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * Interface for receiving movement radius results while the search is still running. The listener
+ * can be set to a movement mode, which notifies it when the best path to a tile with a template
+ * facing has been found, so results can be used before the whole movement radius is ready. Each
+ * tile and template facing is notified once per search.
+ * <p>
+ * The notification comes from the thread that runs the search, in the middle of it, so the
+ * listener shouldn't start another search with the same movement mode. Movement paths to tiles
+ * that have been notified can be created during the notification.
+ *
+ * @author Marko Tuominen
+ * @see DefaultMovement#setSettleListener(SettleListener)
+ */
+public interface SettleListener {
+
+	/**
+	 * Notification when the best path to a tile with a template facing has been found. The host
+	 * may not be able to occupy the tile with the facing, even though it can move through it.
+	 *
+	 * @param mode				the movement mode that's searching
+	 * @param tile				the host's main tile at the end of the path
+	 * @param templateFacing	the template's facing at the end of the path
+	 * @param totalCost			total cost of the path
+	 * @param risk				total risk of the path
+	 */
+	public void pathSettled( MovementMode mode, Tile tile, Direction templateFacing,
+			float totalCost, float risk );
+}
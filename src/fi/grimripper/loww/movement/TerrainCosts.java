@@ -0,0 +1,153 @@
+package fi.grimripper.loww.movement;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import fi.grimripper.loww.tiles.Terrain;
+
+/**
+ * Terrain move costs for a combination of movement modifiers, indexed by terrain ids. The costs
+ * are shared by all movement modes that have the same modifiers in the same order, so each cost
+ * is only calculated once for the combination. A shared table is kept as long as some movement
+ * mode uses it.
+ * <p>
+ * The tables can be read and written from several threads. Costs that haven't been calculated are
+ * <code>NaN</code>. If two threads calculate the same cost at the same time, both save the same
+ * value, so the only harm is the extra calculation.
+ *
+ * @author Marko Tuominen
+ * @see Terrain#getId()
+ */
+class TerrainCosts {
+
+	private static final float[] NO_COSTS = new float[0];
+
+	// shared tables by modifier combination, removed after they're no longer used
+	private static final ConcurrentMap <Signature, TableReference> TABLES =
+			new ConcurrentHashMap <>();
+	private static final ReferenceQueue <TerrainCosts> UNUSED = new ReferenceQueue <>();
+
+	private volatile float[] costs = NO_COSTS;
+
+	/**
+	 * Gets the shared cost table for a combination of movement modifiers. Modifiers are compared
+	 * by identity, and the order matters, because each modifier gets the cost from the previous
+	 * one.
+	 *
+	 * @param modifiers		get the table for these modifiers
+	 * @return				shared terrain costs for the modifiers
+	 */
+	static TerrainCosts forModifiers( MovementModifier[] modifiers ) {
+		for (Reference <? extends TerrainCosts> unused = UNUSED.poll(); unused != null;
+				unused = UNUSED.poll()) {
+			TableReference ref = (TableReference)unused;
+			TABLES.remove( ref.signature, ref );
+		}
+
+		Signature signature = new Signature( modifiers );
+		while (true) {
+			TableReference ref = TABLES.get( signature );
+			TerrainCosts table = ref == null ? null : ref.get();
+			if (table != null)
+				return table;
+
+			table = new TerrainCosts();
+			TableReference created = new TableReference( signature, table );
+			if (ref == null ? TABLES.putIfAbsent( signature, created ) == null :
+					TABLES.replace( signature, ref, created ))
+				return table;
+		}
+	}
+
+	/**
+	 * Gets a saved terrain cost.
+	 *
+	 * @param terrain		get cost for this terrain
+	 * @return				saved cost, or <code>NaN</code> if it hasn't been calculated
+	 */
+	float get( Terrain terrain ) {
+		int id = terrain.getId();
+		float[] saved = costs;
+		return id < saved.length ? saved[ id ] : Float.NaN;
+	}
+
+	/**
+	 * Saves a calculated terrain cost.
+	 *
+	 * @param terrain		save cost for this terrain
+	 * @param cost			cost for the terrain
+	 */
+	synchronized void put( Terrain terrain, float cost ) {
+		int id = terrain.getId();
+		float[] saved = costs;
+
+		if (id >= saved.length) {
+			int length = Math.max( id + 1, saved.length * 2 );
+			saved = Arrays.copyOf( saved, length );
+			Arrays.fill( saved, costs.length, length, Float.NaN );
+		}
+
+		saved[ id ] = cost;
+		costs = saved;		// publishes the cost to other threads
+	}
+
+	/**
+	 * Clears all saved costs, so they're calculated again.
+	 */
+	synchronized void clear() {
+		costs = NO_COSTS;
+	}
+
+	// a combination of modifiers, compared by identity
+	private static class Signature {
+
+		private final MovementModifier[] modifiers;
+		private final int hash;
+
+		private Signature( MovementModifier[] modifiers ) {
+			this.modifiers = modifiers.clone();
+
+			int h = 1;
+			for (MovementModifier mod : modifiers)
+				h = 31 * h + System.identityHashCode( mod );
+
+			hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			if (!(obj instanceof Signature))
+				return false;
+
+			MovementModifier[] other = ((Signature)obj).modifiers;
+			if (other.length != modifiers.length)
+				return false;
+
+			for (int i = 0; i < modifiers.length; i++)
+				if (other[ i ] != modifiers[ i ])
+					return false;
+
+			return true;
+		}
+	}
+
+	// lets tables be collected when no movement mode uses them
+	private static class TableReference extends WeakReference <TerrainCosts> {
+
+		private final Signature signature;
+
+		private TableReference( Signature signature, TerrainCosts table ) {
+			super( table, UNUSED );
+			this.signature = signature;
+		}
+	}
+}
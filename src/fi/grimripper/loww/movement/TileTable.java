@@ -0,0 +1,140 @@
+package fi.grimripper.loww.movement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fi.grimripper.loww.tiles.Tile;
+
+/**
+ * A table of tile-specific values, indexed by tile ids instead of hashing. Each slot remembers the
+ * tile that owns it and the generation it was set in. Clearing the table only advances the
+ * generation, which makes all values from earlier generations invisible. Their slots are reused
+ * when they're set again, and the old values can be recycled by the caller.
+ * <p>
+ * Tiles in different grids can have the same id. If a tile's id is already used by another tile in
+ * the current generation, or if the tile doesn't have an id, the value is saved in a hash map
+ * instead. <code>null</code> tiles are also allowed.
+ *
+ * @author Marko Tuominen
+ * @param <V>			type of values in the table
+ * @see Tile#getId()
+ */
+class TileTable <V> {
+
+	private Tile[] owners = new Tile[0];
+	private Object[] values = new Object[0];
+	private int[] generations = new int[0];
+	private int generation = 1;				// zero is never current, it's for unused slots
+
+	private Map <Tile, V> overflow = new HashMap <>();		// tiles that can't be indexed by id
+
+	/**
+	 * Gets the value for a tile in the current generation.
+	 *
+	 * @param tile		get value for this tile
+	 * @return			the tile's value, or <code>null</code> if it hasn't been set
+	 */
+	@SuppressWarnings("unchecked")
+	V get( Tile tile ) {
+		int id = tile == null ? -1 : tile.getId();
+
+		if (id >= 0 && id < owners.length && generations[ id ] == generation &&
+				owners[ id ] == tile)
+			return (V)values[ id ];
+
+		return overflow.isEmpty() ? null : overflow.get( tile );
+	}
+
+	/**
+	 * Sets the value for a tile in the current generation.
+	 *
+	 * @param tile		set value for this tile
+	 * @param value		the tile's new value
+	 */
+	void put( Tile tile, V value ) {
+		int id = tile == null ? -1 : tile.getId();
+
+		if (id >= 0) {
+			if (id >= owners.length) {
+				int length = Math.max( id + 1, owners.length * 2 );
+				owners = Arrays.copyOf( owners, length );
+				values = Arrays.copyOf( values, length );
+				generations = Arrays.copyOf( generations, length );
+			}
+
+			// the slot is free, or already owned by the tile
+			if (generations[ id ] != generation || owners[ id ] == tile) {
+				owners[ id ] = tile;
+				values[ id ] = value;
+				generations[ id ] = generation;
+				return;
+			}
+		}
+
+		overflow.put( tile, value );
+	}
+
+	/**
+	 * Removes the value for a tile in the current generation. A value in the tile's id slot expires
+	 * like a cleared value, so it can be recycled.
+	 *
+	 * @param tile		remove value for this tile
+	 */
+	void remove( Tile tile ) {
+		int id = tile == null ? -1 : tile.getId();
+
+		if (id >= 0 && id < owners.length && generations[ id ] == generation &&
+				owners[ id ] == tile)
+			generations[ id ] = 0;
+
+		else if (!overflow.isEmpty())
+			overflow.remove( tile );
+	}
+
+	/**
+	 * Gets a value that was saved in a tile's slot before the table was last cleared. The value
+	 * may belong to another tile with the same id. It's not visible in the table, so the caller
+	 * can reset it and reuse it.
+	 *
+	 * @param tile		get an expired value from this tile's slot
+	 * @return			an expired value, or <code>null</code> if there isn't one
+	 */
+	@SuppressWarnings("unchecked")
+	V getExpired( Tile tile ) {
+		int id = tile == null ? -1 : tile.getId();
+
+		return id >= 0 && id < owners.length && generations[ id ] != generation ?
+				(V)values[ id ] : null;
+	}
+
+	/**
+	 * Gets the tiles that have a value in the current generation. Tiles with ids come first, in
+	 * order of their ids.
+	 *
+	 * @return			tiles with values
+	 */
+	List <Tile> getTiles() {
+		List <Tile> tiles = new ArrayList <>();
+		for (int i = 0; i < owners.length; i++)
+			if (generations[i] == generation)
+				tiles.add( owners[i] );
+
+		tiles.addAll( overflow.keySet() );
+		return tiles;
+	}
+
+	/**
+	 * Clears the table by advancing the generation. This doesn't touch the slots.
+	 */
+	void clear() {
+		if (++generation == 0) {		// wrapped around, old generations could become current
+			Arrays.fill( generations, 0 );
+			generation = 1;
+		}
+
+		overflow.clear();
+	}
+}
@@ -17,6 +17,11 @@ import fi.grimripper.loww.tiles.Tile;
  */
 public class FourSquareTemplate implements MovementTemplate {
 
+	// entered tiles for vertical, horizontal and diagonal moves
+	private static final int[] VERTICAL_MOVE_INDICES = { 0, 1 };
+	private static final int[] HORIZONTAL_MOVE_INDICES = { 0, 2 };
+	private static final int[] DIAGONAL_MOVE_INDICES = { 0, 1, 2 };
+
 	@Override
 	public boolean isHorizontallySymmetric() {
 		return false;
@@ -78,11 +83,11 @@ public class FourSquareTemplate implements MovementTemplate {
 	@Override
 	public int[] getMoveIndices( Direction to ) {
 		if (to.isVertical())
-			return new int[] { 0, 1 };		// main tile and horizontal neighbor
+			return VERTICAL_MOVE_INDICES;		// main tile and horizontal neighbor
 		
 		if (to.isHorizontal())
-			return new int[] { 0, 2 };		// main tile and vertical neighbor
+			return HORIZONTAL_MOVE_INDICES;		// main tile and vertical neighbor
 		
-		return new int[] { 0, 1, 2 };		// diagonal neighbor never moves to a new tile
+		return DIAGONAL_MOVE_INDICES;		// diagonal neighbor never moves to a new tile
 	}
 }
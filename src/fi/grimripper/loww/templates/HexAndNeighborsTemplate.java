@@ -16,6 +16,17 @@ import fi.grimripper.loww.tiles.Tile;
  */
 public class HexAndNeighborsTemplate implements MovementTemplate {
 
+	// neighbor directions in template order
+	private static final Direction[] HEX_SIDES = Hex.getHexSides();
+	
+	// indices of entered tiles for each step direction
+	private static final int[][] MOVE_INDICES = new int[ Direction.values().length ][];
+	
+	static {
+		for (Direction d : Direction.values())
+			MOVE_INDICES[ d.ordinal() ] = createMoveIndices( d );
+	}
+
 	@Override
 	public boolean isHorizontallySymmetric() {
 		return true;
@@ -45,10 +56,9 @@ public class HexAndNeighborsTemplate implements MovementTemplate {
 	public Tile[] getTiles( Tile mainTile, Direction facing ) {
 		Tile[] tiles = new Tile[ getSize() ];
 		tiles[0] = mainTile;
-		Direction[] neighborDirs = Hex.getHexSides();
 		
 		for (int i = 1; i < tiles.length; i++)
-			tiles[i] = mainTile.getNeighbor( neighborDirs[i - 1] );
+			tiles[i] = mainTile.getNeighbor( HEX_SIDES[i - 1] );
 		
 		return tiles;
 	}
@@ -65,6 +75,16 @@ public class HexAndNeighborsTemplate implements MovementTemplate {
 
 	@Override
 	public int[] getMoveIndices( Direction to ) {
+		return MOVE_INDICES[ to.ordinal() ];
+	}
+	
+	/**
+	 * Determines indices of entered tiles when moving to a direction.
+	 * 
+	 * @param to		step direction
+	 * @return			indices for new tiles
+	 */
+	private static int[] createMoveIndices( Direction to ) {
 		// movement indices include the one corresponding to direction, and both adjacent ones
 		return new int[] { to.hexDir() + 1, (to.hexDir() + 1) % HEX_SIZE + 1,
 			(to.hexDir() + 5) % HEX_SIZE + 1 };
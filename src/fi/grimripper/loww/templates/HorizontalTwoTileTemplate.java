@@ -18,6 +18,10 @@ import fi.grimripper.loww.tiles.Tile;
  */
 public class HorizontalTwoTileTemplate implements MovementTemplate {
 
+	// entered tiles for horizontal moves and for other moves
+	private static final int[] HORIZONTAL_MOVE_INDICES = { 0 };
+	private static final int[] MOVE_INDICES = { 0, 1 };
+
 	@Override
 	public boolean isHorizontallySymmetric() {
 		return false;
@@ -66,6 +70,6 @@ public class HorizontalTwoTileTemplate implements MovementTemplate {
 	public int[] getMoveIndices( Direction to ) {
 		// only the main tile moves to a new tile on a horizontal move, while the secondary tile
 		// becomes the former main tile
-		return to.isHorizontal() ? new int[] { 0 } : new int[] { 0, 1 };
+		return to.isHorizontal() ? HORIZONTAL_MOVE_INDICES : MOVE_INDICES;
 	}
 }
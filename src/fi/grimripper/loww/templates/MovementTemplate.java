@@ -47,10 +47,11 @@ public interface MovementTemplate extends ObstacleTemplate {
 	 * Gets indices of entered tiles when a mobile object moves. After a step, the tiles in the
 	 * given indices are ones that were not included in the template before the step. This method
 	 * assumes that the mobile object is moving to the direction it's facing, so asymmetric
-	 * templates don't have extra requirements.
+	 * templates don't have extra requirements. Since this is needed for every step, templates
+	 * should return constant arrays, which means that the returned array must not be modified.
 	 * 
 	 * @param to		step direction
-	 * @return			indices for new tiles
+	 * @return			indices for new tiles, possibly a shared array
 	 */
 	public int[] getMoveIndices( Direction to );
 }
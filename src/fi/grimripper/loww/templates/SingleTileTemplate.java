@@ -11,6 +11,9 @@ import fi.grimripper.loww.tiles.Tile;
  */
 public class SingleTileTemplate implements MovementTemplate {
 
+	// the only tile always moves to a new tile
+	private static final int[] MOVE_INDICES = { 0 };
+
 	@Override
 	public boolean isHorizontallySymmetric() {
 		return true;
@@ -53,6 +56,6 @@ public class SingleTileTemplate implements MovementTemplate {
 
 	@Override
 	public int[] getMoveIndices( Direction to ) {
-		return new int[] { 0 };
+		return MOVE_INDICES;
 	}
 }
@@ -161,8 +161,54 @@ public class Templates {
 	 * @return				possible movement directions (copy array)
 	 */
 	public static Direction[] getMoveDirections( Direction facing, MovementTemplate template ) {
+		Direction[] dirs = findMoveDirections( facing, template );
+		return dirs == null ? new Direction[0] : Arrays.copyOf( dirs, dirs.length );
+	}
+	
+	/**
+	 * Counts the possible movement directions for a template. Together with {@link
+	 * #getMoveDirection(Direction, MovementTemplate, int)}, allows going through the directions
+	 * without copying them.
+	 * 
+	 * @param facing		the template's facing
+	 * @param template		count movement directions for this template
+	 * @return				number of possible movement directions
+	 * @see					#getMoveDirections(Direction, MovementTemplate)
+	 */
+	public static int countMoveDirections( Direction facing, MovementTemplate template ) {
+		Direction[] dirs = findMoveDirections( facing, template );
+		return dirs == null ? 0 : dirs.length;
+	}
+	
+	/**
+	 * Gets one of the possible movement directions for a template.
+	 * 
+	 * @param facing		the template's facing
+	 * @param template		get a movement direction for this template
+	 * @param index			index of the direction, less than number of movement directions
+	 * @return				the movement direction at the given index
+	 * @throws ArrayIndexOutOfBoundsException	if the index is invalid
+	 * @see					#countMoveDirections(Direction, MovementTemplate)
+	 */
+	public static Direction getMoveDirection( Direction facing, MovementTemplate template,
+			int index ) {
+		Direction[] dirs = findMoveDirections( facing, template );
+		if (dirs == null)
+			throw new ArrayIndexOutOfBoundsException( index );
+		
+		return dirs[ index ];
+	}
+	
+	/**
+	 * Finds the constant array of possible movement directions for a template.
+	 * 
+	 * @param facing		the template's facing
+	 * @param template		find movement directions for this template
+	 * @return				the shared directions, or <code>null</code> if there are none
+	 */
+	private static Direction[] findMoveDirections( Direction facing, MovementTemplate template ) {
 		if (facing == null)
-			return new Direction[0];
+			return null;
 		
 		Direction[] dirs = null;
 		
@@ -186,6 +232,6 @@ public class Templates {
 		else if (!template.isVerticallySymmetric() && !facing.isHorizontal())
 			dirs = facing.isDueNorth() ? NORTH_180 : SOUTH_180;
 		
-		return dirs == null ? new Direction[0] : Arrays.copyOf( dirs, dirs.length );
+		return dirs;
 	}
 }
@@ -122,9 +122,14 @@ public class FilledRowHexGrid extends TileGrid <Hex> {
     		return new double[] { maxHexWidth, heightForWidth };
 	}
 
+    // doubled column and row changes when walking along the sides of a ring, starting southwest
+    private static final int[] RING_COLUMNS = { 2, 1, -1, -2, -1, 1 };
+    private static final int[] RING_ROWS = { 0, -1, -1, 0, 1, 1 };
+    
     private int hexRows = 0;
     private int evenRowHexes = 0;
     private int oddRowHexes = 0;
+    private int evenRowShift = 0;		// even rows are half a hex to the east of odd rows
 
     private Hex[][] hexes = null;
     
@@ -151,6 +156,7 @@ public class FilledRowHexGrid extends TileGrid <Hex> {
 		this.hexRows = hexRows;
 		this.evenRowHexes = evenRowHexes;
 		this.oddRowHexes = oddRowHexes;
+		evenRowShift = evenRowHexes < oddRowHexes ? 1 : 0;
 		
 		hexes = new Hex[ hexRows ][];
 		
@@ -179,6 +185,8 @@ public class FilledRowHexGrid extends TileGrid <Hex> {
 				hexes[i][j] = new Hex( topX, topY, getTileWidth(), getTileHeight(), i, j );
 		}
 		
+		assignTileIds( hexes );
+		
 		// assign west neighbors
 		for (int i = 0; i < hexes.length; i++)
 			for (int j = 1; j < hexes[i].length; j++)
@@ -275,11 +283,47 @@ public class FilledRowHexGrid extends TileGrid <Hex> {
     	return ArrayUtilities.copy2D( hexes );
     }
 
+	/**
+	 * Calculates distance from rows and columns. Columns are converted to doubled coordinates,
+	 * where a hex's east neighbor is two columns away and its diagonal neighbors are one column
+	 * away. The conversion depends on which rows have more hexes. Each diagonal step changes both
+	 * row and doubled column by one, and the remaining column difference takes a step for every
+	 * two columns.
+	 */
+	@Override
+	public int distance( Tile from, Tile to ) {
+		int rows = Math.abs( from.getRow() - to.getRow() );
+		int columns = Math.abs( getDoubledColumn( from.getRow(), from.getColumn() ) -
+				getDoubledColumn( to.getRow(), to.getColumn() ));
+		
+		return rows + Math.max( 0, (columns - rows) / 2 );
+	}
+
+	/**
+	 * Creates an iterator which walks along the sides of a hexagonal ring.
+	 */
+	@Override
+	protected AreaIterator <Hex> createAreaIterator() {
+		return new HexAreaIterator();
+	}
+
 	@Override
 	public LineHelper <Hex> createLineHelper( Hex from, Hex to ) {
 		return new HexLineHelper( this, from, to );
 	}
 
+	/**
+	 * Converts a column to doubled coordinates, where hexes on every row are two columns apart and
+	 * rows are offset from each other by one column.
+	 * 
+	 * @param row			the hex's row
+	 * @param col			the hex's column on the row
+	 * @return				doubled column
+	 */
+	private int getDoubledColumn( int row, int col ) {
+		return 2 * col + ((row & 1) == 0 ? evenRowShift : 1 - evenRowShift);
+	}
+	
 	/**
 	 * Line helper implementation with regular hex geometry.
 	 * 
@@ -381,4 +425,48 @@ public class FilledRowHexGrid extends TileGrid <Hex> {
 			return newCenter;
 		}
 	}
+
+	/**
+	 * Area iterator that walks along the sides of a hexagonal ring, counterclockwise from the
+	 * southwest corner. Positions are handled in doubled coordinates.
+	 * 
+	 * @author Marko Tuominen
+	 */
+	private class HexAreaIterator extends AreaIterator <Hex> {
+		
+		private int radius = 0, row = 0, doubledCol = 0;
+		private int side = 0, step = 0;
+		
+		@Override
+		protected void beginRing( Hex center, int radius ) {
+			this.radius = radius;
+			row = center.getRow() + radius;
+			doubledCol = getDoubledColumn( center.getRow(), center.getColumn() ) - radius;
+			side = step = 0;
+		}
+
+		@Override
+		protected Hex nextOnRing() {
+			Hex hex = null;
+			
+			while (hex == null && side < RING_ROWS.length) {
+				hex = getTileAtRC( row, (doubledCol - getDoubledColumn( row, 0 )) / 2 );
+				
+				if (radius == 0)
+					side = RING_ROWS.length;		// only the center
+				
+				else {
+					row += RING_ROWS[ side ];
+					doubledCol += RING_COLUMNS[ side ];
+					
+					if (++step == radius) {		// turn at a corner
+						step = 0;
+						side++;
+					}
+				}
+			}
+			
+			return hex;
+		}
+	}
 }
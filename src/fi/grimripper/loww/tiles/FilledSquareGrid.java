@@ -20,6 +20,10 @@ import fi.grimripper.loww.Point;
  */
 public class FilledSquareGrid extends TileGrid <Square> {
 
+	// row and column changes when walking along the sides of a ring: east, south, west, north
+	private static final int[] RING_ROWS = { 0, 1, 0, -1 };
+	private static final int[] RING_COLUMNS = { 1, 0, -1, 0 };
+	
 	private int squareRows = 0;
 	private int squareColumns = 0;
 
@@ -43,6 +47,8 @@ public class FilledSquareGrid extends TileGrid <Square> {
 			for (int j = 0, x = 0; j < columns; j++, x += squareDimension)
 				squares[i][j] = new Square( x, y, squareDimension, i, j );
 
+		assignTileIds( squares );
+
 		for (int i = 1; i < rows; i++)			// connect neighbors to the north
 			for (int j = 0; j < columns; j++)
 				squares[i][j].setNeighbor( squares[i - 1][j], NORTH );
@@ -123,6 +129,24 @@ public class FilledSquareGrid extends TileGrid <Square> {
 		return ArrayUtilities.copy2D( squares );
 	}
 
+	/**
+	 * Calculates distance from rows and columns. Diagonal neighbors are adjacent, so the distance
+	 * is the larger of row and column differences.
+	 */
+	@Override
+	public int distance( Tile from, Tile to ) {
+		return Math.max( Math.abs( from.getRow() - to.getRow() ),
+				Math.abs( from.getColumn() - to.getColumn() ));
+	}
+
+	/**
+	 * Creates an iterator which walks along the sides of a square ring.
+	 */
+	@Override
+	protected AreaIterator <Square> createAreaIterator() {
+		return new SquareAreaIterator();
+	}
+
 	@Override
 	public LineHelper <Square> createLineHelper( Square from, Square to ) {
 		return new SquareLineHelper( this, from, to );
@@ -208,4 +232,48 @@ public class FilledSquareGrid extends TileGrid <Square> {
 			return newCenter;
 		}
 	}
+
+	/**
+	 * Area iterator that walks along the sides of a square ring, clockwise from the northwest
+	 * corner.
+	 * 
+	 * @author Marko Tuominen
+	 */
+	private class SquareAreaIterator extends AreaIterator <Square> {
+		
+		private int radius = 0, row = 0, col = 0;
+		private int side = 0, step = 0;
+		
+		@Override
+		protected void beginRing( Square center, int radius ) {
+			this.radius = radius;
+			row = center.getRow() - radius;
+			col = center.getColumn() - radius;
+			side = step = 0;
+		}
+
+		@Override
+		protected Square nextOnRing() {
+			Square square = null;
+			
+			while (square == null && side < RING_ROWS.length) {
+				square = getTileAtRC( row, col );
+				
+				if (radius == 0)
+					side = RING_ROWS.length;		// only the center
+				
+				else {
+					row += RING_ROWS[ side ];
+					col += RING_COLUMNS[ side ];
+					
+					if (++step == 2 * radius) {		// turn at a corner
+						step = 0;
+						side++;
+					}
+				}
+			}
+			
+			return square;
+		}
+	}
 }
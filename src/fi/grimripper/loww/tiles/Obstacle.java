@@ -192,7 +192,8 @@ public abstract class Obstacle implements AdditionalProperties {
 		
 		removeFromLocation();		// remove from old location
 
-		if (templateFacing != null && facing != null)	// set new location with new facing
+		// set new location with new facing, unless there's no location to turn in
+		if (templateFacing != null && facing != null && location != null)
 			location = template.turnInPlace( location, templateFacing, newTemplateFacing );
 
 		templateFacing = newTemplateFacing;
@@ -1,6 +1,9 @@
 package fi.grimripper.loww.tiles;
 
 import static fi.grimripper.loww.Height.FLAT;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 import fi.grimripper.loww.AdditionalProperties;
 import fi.grimripper.loww.Height;
 
@@ -15,6 +18,10 @@ import fi.grimripper.loww.Height;
  */
 public class Terrain implements AdditionalProperties {
 
+	// source of terrain ids, shared by all terrain objects
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	
+	private final int id = NEXT_ID.getAndIncrement();
 	private float moveCost;
 	private Height height = FLAT;
 	
@@ -58,6 +65,16 @@ public class Terrain implements AdditionalProperties {
 		return props;
 	}
 
+	/**
+	 * Gets the terrain's id. Ids are assigned in order of creation, starting from zero, and each
+	 * terrain object has a unique id. They can be used for indexing terrain-specific data.
+	 * 
+	 * @return		this terrain's id
+	 */
+	public int getId() {
+		return id;
+	}
+	
 	/**
 	 * Gets the terrain's unmodified movement cost. Movement modifiers can alter the cost.
 	 * 
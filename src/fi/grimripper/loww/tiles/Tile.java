@@ -38,9 +38,13 @@ public abstract class Tile {
 
 	private int row = 0;
 	private int col = 0;
+	private int id = -1;							// dense id, assigned by a tile grid
+	private TileGrid <?> grid = null;				// the grid that assigned the id
+	private long version = 0;						// number of changes in contents
 	
 	private Tile[] neighbors = null;
 	private int neighborCount = -1;					// number of neighbors can vary at map edges
+	private Tile[] neighborList = null;				// neighbors without nulls, for indexing
 
 	private Tile[] remoteNeighbors = null;				// accessible but not adjacent tiles
 
@@ -85,6 +89,58 @@ public abstract class Tile {
 		return col;
 	}
 	
+	/**
+	 * Gets the tile's id. Tile grids assign their tiles dense ids, from zero to one less than the
+	 * number of tiles in the grid. Ids are meant for indexing arrays with tile-specific data.
+	 * Tiles in different grids can have the same id.
+	 * 
+	 * @return			the tile's id, or -1 if it hasn't been assigned
+	 * @see				TileGrid#assignTileIds(Tile[][])
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * Sets the tile's id. Only tile grids assign ids.
+	 * 
+	 * @param id		the tile's new id
+	 */
+	void setId( int id ) {
+		this.id = id;
+	}
+	
+	/**
+	 * Gets the tile grid that assigned the tile's id.
+	 * 
+	 * @return			the tile's grid, or <code>null</code> if an id hasn't been assigned
+	 */
+	public TileGrid <?> getGrid() {
+		return grid;
+	}
+	
+	/**
+	 * Sets the tile grid that records changes in the tile. Only tile grids set themselves.
+	 * 
+	 * @param grid		the tile's grid
+	 */
+	void setGrid( TileGrid <?> grid ) {
+		this.grid = grid;
+	}
+	
+	/**
+	 * Gets the tile's version. The version is increased every time the tile's contents change,
+	 * in a way that can affect movement or line of sight. The contents include terrain, obstacles,
+	 * blocks, movement events and remote neighbors. A result computed from the tile is still valid
+	 * if the tile's version hasn't changed.
+	 * 
+	 * @return			the tile's version, zero if the contents haven't changed
+	 * @see				TileGrid#getVersion()
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
 	/**
 	 * Gets the tile's width.
 	 * 
@@ -172,7 +228,10 @@ public abstract class Tile {
 	 * @param terrain	set this as the tile's new terrain
 	 */
 	public void setTerrain( Terrain terrain ) {
-		this.terrain = terrain;
+		if (this.terrain != terrain) {
+			this.terrain = terrain;
+			contentsChanged();
+		}
 	}
 
 	/**
@@ -208,6 +267,22 @@ public abstract class Tile {
     	return direction == null ? null : neighbors[ direction.ordinal() ];
     }
 
+	/**
+	 * Gets one of the tile's neighbors by index. Neighbors are in the order of their directions,
+	 * without the ones missing at the edge of the tile grid. Together with {@link
+	 * #countNeighbors()}, allows going through the neighbors without copying them.
+	 * 
+	 * @param index			index of the neighbor, less than number of neighbors
+	 * @return				the neighbor at the given index
+	 * @throws ArrayIndexOutOfBoundsException	if the index is invalid
+	 */
+	public Tile getNeighbor( int index ) {
+		if (neighborList == null)
+			neighborList = getNeighbors();
+		
+		return neighborList[ index ];
+	}
+
 	/**
 	 * Copies the tile's neighbors into a new array. The array doesn't include <code>null</code>s
 	 * for tiles at the edge of the tile grid.
@@ -235,6 +310,32 @@ public abstract class Tile {
 			Arrays.copyOf( remoteNeighbors, remoteNeighbors.length );
 	}
 
+	/**
+	 * Counts the tiles that are accessible from this tile even though they're not adjacent.
+	 * Together with {@link #getRemoteNeighbor(int)}, allows going through remote neighbors
+	 * without copying them.
+	 * 
+	 * @return				number of remote neighbors
+	 */
+	public int countRemoteNeighbors() {
+		return remoteNeighbors == null ? 0 : remoteNeighbors.length;
+	}
+	
+	/**
+	 * Gets one of the tiles that are accessible from this tile even though they're not adjacent.
+	 * 
+	 * @param index			index of the remote neighbor, less than number of remote neighbors
+	 * @return				the remote neighbor at the given index
+	 * @throws ArrayIndexOutOfBoundsException	if the index is invalid
+	 * @see					#countRemoteNeighbors()
+	 */
+	public Tile getRemoteNeighbor( int index ) {
+		if (remoteNeighbors == null)
+			throw new ArrayIndexOutOfBoundsException( index );
+		
+		return remoteNeighbors[ index ];
+	}
+
 	/**
 	 * Gets the tiles which are accessible from this tile with direction limitation. Limitations
 	 * are used in combination with asymmetric templates, to determine the directions they can move
@@ -277,6 +378,9 @@ public abstract class Tile {
 			return null;
 		
 		remoteNeighbors = ArrayUtilities.removeObject( remoteNeighbors, index );
+		if (grid != null)
+			grid.remoteNeighborsChanged( -1 );
+		contentsChanged();
 		return neighbor;
 	}
 	
@@ -296,9 +400,9 @@ public abstract class Tile {
 	 */
 	public Obstacle getOccupier() {
 		if (obstacles != null)
-			for (Obstacle o : obstacles)
-				if (o.occupiesTile())
-					return o;
+			for (int i = 0; i < obstacles.size(); i++)		// no iterator for a frequent check
+				if (obstacles.elementAt( i ).occupiesTile())
+					return obstacles.elementAt( i );
 		
 		return null;
 	}
@@ -313,6 +417,31 @@ public abstract class Tile {
     		obstacles.toArray( new Obstacle[ obstacles.size() ]);
     }
 
+	/**
+	 * Counts the obstacles this tile contains. Together with {@link #getObstacle(int)}, allows
+	 * going through the obstacles without copying them.
+	 * 
+	 * @return				number of obstacles in this tile
+	 */
+	public int countObstacles() {
+		return obstacles == null ? 0 : obstacles.size();
+	}
+	
+	/**
+	 * Gets one of the obstacles this tile contains.
+	 * 
+	 * @param index			index of the obstacle, less than number of obstacles
+	 * @return				the obstacle at the given index
+	 * @throws ArrayIndexOutOfBoundsException	if the index is invalid
+	 * @see					#countObstacles()
+	 */
+	public Obstacle getObstacle( int index ) {
+		if (obstacles == null)
+			throw new ArrayIndexOutOfBoundsException( index );
+		
+		return obstacles.elementAt( index );
+	}
+
     /**
      * Gets an obstacle with a given property, if any.
      * 
@@ -371,6 +500,7 @@ public abstract class Tile {
 		if (obstacles == null || !obstacles.remove( obstacle ))
 			return null;
 		
+		contentsChanged();
 		for (MotionListener ml : getMotionListeners())
 			ml.objectMovedFromTile( obstacle, this );
 		
@@ -387,6 +517,7 @@ public abstract class Tile {
 			return;
 		
 		blocks = ArrayUtilities.appendObject( blocks, block );
+		contentsChanged();
 	}
 
 	/**
@@ -398,6 +529,28 @@ public abstract class Tile {
     	return Arrays.copyOf( blocks, blocks.length );
     }
     
+    /**
+     * Counts the blocks attached to this tile. Together with {@link #getBlock(int)}, allows going
+     * through the blocks without copying them.
+     * 
+     * @return		number of attached blocks
+     */
+    public int countBlocks() {
+    	return blocks.length;
+    }
+    
+    /**
+     * Gets one of the blocks attached to this tile.
+     * 
+     * @param index		index of the block, less than number of blocks
+     * @return			the block at the given index
+     * @throws ArrayIndexOutOfBoundsException	if the index is invalid
+     * @see				#countBlocks()
+     */
+    public Block getBlock( int index ) {
+    	return blocks[ index ];
+    }
+    
     /**
      * Removes a block attached to this tile.
      * 
@@ -408,6 +561,7 @@ public abstract class Tile {
     	for (int i = 0; i < blocks.length; i++)
     		if (blocks[i].equals( block )) {
     			blocks = ArrayUtilities.removeObject( blocks, i );
+    			contentsChanged();
     			return block;
     		}
     	
@@ -424,6 +578,7 @@ public abstract class Tile {
 			return;
 		
 		movementEvents = ArrayUtilities.appendObject( movementEvents, event );
+		contentsChanged();
 	}
 
 	/**
@@ -435,6 +590,29 @@ public abstract class Tile {
     	return Arrays.copyOf( movementEvents, movementEvents.length );
     }
     
+    /**
+     * Counts the movement events attached to this tile. Together with {@link
+     * #getMovementEvent(int)}, allows going through the events without copying them. Events that
+     * may add or remove events while they're executed should be copied instead.
+     * 
+     * @return			number of attached movement events
+     */
+    public int countMovementEvents() {
+    	return movementEvents.length;
+    }
+    
+    /**
+     * Gets one of the movement events attached to this tile.
+     * 
+     * @param index		index of the event, less than number of events
+     * @return			the event at the given index
+     * @throws ArrayIndexOutOfBoundsException	if the index is invalid
+     * @see				#countMovementEvents()
+     */
+    public MovementEvent getMovementEvent( int index ) {
+    	return movementEvents[ index ];
+    }
+    
     /**
      * Removes an attached movement event.
      * 
@@ -445,6 +623,7 @@ public abstract class Tile {
     	for (int i = 0; i < movementEvents.length; i++)
     		if (movementEvents[i].equals( event )) {
     			movementEvents = ArrayUtilities.removeObject( movementEvents, i );
+    			contentsChanged();
     			return event;
     		}
     	
@@ -508,6 +687,7 @@ public abstract class Tile {
 	protected void setNeighbor( Tile neighbor, Direction d ) {
 		neighbors[ d.ordinal() ] = neighbor;
 		neighborCount = -1;
+		neighborList = null;
 	}
 
 	/**
@@ -524,6 +704,10 @@ public abstract class Tile {
 			
 			else
 				remoteNeighbors = ArrayUtilities.appendObject( remoteNeighbors, neighbor );
+			
+			if (grid != null)
+				grid.remoteNeighborsChanged( 1 );
+			contentsChanged();
 		}
 	}
 
@@ -543,7 +727,17 @@ public abstract class Tile {
 		
 		obstacles.add( obstacle );
 		
+		contentsChanged();
 		for (MotionListener ml : getMotionListeners())
 			ml.objectMovedToTile( obstacle, this );
 	}
+	
+	/**
+	 * Increases the tile's version, and records the change in the tile's grid.
+	 */
+	private void contentsChanged() {
+		version++;
+		if (grid != null)
+			grid.tileChanged( this );
+	}
 }
@@ -13,6 +13,8 @@ import static java.lang.Math.PI;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import fi.grimripper.loww.Direction;
 import fi.grimripper.loww.Height;
@@ -288,13 +290,14 @@ public abstract class TileGrid <T extends Tile> {
 	 */
 	private static boolean blocksLineOfSight( Tile tile, Obstacle losFor, Obstacle losTo,
 			Height toHt, double dist ) {
-		Obstacle[] obstacles = tile.getObstacles();
 		Height fromHt = losFor.getTotalHeight();
 		
-		for (Obstacle o : obstacles)
+		for (int i = 0; i < tile.countObstacles(); i++) {
+			Obstacle o = tile.getObstacle( i );
 			if (o != losFor && o != losTo && o.blocksLineOfSight( losFor ) && canBlockLineOfSight(
 					o.getTotalHeight(), fromHt, toHt, dist ))
 				return true;	// one visibility block is enough
+		}
 		
 		return false;
 	}
@@ -327,8 +330,21 @@ public abstract class TileGrid <T extends Tile> {
 			1 - distance) < heightRatio + 0.001;
 	}
 	
+	/**
+	 * Default number of tile changes kept in the change journal.
+	 */
+	public static final int DEFAULT_JOURNAL_SIZE = 256;
+	
 	private double tileWidth = 0;
 	private double tileHeight = 0;
+	
+	// number of changes in tiles, and the latest changed tiles by version
+	private long version = 0;
+	private Tile[] journal = new Tile[ DEFAULT_JOURNAL_SIZE ];
+	private long journalStart = 0;			// oldest version the journal has changes after
+	
+	// number of remote neighbors in tiles that got their ids from this grid
+	private int remoteNeighbors = 0;
 
 	/**
 	 * Constructs a new tile grid, with given width and height for the tiles.
@@ -341,6 +357,84 @@ public abstract class TileGrid <T extends Tile> {
 		tileHeight = height;
 	}
 
+	/**
+	 * Assigns dense ids to tiles, starting from zero, row by row. Implementations should call this
+	 * once, after creating their tiles. <code>null</code> tiles are skipped.
+	 * 
+	 * @param tiles				assign ids to these tiles, an array of rows
+	 * @return					number of ids assigned
+	 * @see						Tile#getId()
+	 */
+	protected int assignTileIds( T[][] tiles ) {
+		int id = 0;
+		
+		for (T[] row : tiles)
+			for (T tile : row)
+				if (tile != null) {
+					tile.setId( id++ );
+					tile.setGrid( this );
+					remoteNeighbors += tile.countRemoteNeighbors();
+				}
+		
+		return id;
+	}
+
+	/**
+	 * Gets the tile grid's version. The version is increased every time the contents of a tile
+	 * in the grid change. A result computed from the grid is still valid if the grid's version
+	 * hasn't changed. Only tiles that got their ids from this grid are included.
+	 * 
+	 * @return			the grid's version, zero if no tiles have changed
+	 * @see				Tile#getVersion()
+	 * @see				#getChangedTiles(long)
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Gets the tiles that have changed after a version of the grid. The tiles are taken from a
+	 * journal, which keeps a limited number of the latest changes. If some of the changes are no
+	 * longer in the journal, returns <code>null</code>, and the caller must assume that any tile
+	 * may have changed.
+	 * 
+	 * @param since		get tiles changed after this version
+	 * @return			changed tiles in order of changes, once for each change, or
+	 * 					<code>null</code> if the journal doesn't have all the changes
+	 * @see				#getVersion()
+	 */
+	public Tile[] getChangedTiles( long since ) {
+		if (since < journalStart || version - since > journal.length)
+			return null;
+		
+		Tile[] changed = new Tile[ (int)Math.max( 0, version - since )];
+		for (int i = 0; i < changed.length; i++)
+			changed[i] = journal[ (int)((since + i) % journal.length) ];
+		
+		return changed;
+	}
+	
+	/**
+	 * Gets the number of tile changes kept in the change journal.
+	 * 
+	 * @return			maximum number of changes in the journal
+	 * @see				#getChangedTiles(long)
+	 */
+	public int getJournalSize() {
+		return journal.length;
+	}
+	
+	/**
+	 * Sets the number of tile changes kept in the change journal. The journal is emptied, so
+	 * changes before the current version are no longer available.
+	 * 
+	 * @param size		maximum number of changes in the journal, at least one
+	 */
+	public void setJournalSize( int size ) {
+		journal = new Tile[ Math.max( 1, size )];
+		journalStart = version;
+	}
+	
 	/**
 	 * Gets the width of a tile. All tiles in a grid have the same width.
 	 * 
@@ -434,6 +528,103 @@ public abstract class TileGrid <T extends Tile> {
 	 */
 	public abstract LineHelper <T> createLineHelper( T from, T to );
 	
+	/**
+	 * Calculates the distance between two tiles in the grid, as the least number of steps from
+	 * tile to adjacent tile. Remote neighbors and tile contents don't affect the distance. By
+	 * default, counts the steps along a direct line of tiles. Implementations can calculate the
+	 * distance from rows and columns instead.
+	 * 
+	 * @param from		distance from this tile
+	 * @param to		distance to this tile
+	 * @return			number of steps between the tiles, zero if they're the same
+	 */
+	@SuppressWarnings( "unchecked" )
+	public int distance( Tile from, Tile to ) {
+		if (from == to)
+			return 0;
+		
+		LineHelper <T> helper = createLineHelper( (T)from, (T)to );
+		int distance = 0;
+		
+		while (!helper.targetReached()) {
+			helper.nextTiles();
+			distance++;
+		}
+		
+		return distance;
+	}
+	
+	/**
+	 * Creates an iterator for tiles at a specific distance from a center tile.
+	 * 
+	 * @param center	the ring's center tile
+	 * @param radius	distance from center to the tiles on the ring
+	 * @return			a new iterator
+	 * @see				#distance(Tile, Tile)
+	 */
+	public AreaIterator <T> createRingIterator( T center, int radius ) {
+		AreaIterator <T> iterator = createAreaIterator();
+		iterator.resetRing( center, radius );
+		return iterator;
+	}
+	
+	/**
+	 * Creates an iterator for tiles up to a specific distance from a center tile. The center is
+	 * returned first, and then tiles ring by ring, in order of increasing distance.
+	 * 
+	 * @param center	the spiral's center tile
+	 * @param radius	maximum distance from the center
+	 * @return			a new iterator
+	 * @see				#distance(Tile, Tile)
+	 */
+	public AreaIterator <T> createSpiralIterator( T center, int radius ) {
+		AreaIterator <T> iterator = createAreaIterator();
+		iterator.resetSpiral( center, radius );
+		return iterator;
+	}
+	
+	/**
+	 * Creates an area iterator for this grid, without a center or radius. By default, the
+	 * iterator finds the tiles on a ring by checking distance to each tile in the grid.
+	 * Implementations can walk along the ring instead.
+	 * 
+	 * @return			a new area iterator
+	 */
+	protected AreaIterator <T> createAreaIterator() {
+		return new ScanningAreaIterator();
+	}
+	
+	/**
+	 * Counts the remote neighbors of all tiles in the grid. A remote neighbor can be any distance
+	 * away, but the host can move there in a single step. Only tiles that got their ids from this
+	 * grid are included.
+	 * 
+	 * @return			number of remote neighbors in the grid
+	 * @see				Tile#countRemoteNeighbors()
+	 */
+	public int countRemoteNeighbors() {
+		return remoteNeighbors;
+	}
+	
+	/**
+	 * Records that a tile's remote neighbors were added or removed.
+	 * 
+	 * @param change	number of added remote neighbors, negative if they were removed
+	 */
+	void remoteNeighborsChanged( int change ) {
+		remoteNeighbors += change;
+	}
+	
+	/**
+	 * Records a change in a tile's contents, and increases the grid's version.
+	 * 
+	 * @param tile		the changed tile
+	 */
+	void tileChanged( Tile tile ) {
+		journal[ (int)(version % journal.length) ] = tile;
+		version++;
+	}
+	
 	/**
 	 * Contains parameters and methods for selecting tiles along a direct line. Calculates the
 	 * parameters of a direct line from starting tile to destination tile. Based on the line's
@@ -776,4 +967,148 @@ public abstract class TileGrid <T extends Tile> {
 			return grid.getTileHeight();
 		}
 	}
+
+	/**
+	 * Iterates over tiles around a center tile. A ring contains the tiles at a specific distance
+	 * from the center, and a spiral contains the rings from the center outward, up to a maximum
+	 * distance. Positions outside the grid are skipped. An iterator can be reset to a new center
+	 * and distance, so it can be reused without creating new objects.
+	 * 
+	 * @author Marko Tuominen
+	 * @param <T>			type of tile in the grid
+	 */
+	public abstract static class AreaIterator <T extends Tile> implements Iterator <T> {
+		
+		private T center = null;
+		private T next = null;
+		
+		private int radius = 0, maxRadius = -1;
+		private int distance = -1;				// distance to the tile last returned
+		
+		/**
+		 * Sets the iterator to go through tiles at a specific distance from a center tile.
+		 * 
+		 * @param center		the ring's center tile
+		 * @param radius		distance from center to the tiles on the ring
+		 */
+		public void resetRing( T center, int radius ) {
+			reset( center, radius, radius );
+		}
+		
+		/**
+		 * Sets the iterator to go through tiles up to a specific distance from a center tile, in
+		 * order of increasing distance.
+		 * 
+		 * @param center		the spiral's center tile
+		 * @param radius		maximum distance from the center
+		 */
+		public void resetSpiral( T center, int radius ) {
+			reset( center, 0, radius );
+		}
+		
+		/**
+		 * Gets the distance from the center to the tile that was last returned.
+		 * 
+		 * @return				distance to the current tile, or -1 before the first tile
+		 */
+		public int getDistance() {
+			return distance;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		@Override
+		public T next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			
+			T current = next;
+			distance = radius;
+			
+			// prepare next tile, moving to next ring when necessary
+			next = nextOnRing();
+			while (next == null && radius < maxRadius) {
+				beginRing( center, ++radius );
+				next = nextOnRing();
+			}
+			
+			return current;
+		}
+		
+		/**
+		 * Tiles can't be removed.
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+		
+		/**
+		 * Starts walking along a ring of tiles.
+		 * 
+		 * @param center		the ring's center tile
+		 * @param radius		distance from center to the tiles on the ring
+		 */
+		protected abstract void beginRing( T center, int radius );
+		
+		/**
+		 * Gets the next tile on the current ring. Skips positions that are outside the grid.
+		 * 
+		 * @return				next tile on the ring, or <code>null</code> if there are no more
+		 */
+		protected abstract T nextOnRing();
+		
+		// starts iteration from the first ring that has tiles
+		private void reset( T center, int minRadius, int maxRadius ) {
+			this.center = center;
+			this.maxRadius = maxRadius;
+			radius = minRadius;
+			distance = -1;
+			next = null;
+			
+			if (minRadius < 0 || minRadius > maxRadius)
+				return;			// no tiles
+			
+			beginRing( center, radius );
+			next = nextOnRing();
+			while (next == null && radius < maxRadius) {
+				beginRing( center, ++radius );
+				next = nextOnRing();
+			}
+		}
+	}
+	
+	/**
+	 * Area iterator that checks the distance to each tile in the grid.
+	 * 
+	 * @author Marko Tuominen
+	 */
+	private class ScanningAreaIterator extends AreaIterator <T> {
+		
+		private T[][] tiles = getTiles();
+		private T center = null;
+		private int radius = 0, row = 0, col = 0;
+
+		@Override
+		protected void beginRing( T center, int radius ) {
+			this.center = center;
+			this.radius = radius;
+			row = col = 0;
+		}
+
+		@Override
+		protected T nextOnRing() {
+			for (; row < tiles.length; row++, col = 0)
+				while (col < tiles[ row ].length) {
+					T tile = tiles[ row ][ col++ ];
+					if (tile != null && distance( center, tile ) == radius)
+						return tile;
+				}
+			
+			return null;
+		}
+	}
 }
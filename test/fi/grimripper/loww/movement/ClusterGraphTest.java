@@ -0,0 +1,169 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static fi.grimripper.loww.Height.VERY_HIGH;
+import static fi.grimripper.loww.test.RandomTerrain.setTerrain;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.templates.HorizontalTwoTileTemplate;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementEvent;
+import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class ClusterGraphTest {
+
+	@Test
+	public void testSquarePaths() {
+		testPaths( new FilledSquareGrid( 1, 30, 30 ));
+	}
+
+	@Test
+	public void testHexPaths() {
+		testPaths( FilledRowHexGrid.createWithHexSize( 1, 1, 30, 30, 30 ));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testLargeTemplate() {
+		new ClusterGraph( new DefaultMovement( new TestMobileObject(
+				LOW, new HorizontalTwoTileTemplate() ), 10 ), new FilledSquareGrid( 1, 8, 8 ));
+	}
+
+	@Test
+	public void testSingleCluster() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 8, 8 );
+		Random random = new Random( 7 );
+		setTerrain( grid, random );
+		DefaultMovement move = createMovement();
+		ClusterGraph graph = new ClusterGraph( move, grid, 8 );
+
+		// a single cluster has no transitions, and paths are the best ones
+		Tile[][] tiles = grid.getTiles();
+		FlowField field = FlowField.generate( move, grid, tiles[7][7], 1000 );
+		Tile[] path = graph.findPath( tiles[0][0], tiles[7][7] );
+		assertEquals( 1, graph.getClusterCount() );
+		assertEquals( 0, graph.getNodeCount() );
+		assertEquals( field.getCost( tiles[0][0] ), graph.getCost(), 0.001 );
+		assertEquals( field.getRisk( tiles[0][0] ), graph.getRisk(), 0.001 );
+		assertSame( tiles[7][7], path[ path.length - 1 ]);
+
+		assertEquals( 0, graph.findPath( tiles[3][3], tiles[3][3] ).length );
+		assertEquals( 0, graph.getCost(), 0.001 );
+	}
+
+	@Test
+	public void testAfterRadius() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 6, 6 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		// events in the host's location prevent leaving, except during its movement radius
+		Tile start = grid.getTileAtRC( 2, 2 ), destination = grid.getTileAtRC( 2, 4 );
+		start.addMovementEvent( new TestMovementEvent( 0, VERY_HIGH, false, true ));
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, start );
+		DefaultMovement move = new DefaultMovement( mob, 5 );
+		move.movementRadius( 5 );
+		assertEquals( 2, move.getMovementPath( destination, EAST ).length );
+
+		// the graph doesn't depend on the radius, and the radius isn't changed
+		ClusterGraph graph = new ClusterGraph( move, grid, 3 );
+		assertEquals( 0, graph.findPath( start, destination ).length );
+		assertTrue( graph.findPath( grid.getTileAtRC( 0, 0 ), destination ).length > 0 );
+		assertEquals( 2, move.getMovementPath( destination, EAST ).length );
+	}
+
+	@Test
+	public void testUpdate() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 20, 20 );
+		Random random = new Random( 13 );
+		setTerrain( grid, random );
+		Tile[][] tiles = grid.getTiles();
+		DefaultMovement move = createMovement();
+		ClusterGraph graph = new ClusterGraph( move, grid, 5 );
+		graph.update();
+		assertEquals( 16, graph.getClusterCount() );
+
+		// impassable tiles change transitions, and the graph matches a new one after updates
+		Terrain wall = new Terrain( MovementMode.IMPASSABLE_MOVE_COST, FLAT );
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 8; j++) {
+				Tile[] row = tiles[ random.nextInt( tiles.length ) ];
+				row[ random.nextInt( row.length ) ].setTerrain( random.nextBoolean() ? wall :
+					new Terrain( 1 + random.nextInt( 3 ), FLAT ));
+			}
+
+			graph.update();
+			ClusterGraph compared = new ClusterGraph( move, grid, 5 );
+			compared.update();
+			assertEquals( compared.getNodeCount(), graph.getNodeCount() );
+
+			Tile start = tiles[ random.nextInt( 20 ) ][ random.nextInt( 20 ) ];
+			Tile destination = tiles[ random.nextInt( 20 ) ][ random.nextInt( 20 ) ];
+			assertEquals( compared.findPath( start, destination ).length,
+					graph.findPath( start, destination ).length );
+			assertEquals( compared.getCost(), graph.getCost(), 0.001 );
+			assertEquals( compared.getRisk(), graph.getRisk(), 0.001 );
+		}
+	}
+
+	// compares paths between random tiles to the best paths from flow fields
+	private static void testPaths( TileGrid <?> grid ) {
+		Random random = new Random( 3 );
+		setTerrain( grid, random );
+		Tile[][] tiles = grid.getTiles();
+		DefaultMovement move = createMovement();
+		ClusterGraph graph = new ClusterGraph( move, grid, 6 );
+
+		float totalCost = 0, bestCost = 0;
+		for (int i = 0; i < 20; i++) {
+			Tile[] row = tiles[ random.nextInt( tiles.length ) ];
+			Tile start = row[ random.nextInt( row.length ) ];
+			row = tiles[ random.nextInt( tiles.length ) ];
+			Tile destination = row[ random.nextInt( row.length ) ];
+			FlowField field = FlowField.generate( move, grid, destination, 1000 );
+			Tile[] path = graph.findPath( start, destination );
+
+			// without walls, all destinations are reached, with no less risk or cost than best
+			assertTrue( path.length > 0 || start == destination );
+			assertTrue( graph.getRisk() >= field.getRisk( start ) - 0.001 );
+			assertTrue( graph.getRisk() > field.getRisk( start ) + 0.001 ||
+					graph.getCost() >= field.getCost( start ) - 0.001 );
+
+			// each step is to a neighbor, and the path adds up to its cost
+			float cost = 0;
+			Tile previous = start;
+			for (Tile step : path) {
+				assertTrue( step.isAdjacent( previous ));
+				cost += move.testSingleStep( previous, step )[0];
+				previous = step;
+			}
+
+			assertSame( destination, previous );
+			assertEquals( graph.getCost(), cost, 0.001 );
+			totalCost += graph.getCost();
+			bestCost += field.getCost( start );
+		}
+
+		assertTrue( graph.getNodeCount() > 0 );
+		assertTrue( totalCost <= bestCost * 1.2f );
+	}
+
+	private static DefaultMovement createMovement() {
+		return new DefaultMovement( new TestMobileObject( LOW, new SingleTileTemplate() ), 10 );
+	}
+}
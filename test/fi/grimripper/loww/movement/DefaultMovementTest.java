@@ -23,9 +23,12 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.BeforeClass;
@@ -540,6 +543,284 @@ public class DefaultMovementTest {
 		testMovementPath( FilledRowHexGrid.createWithHexSize( 1, 1, 7, 7, 7 ));
 	}
 	
+	@Test
+	public void testLabelSetting() {
+		testLabelSetting( new FilledSquareGrid( 1, 9, 9 ), new SingleTileTemplate() );
+		testLabelSetting( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ),
+				new SingleTileTemplate() );
+		
+		testLabelSetting( new FilledSquareGrid( 1, 9, 9 ), new HorizontalTwoTileTemplate() );
+		testLabelSetting( new FilledSquareGrid( 1, 9, 9 ), new FourSquareTemplate() );
+		testLabelSetting( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ),
+				new HexAndNeighborsTemplate() );
+	}
+	
+	@Test
+	public void testFindPath() {
+		testFindPath( new FilledSquareGrid( 1, 9, 9 ), new SingleTileTemplate() );
+		testFindPath( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ),
+				new SingleTileTemplate() );
+		
+		testFindPath( new FilledSquareGrid( 1, 9, 9 ), new HorizontalTwoTileTemplate() );
+		testFindPath( new FilledSquareGrid( 1, 9, 9 ), new SquareAndNeighborsTemplate() );
+		testFindPath( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ),
+				new HexAndNeighborsTemplate() );
+	}
+	
+	@Test
+	public void testFindPathRemoteNeighbors() {
+		FilledSquareGrid grid = new FilledSquareGrid( 1, 1, 9 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile t : grid.getTiles()[0])
+			t.setTerrain( terrain );
+		
+		// a remote neighbor behind the host is a shortcut to the destination
+		Square remote = grid.getTileAtRC( 0, 2 ), destination = grid.getTileAtRC( 0, 8 );
+		remote.addRemoteNeighbor( destination );
+		assertSame( grid, remote.getGrid() );
+		assertEquals( 1, grid.countRemoteNeighbors() );
+		
+		TestMobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 0, 4 ));
+		DefaultMovement move = new DefaultMovement( mob, 0 );
+		move.setMinimumMoveCost( 1f );
+		
+		// the estimate doesn't exceed a single step, so the shortcut is found
+		Tile[] expected = { grid.getTileAtRC( 0, 3 ), remote, destination };
+		assertArrayEquals( expected, move.findPath( destination, EAST, 8 ));
+		assertEquals( 3f, move.selectBestPath(
+				move.getPathData( destination ), EAST ).getTotalCost(), 0.001 );
+		
+		// without remote neighbors, the direct path is found
+		remote.removeRemoteNeighbor( destination );
+		assertEquals( 0, grid.countRemoteNeighbors() );
+		assertEquals( 4, move.findPath( destination, EAST, 8 ).length );
+	}
+	
+	@Test
+	public void testBudgetedRadius() {
+		testBudgetedRadius( new FilledSquareGrid( 1, 15, 15 ), new SingleTileTemplate() );
+		testBudgetedRadius( new FilledSquareGrid( 1, 15, 15 ), new HorizontalTwoTileTemplate() );
+		testBudgetedRadius( FilledRowHexGrid.createWithHexSize( 1, 1, 15, 15, 15 ),
+				new HexAndNeighborsTemplate() );
+	}
+	
+	@Test
+	public void testSettleListener() {
+		testSettleListener( new FilledSquareGrid( 1, 9, 9 ), new SingleTileTemplate() );
+		testSettleListener( new FilledSquareGrid( 1, 9, 9 ), new HorizontalTwoTileTemplate() );
+		testSettleListener( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ),
+				new HexAndNeighborsTemplate() );
+	}
+	
+	@Test
+	public void testReachableTiles() {
+		testReachableTiles( new FilledSquareGrid( 1, 12, 12 ), new SingleTileTemplate() );
+		testReachableTiles( new FilledSquareGrid( 1, 12, 12 ), new SquareAndNeighborsTemplate() );
+		testReachableTiles( FilledRowHexGrid.createWithHexSize( 1, 1, 12, 12, 12 ),
+				new HexAndNeighborsTemplate() );
+		testReachableTiles( new FilledSquareGrid( 1, 12, 12 ), new HorizontalTwoTileTemplate() );
+	}
+	
+	@Test
+	public void testSelectDestinations() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 9, 9 );
+		setVariedTerrain( grid );
+		
+		TestMobileObject mob = new TestMobileObject( LOW, new HorizontalTwoTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		DefaultMovement move = new DefaultMovement( mob, 0 );
+		move.movementRadius( 6 );
+		MovementRadius radius = move.getMovementRadius();
+		
+		// prefer risky but cheap destinations far to the south, skip the northern half
+		DestinationScorer scorer = new DestinationScorer() {
+			@Override
+			public float scoreDestination( Tile tile, Direction facing, float totalCost,
+					float risk ) {
+				return tile.getRow() < 4 ? Float.NaN : tile.getRow() + risk - totalCost;
+			}
+		};
+		
+		// scores for all destinations, to compare with
+		List <Float> scores = new ArrayList <>();
+		for (Tile t : radius.getTiles())
+			for (Direction d : Direction.values())
+				if (radius.isReachable( t, d ) && t.getRow() >= 4)
+					scores.add( t.getRow() + radius.getRisk( t, d ) - radius.getCost( t, d ));
+		Collections.sort( scores, Collections.reverseOrder() );
+		
+		for (int count : new int[] { 5, 1, scores.size() + 3 }) {
+			Destination[] selected = move.selectDestinations( scorer, count );
+			assertEquals( Math.min( count, scores.size() ), selected.length );
+			
+			for (int i = 0; i < selected.length; i++) {
+				Destination dest = selected[i];
+				assertEquals( scores.get( i ), dest.getScore(), 0.001 );
+				assertEquals( radius.getCost( dest.getTile(), dest.getFacing() ), dest.getCost(),
+						0.001 );
+				assertEquals( radius.getRisk( dest.getTile(), dest.getFacing() ), dest.getRisk(),
+						0.001 );
+				assertArrayEquals( move.getMovementPath( dest.getTile(), dest.getFacing() ),
+						dest.getPath() );
+			}
+		}
+		
+		assertEquals( 0, move.selectDestinations( scorer, 0 ).length );
+		assertEquals( 0, move.selectDestinations( scorer, -1 ).length );
+		
+		// equal scores select the first ones scored
+		final List <Object[]> scored = new ArrayList <>();
+		Destination[] equal = move.selectDestinations( new DestinationScorer() {
+			@Override
+			public float scoreDestination( Tile tile, Direction facing, float totalCost,
+					float risk ) {
+				scored.add( new Object[] { tile, facing });
+				return 1;
+			}
+		}, 3 );
+		
+		assertEquals( 3, equal.length );
+		for (int i = 0; i < equal.length; i++) {
+			assertSame( scored.get( i )[0], equal[i].getTile() );
+			assertSame( scored.get( i )[1], equal[i].getFacing() );
+		}
+	}
+	
+	@Test
+	public void testOverriddenPathComparison() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 9, 9 );
+		setVariedTerrain( grid );
+		
+		final int[] calls = new int[2];
+		TestMobileObject mob = new TestMobileObject( LOW, new HorizontalTwoTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		DefaultMovement expected = new DefaultMovement( mob, 0 );
+		DefaultMovement move = new DefaultMovement( mob, 0 ) {
+			@Override
+			protected boolean usesPathFrontier() {
+				return false;
+			}
+			
+			@Override
+			protected boolean shouldKeepPath( PathData newPath, PathData oldPath ) {
+				calls[0]++;
+				return super.shouldKeepPath( newPath, oldPath );
+			}
+			
+			@Override
+			protected void removePathData( PathData data ) {
+				calls[1]++;
+				super.removePathData( data );
+			}
+		};
+		
+		// subclass hooks are called for each comparison and removal, with the same results
+		expected.movementRadius( 6 );
+		move.movementRadius( 6 );
+		assertTrue( calls[0] > 0 );
+		assertTrue( calls[1] > 0 );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				for (Direction d : Direction.values()) {
+					assertEquals( expected.canBeOccupied( t, d ), move.canBeOccupied( t, d ));
+					if (expected.canBeOccupied( t, d ))
+						assertArrayEquals( expected.getMovementPath( t, d ),
+								move.getMovementPath( t, d ));
+				}
+	}
+	
+	@Test
+	public void testOverriddenSuccessors() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 9, 9 );
+		setVariedTerrain( grid );
+		
+		final int[] calls = new int[1];
+		TestMobileObject mob = new TestMobileObject( LOW, new HorizontalTwoTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		DefaultMovement expected = new DefaultMovement( mob, 0 );
+		DefaultMovement move = new DefaultMovement( mob, 0 ) {
+			@Override
+			protected boolean usesDefaultSuccessors() {
+				return false;
+			}
+			
+			@Override
+			protected Tile[] determineSuccessors( PathData pathData ) {
+				calls[0]++;
+				return super.determineSuccessors( pathData );
+			}
+		};
+		
+		// subclass successors are used for progress tiles, with the same results
+		expected.movementRadius( 6 );
+		move.movementRadius( 6 );
+		assertTrue( calls[0] > 0 );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				for (Direction d : Direction.values()) {
+					assertEquals( expected.canBeOccupied( t, d ), move.canBeOccupied( t, d ));
+					if (expected.canBeOccupied( t, d ))
+						assertArrayEquals( expected.getMovementPath( t, d ),
+								move.getMovementPath( t, d ));
+				}
+	}
+	
+	@Test
+	public void testPathDataPool() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 9, 9 );
+		setVariedTerrain( grid );
+		
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		DefaultMovement move = new DefaultMovement( mob, 100 );
+		Tile starting = grid.getTileAtRC( 4, 4 );
+		mob.setPosition( EAST, starting );
+		
+		// only the latest path data can be released
+		PathData first = move.createPathData( null, null, 0, null, null, null, EAST, 0 );
+		PathData second = move.createPathData( null, null, 1, null, null, null, WEST, 1 );
+		move.releasePathData( first );
+		PathData third = move.createPathData( null, null, 2, null, null, null, EAST, 2 );
+		assertNotSame( first, third );
+		assertNotSame( second, third );
+		
+		move.releasePathData( third );
+		PathData fourth = move.createPathData( starting, first, 3, LOW, FLAT, NORTH, WEST, 3 );
+		assertSame( third, fourth );
+		assertSame( starting, fourth.getTile() );
+		assertSame( first, fourth.getPath() );
+		assertEquals( 3, fourth.getTotalCost(), 0.001 );
+		assertSame( LOW, fourth.getMinHeight() );
+		assertSame( FLAT, fourth.getMoveHeight() );
+		assertSame( NORTH, fourth.getFacing() );
+		assertSame( WEST, fourth.getTemplateFacing() );
+		assertEquals( 3, fourth.getRisk(), 0.001 );
+		
+		// path data is reused after clearing, and results are the same
+		move.movementRadius( 8 );
+		PathData startData = move.getPathData( starting )[0];
+		Tile[][] tiles = grid.getTiles();
+		Tile[][][] paths = new Tile[ tiles.length ][ tiles[0].length ][];
+		for (int i = 0; i < tiles.length; i++)
+			for (int j = 0; j < tiles[i].length; j++)
+				paths[i][j] = move.getMovementPath( tiles[i][j], EAST );
+		
+		move.movementRadius( 8 );
+		assertSame( startData, move.getPathData( starting )[0] );
+		for (int i = 0; i < tiles.length; i++)
+			for (int j = 0; j < tiles[i].length; j++)
+				assertArrayEquals( paths[i][j], move.getMovementPath( tiles[i][j], EAST ));
+		
+		// a smaller radius after a larger one is the same as with a new movement mode
+		move.movementRadius( 4 );
+		DefaultMovement fresh = new DefaultMovement( mob, 100 );
+		fresh.movementRadius( 4 );
+		for (int i = 0; i < tiles.length; i++)
+			for (int j = 0; j < tiles[i].length; j++)
+				assertArrayEquals( fresh.getMovementPath( tiles[i][j], EAST ),
+						move.getMovementPath( tiles[i][j], EAST ));
+	}
+	
 	@Test (expected = Exception.class)
 	public void testIllegalInterruption() {
 		TileGrid <?> grid = new FilledSquareGrid( 1, 2, 2 );
@@ -564,16 +845,7 @@ public class DefaultMovementTest {
 		
 		// there's always a tile to occupy after interrupt when everything works correctly
 		// create a situation where there's no tile to occupy
-		try {
-			Field occupyHeightsField = MovementMode.class.getDeclaredField( "occupyHeights" );
-			occupyHeightsField.setAccessible( true );
-			
-			Map <?, ?> occupyHeights = (Map <?, ?>)occupyHeightsField.get( move );
-			occupyHeights.remove( starting );
-		
-		} catch (NoSuchFieldException | IllegalAccessException x) {
-			x.printStackTrace();
-		}
+		move.setOccupyHeight( starting, EAST, null );
 		
 		// will now fail
 		move.executeMovementPath( destination, EAST );
@@ -729,7 +1001,7 @@ public class DefaultMovementTest {
 				t.setTerrain( testTerrain );
 		
 		// for a symmetric template, expect all neighbors to be accessible
-		LinkedList <PathData> progressTiles = getPathDataList( move, "progressTiles" );
+		ArrayDeque <PathData> progressTiles = getPathDataList( move, "progressTiles" );
 		Tile[] expectedSuccessors = center.getAccessibleNeighbors( null );
 		ArrayList <Tile> expectedList = new ArrayList <Tile>();
 		for (Tile t : expectedSuccessors)
@@ -800,7 +1072,7 @@ public class DefaultMovementTest {
 		assertEquals( expectedSuccessors.length, actualSuccessors.length );
 		assertEquals( 3, progressTiles.size() );
 		
-		LinkedList <PathData> riskPaths = getPathDataList( move, "riskPaths" );
+		ArrayDeque <PathData> riskPaths = getPathDataList( move, "riskPaths" );
 		PathData higherRisk = new PathData( center, null, 0, null, null, EAST, EAST, 1 );
 		move.removePathData( progressTiles.getLast() );		// would prevent new path with risk
 		
@@ -880,8 +1152,8 @@ public class DefaultMovementTest {
 		
 		TestMovementTemplate template = new TestMovementTemplate( true, true );
 		DefaultMovement move = new DefaultMovement( new TestMobileObject( LOW, template ), 0 );
-		LinkedList <PathData> progressTiles = getPathDataList( move, "progressTiles" );
-		LinkedList <PathData> riskPaths = getPathDataList( move, "riskPaths" );
+		ArrayDeque <PathData> progressTiles = getPathDataList( move, "progressTiles" );
+		ArrayDeque <PathData> riskPaths = getPathDataList( move, "riskPaths" );
 		
 		// nothing is added since total move hasn't been set
 		Tile center = grid.getTileAtRC( 3, 3 );
@@ -3932,13 +4204,355 @@ public class DefaultMovementTest {
 		assertEquals( 2, moveTracker.getLeavingCounter() );
 	}
 	
+	private <T extends Tile> void testLabelSetting( TileGrid <T> grid, MovementTemplate template ) {
+		setVariedTerrain( grid );
+		
+		final ArrayList <PathData> expanded = new ArrayList <>();
+		TestMobileObject mob = new TestMobileObject( LOW, template );
+		DefaultMovement breadthFirst = new DefaultMovement( mob, 0 );
+		DefaultMovement labelSetting = new DefaultMovement( mob, 0 ) {
+			@Override
+			protected void addProgressTiles( PathData fromData ) {
+				expanded.add( fromData );
+				super.addProgressTiles( fromData );
+			}
+		};
+		
+		// default search order is breadth-first
+		assertFalse( labelSetting.isLabelSetting() );
+		labelSetting.setLabelSetting( true );
+		assertTrue( labelSetting.isLabelSetting() );
+		
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		breadthFirst.movementRadius( 8 );
+		labelSetting.movementRadius( 8 );
+		
+		// both find the same destinations with the same risk and cost
+		for (T[] row : grid.getTiles())
+			for (T t : row)
+				for (Direction d : Direction.values()) {
+					assertEquals( breadthFirst.canBeOccupied( t, d ),
+							labelSetting.canBeOccupied( t, d ));
+					
+					if (!breadthFirst.canBeOccupied( t, d ))
+						continue;
+					
+					PathData expected = breadthFirst.selectBestPath(
+							breadthFirst.getPathData( t ), d );
+					PathData actual = labelSetting.selectBestPath(
+							labelSetting.getPathData( t ), d );
+					assertEquals( expected.getRisk(), actual.getRisk(), 0.001 );
+					assertEquals( expected.getTotalCost(), actual.getTotalCost(), 0.001 );
+					assertEquals( breadthFirst.getMovementPath( t, d ).length > 0,
+							labelSetting.getMovementPath( t, d ).length > 0 );
+				}
+		
+		// explored paths are never replaced by better ones
+		assertFalse( expanded.isEmpty() );
+		for (PathData pd : expanded)
+			assertTrue( labelSetting.hasPathData( pd ));
+		
+		// changing search order clears the radius
+		labelSetting.setLabelSetting( false );
+		assertFalse( labelSetting.canBeOccupied( grid.getTileAtRC( 4, 4 ), EAST ));
+	}
+	
+	private <T extends Tile> void testFindPath( TileGrid <T> grid, MovementTemplate template ) {
+		setVariedTerrain( grid );
+		
+		TestMobileObject mob = new TestMobileObject( LOW, template );
+		DefaultMovement radius = new DefaultMovement( mob, 0 );
+		DefaultMovement pointToPoint = new DefaultMovement( mob, 0 );
+		
+		// no estimate by default, negative minimum isn't allowed
+		assertEquals( 0, pointToPoint.getMinimumMoveCost(), 0.001 );
+		pointToPoint.setMinimumMoveCost( -1f );
+		assertEquals( 0, pointToPoint.getMinimumMoveCost(), 0.001 );
+		pointToPoint.setMinimumMoveCost( 1f );
+		assertEquals( 1f, pointToPoint.getMinimumMoveCost(), 0.001 );
+		
+		T starting = grid.getTileAtRC( 4, 4 );
+		mob.setPosition( EAST, starting );
+		radius.movementRadius( 8 );
+		
+		// already at destination
+		assertArrayEquals( new Tile[0], pointToPoint.findPath( starting, EAST, 8 ));
+		
+		// paths found one at a time have the same risk and cost as those in movement radius
+		for (T[] row : grid.getTiles())
+			for (T t : row)
+				for (Direction d : Templates.getTemplateDirections( template )) {
+					Tile[] path = pointToPoint.findPath( t, d, 8 );
+					assertEquals( radius.getMovementPath( t, d ).length > 0, path.length > 0 );
+					assertEquals( radius.canBeOccupied( t, d ),
+							pointToPoint.canBeOccupied( t, d ));
+					
+					if (path.length == 0)
+						continue;
+					
+					assertSame( t, path[ path.length - 1 ]);
+					PathData expected = radius.selectBestPath( radius.getPathData( t ), d );
+					PathData actual = pointToPoint.selectBestPath(
+							pointToPoint.getPathData( t ), d );
+					assertEquals( expected.getRisk(), actual.getRisk(), 0.001 );
+					assertEquals( expected.getTotalCost(), actual.getTotalCost(), 0.001 );
+				}
+		
+		// can't reach a tile that's too far away
+		T farthest = grid.getTileAtRC( 0, 0 );
+		assertArrayEquals( new Tile[0], pointToPoint.findPath( farthest, EAST, 2 ));
+		
+		// the host can move along a path after finding it
+		Tile destination = grid.getTileAtRC( 6, 6 );
+		Tile[] path = pointToPoint.findPath( destination, NORTHEAST, 8 );
+		assertTrue( path.length > 0 );
+		assertArrayEquals( path, pointToPoint.executeMovementPath( destination, NORTHEAST ));
+		assertSame( destination, mob.getLocation() );
+		mob.setPosition( EAST, starting );
+	}
+	
+	private <T extends Tile> void testBudgetedRadius( TileGrid <T> grid,
+			MovementTemplate template ) {
+		setVariedTerrain( grid );
+		
+		TestMobileObject mob = new TestMobileObject( LOW, template );
+		T starting = grid.getTileAtRC( 7, 7 );
+		mob.setPosition( EAST, starting );
+		DefaultMovement full = new DefaultMovement( mob, 0 );
+		full.movementRadius( 12 );
+		MovementRadius expected = full.getMovementRadius();
+		
+		// a deadline that has already passed stops the search after a few paths
+		DefaultMovement budgeted = new DefaultMovement( mob, 0 );
+		assertTrue( budgeted.isRadiusComplete() );
+		assertFalse( budgeted.movementRadius( 12, System.nanoTime() - 1 ));
+		assertFalse( budgeted.isRadiusComplete() );
+		MovementRadius partial = budgeted.getMovementRadius();
+		assertFalse( partial.isComplete() );
+		assertTrue( partial.size() < expected.size() );
+		
+		// partial results are final, and grow each time the search is resumed
+		int resumes = 0;
+		while (!budgeted.isRadiusComplete()) {
+			assertBudgetedRadius( expected, partial, false );
+			assertTrue( budgeted.resumeRadius( System.nanoTime() - 1 ) ==
+					budgeted.isRadiusComplete() );
+			
+			MovementRadius next = budgeted.getMovementRadius();
+			assertTrue( next.size() >= partial.size() );
+			partial = next;
+			resumes++;
+		}
+		
+		assertTrue( resumes > 1 );
+		assertTrue( partial.isComplete() );
+		assertBudgetedRadius( expected, partial, true );
+		assertTrue( budgeted.resumeRadius( System.nanoTime() ));		// nothing to resume
+		
+		// a cancelled search stops, and can be resumed
+		final int[] explored = { 0 };
+		final DefaultMovement cancelling = new DefaultMovement( mob, 0 ) {
+			@Override
+			protected void addProgressTiles( PathData fromData ) {
+				if (++explored[0] == 10)
+					cancelRadius();
+				super.addProgressTiles( fromData );
+			}
+		};
+		
+		long later = System.nanoTime() + 60_000_000_000L;
+		assertFalse( cancelling.movementRadius( 12, later ));
+		assertEquals( 10, explored[0] );
+		assertTrue( cancelling.resumeRadius( later ));
+		assertBudgetedRadius( expected, cancelling.getMovementRadius(), true );
+		
+		// cancelling before resuming isn't lost, but it only stops the search once
+		explored[0] = 0;
+		assertFalse( cancelling.movementRadius( 12, later ));
+		cancelling.cancelRadius();
+		int exploredBefore = explored[0];
+		assertFalse( cancelling.resumeRadius( later ));
+		assertEquals( exploredBefore, explored[0] );
+		assertTrue( cancelling.resumeRadius( later ));
+		
+		// a new search isn't stopped by cancelling an earlier one
+		cancelling.cancelRadius();
+		explored[0] = 10;
+		assertTrue( cancelling.movementRadius( 12, later ));
+		assertBudgetedRadius( expected, cancelling.getMovementRadius(), true );
+		
+		// the search starts over if the host moves
+		assertFalse( budgeted.movementRadius( 12, System.nanoTime() - 1 ));
+		T moved = grid.getTileAtRC( 6, 8 );
+		mob.setPosition( EAST, moved );
+		assertTrue( budgeted.resumeRadius( later ));
+		full.movementRadius( 12 );
+		assertBudgetedRadius( full.getMovementRadius(), budgeted.getMovementRadius(), true );
+		mob.setPosition( EAST, starting );
+	}
+	
+	private <T extends Tile> void testSettleListener( TileGrid <T> grid,
+			MovementTemplate template ) {
+		setVariedTerrain( grid );
+		
+		TestMobileObject mob = new TestMobileObject( LOW, template );
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		DefaultMovement move = new DefaultMovement( mob, 0 );
+		assertNull( move.getSettleListener() );
+		
+		final List <Object[]> settled = new ArrayList <>();
+		SettleListener listener = new SettleListener() {
+			@Override
+			public void pathSettled( MovementMode mode, Tile tile, Direction templateFacing,
+					float totalCost, float risk ) {
+				settled.add( new Object[] { tile, templateFacing, totalCost, risk });
+			}
+		};
+		move.setSettleListener( listener );
+		assertSame( listener, move.getSettleListener() );
+		
+		// breadth-first search notifies at the end, the best path for each tile and facing
+		move.movementRadius( 8 );
+		Map <Tile, Object[]> breadthFirst = toSettledPaths( move, settled );
+		
+		// label-setting search notifies paths as they're found, best ones first
+		settled.clear();
+		move.setLabelSetting( true );
+		move.movementRadius( 8 );
+		assertSettledPaths( breadthFirst, toSettledPaths( move, settled ));
+		for (int i = 1; i < settled.size(); i++)
+			assertTrue( (Float)settled.get( i - 1 )[3] <= (Float)settled.get( i )[3] );
+		
+		// budgeted search also notifies
+		settled.clear();
+		move.movementRadius( 8, System.nanoTime() + 60_000_000_000L );
+		assertSettledPaths( breadthFirst, toSettledPaths( move, settled ));
+		
+		// nothing without a listener
+		settled.clear();
+		move.setSettleListener( null );
+		move.movementRadius( 8 );
+		assertTrue( settled.isEmpty() );
+		
+		// repairing the radius doesn't notify, even though paths are explored again
+		move.setSettleListener( listener );
+		move.movementRadius( 8 );
+		settled.clear();
+		Tile blocked = grid.getTileAtRC( 6, 2 );
+		new TestObstacle( LOW, 2f ).setPosition( EAST, blocked );
+		assertTrue( move.repairRadius( Collections.singletonList( blocked )));
+		assertTrue( settled.isEmpty() );
+	}
+	
+	// checks that notified paths are unique and the best ones, and maps the best one by tile
+	private Map <Tile, Object[]> toSettledPaths( DefaultMovement move, List <Object[]> settled ) {
+		Map <String, Object[]> paths = new HashMap <>();
+		Map <Tile, Object[]> bestPaths = new HashMap <>();
+		for (Object[] path : settled) {
+			assertNull( paths.put( ((Tile)path[0]).getId() + " " + path[1], path ));
+			Object[] best = bestPaths.get( path[0] );
+			if (best == null || isBetterPath( path, (Float)best[2], (Float)best[3] ))
+				bestPaths.put( (Tile)path[0], path );
+		}
+		
+		int count = 0;
+		for (Tile tile : move.getMovementRadius().getTiles())
+			for (PathData pd : move.getPathData( tile )) {
+				Object[] path = paths.get( tile.getId() + " " + pd.getTemplateFacing() );
+				assertNotNull( path );
+				assertTrue( path[2].equals( pd.getTotalCost() ) && path[3].equals( pd.getRisk() ) ||
+						isBetterPath( path, pd.getTotalCost(), pd.getRisk() ));
+				count++;
+			}
+		
+		assertTrue( count > 0 );
+		return bestPaths;
+	}
+	
+	// checks if a notified path has lower risk, or equal risk and lower cost
+	private boolean isBetterPath( Object[] path, float totalCost, float risk ) {
+		return (Float)path[3] < risk || (Float)path[3] == risk && (Float)path[2] < totalCost;
+	}
+	
+	// compares the best notified paths for each tile
+	private void assertSettledPaths( Map <Tile, Object[]> expected, Map <Tile, Object[]> actual ) {
+		assertEquals( expected.keySet(), actual.keySet() );
+		for (Tile tile : expected.keySet()) {
+			assertEquals( (Float)expected.get( tile )[2], (Float)actual.get( tile )[2], 0.001 );
+			assertEquals( (Float)expected.get( tile )[3], (Float)actual.get( tile )[3], 0.001 );
+		}
+	}
+	
+	// compares reachable tiles to movement radius, with varied terrain and an impassable wall
+	private <T extends Tile> void testReachableTiles( TileGrid <T> grid,
+			MovementTemplate template ) {
+		setVariedTerrain( grid );
+		Terrain wall = new Terrain( MovementMode.IMPASSABLE_MOVE_COST, FLAT );
+		for (int col = 2; col < 8; col++)
+			grid.getTileAtRC( 3, col ).setTerrain( wall );
+		
+		TestMobileObject mob = new TestMobileObject( LOW, template );
+		mob.setPosition( EAST, grid.getTileAtRC( 5, 5 ));
+		DefaultMovement move = new DefaultMovement( mob, 0 );
+		
+		for (int totalMove : new int[] { 10, 3, 0 }) {
+			move.movementRadius( totalMove );
+			BitSet expected = new BitSet();
+			for (Tile t : move.getMovementRadius().getTiles())
+				expected.set( t.getId() );
+			
+			BitSet reachable = move.reachableTiles( totalMove );
+			assertEquals( expected, reachable );
+			if (template.isHorizontallySymmetric() && template.isVerticallySymmetric())
+				assertEquals( 0, move.getMovementRadius().size() );
+		}
+	}
+	
+	// compares a budgeted search's movement radius to a complete one
+	private void assertBudgetedRadius( MovementRadius expected, MovementRadius actual,
+			boolean complete ) {
+		if (complete)
+			assertEquals( expected.size(), actual.size() );
+		
+		for (Tile t : actual.getTiles())
+			for (Direction d : Direction.values()) {
+				if (!actual.isReachable( t, d )) {
+					assertFalse( complete && expected.isReachable( t, d ));
+					continue;
+				}
+				
+				assertTrue( expected.isReachable( t, d ));
+				assertEquals( expected.getRisk( t, d ), actual.getRisk( t, d ), 0.001 );
+				assertEquals( expected.getCost( t, d ), actual.getCost( t, d ), 0.001 );
+			}
+	}
+	
+	// sets terrain with varying costs, and some risky events and costly obstacles
+	private void setVariedTerrain( TileGrid <?> grid ) {
+		Terrain[] terrains = {
+			new Terrain( 1f, FLAT ), new Terrain( 2f, FLAT ), new Terrain( 1.5f, FLAT ) };
+		TestMovementEvent risky = new TestMovementEvent( 1f, FLAT, false, false );
+		Tile[][] tiles = grid.getTiles();
+		
+		for (int row = 0; row < tiles.length; row++)
+			for (int col = 0; col < tiles[ row ].length; col++) {
+				Tile t = tiles[ row ][ col ];
+				t.setTerrain( terrains[ (row * 7 + col * 3) % terrains.length ] );
+				
+				if ((row + 2 * col) % 5 == 0)
+					t.addMovementEvent( risky );
+				if ((row * col) % 7 == 3)
+					new TestObstacle( LOW, 2f ).setPosition( EAST, t );
+			}
+	}
+	
 	// gets a default movement mode's list of path data for tiles to be searched
 	@SuppressWarnings( "unchecked" )
-	private LinkedList <PathData> getPathDataList( DefaultMovement move, String fieldName )
+	private ArrayDeque <PathData> getPathDataList( DefaultMovement move, String fieldName )
 			throws NoSuchFieldException, IllegalAccessException {
 		Field field = DefaultMovement.class.getDeclaredField( fieldName );
 		field.setAccessible( true );
-		return (LinkedList <PathData>)field.get( move );		
+		return (ArrayDeque <PathData>)field.get( move );		
 	}
 	
 	// calculates distance between two tiles using a line helper
@@ -0,0 +1,136 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.Threshold;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementEvent;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class FlightEventsTest {
+
+	@Test
+	public void testDefaultSettings() {
+		List <Class <? extends Event>> types = new ArrayList <>();
+		types.add( FlightEvents.Execution.class );
+		types.add( FlightEvents.Interruption.class );
+		types.add( FlightEvents.EventBuffer.class );
+		types.add( FlightEvents.Callback.class );
+
+		// disabled unless a recording enables them, and only long ones are committed then
+		for (Class <? extends Event> type : types) {
+			assertFalse( type.getAnnotation( Enabled.class ).value() );
+			assertNotNull( type.getAnnotation( Threshold.class ));
+		}
+	}
+
+	@Test
+	public void testInterruptedMovement() throws Exception {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 1, 5 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile t : grid.getTiles()[0])
+			t.setTerrain( terrain );
+
+		// the first event lets the mobile object through, the second one stops it during movement
+		TestMovementEvent passing = new TestMovementEvent( 0f, FLAT, false, false );
+		TestMovementEvent stopping = new TestMovementEvent( 0f, FLAT, true, false );
+		stopping.setShowMovementNotAllowed( false );
+		grid.getTileAtRC( 0, 1 ).addMovementEvent( passing );
+		grid.getTileAtRC( 0, 3 ).addMovementEvent( stopping );
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 0, 0 ));
+		DefaultMovement move = new DefaultMovement( mob, 4 );
+		move.movementRadius( 4 );
+
+		List <RecordedEvent> events = null;
+		Path file = Files.createTempFile( "movement", ".jfr" );
+		try (Recording recording = new Recording()) {
+			recording.enable( FlightEvents.Execution.class ).withoutThreshold();
+			recording.enable( FlightEvents.Interruption.class ).withoutThreshold();
+			recording.enable( FlightEvents.EventBuffer.class ).withoutThreshold();
+			recording.enable( FlightEvents.Callback.class ).withoutThreshold();
+			recording.start();
+
+			move.executeMovementPath( grid.getTileAtRC( 0, 4 ), EAST );
+			recording.stop();
+			recording.dump( file );
+			events = RecordingFile.readAllEvents( file );
+		}
+
+		finally {
+			Files.delete( file );
+		}
+
+		assertSame( grid.getTileAtRC( 0, 2 ), mob.getLocation() );
+
+		RecordedEvent execution = getEvents( events, "MovementExecution" ).get( 0 );
+		assertEquals( TestMobileObject.class.getName(),
+				execution.getClass( "hostClass" ).getName() );
+		assertEquals( 0, execution.getInt( "startColumn" ));
+		assertEquals( 4, execution.getInt( "destinationColumn" ));
+		assertEquals( 2, execution.getInt( "pathLength" ));
+		assertTrue( execution.getBoolean( "interrupted" ));
+
+		RecordedEvent interruption = getEvents( events, "MovementInterruption" ).get( 0 );
+		assertEquals( 3, interruption.getInt( "column" ));
+		assertTrue( interruption.getBoolean( "failedEntry" ));
+		assertEquals( 2, interruption.getInt( "finalColumn" ));
+
+		assertFalse( getEvents( events, "EventBufferExecution" ).isEmpty() );
+
+		// entered and left the first event's tile, then entered and left the second one's
+		List <RecordedEvent> callbacks = getEvents( events, "MovementEventCallback" );
+		assertEquals( 4, callbacks.size() );
+		boolean[] entering = { true, false, true, false };
+		int[] columns = { 1, 1, 3, 3 };
+		boolean[] allowed = { true, true, false, true };
+
+		for (int i = 0; i < callbacks.size(); i++) {
+			RecordedEvent callback = callbacks.get( i );
+			assertEquals( TestMovementEvent.class.getName(),
+					callback.getClass( "eventClass" ).getName() );
+			assertEquals( entering[i], callback.getBoolean( "entering" ));
+			assertFalse( callback.getBoolean( "buffered" ));
+			assertEquals( 0, callback.getInt( "row" ));
+			assertEquals( columns[i], callback.getInt( "column" ));
+			assertEquals( allowed[i], callback.getBoolean( "allowed" ));
+			assertEquals( FLAT.name(), callback.getString( "height" ));
+			assertTrue( callback.getDuration().toNanos() >= 0 );
+		}
+	}
+
+	// gets events of one type, in recorded order
+	private static List <RecordedEvent> getEvents( List <RecordedEvent> events, String name ) {
+		List <RecordedEvent> named = new ArrayList <>();
+		for (RecordedEvent event : events)
+			if (event.getEventType().getName().equals( "fi.grimripper.loww." + name ))
+				named.add( event );
+
+		return named;
+	}
+}
@@ -0,0 +1,173 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static fi.grimripper.loww.Height.VERY_HIGH;
+import static fi.grimripper.loww.test.RandomTerrain.setTerrain;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.templates.HorizontalTwoTileTemplate;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementEvent;
+import fi.grimripper.loww.test.TestObstacle;
+import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Obstacle;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class FlowFieldTest {
+
+	@Test
+	public void testSquareField() {
+		testField( new FilledSquareGrid( 1, 10, 10 ));
+	}
+
+	@Test
+	public void testHexField() {
+		testField( FilledRowHexGrid.createWithHexSize( 1, 1, 10, 10, 10 ));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testLargeTemplate() {
+		FlowField.generate( new DefaultMovement( new TestMobileObject(
+				LOW, new HorizontalTwoTileTemplate() ), 4 ), new FilledSquareGrid( 1, 3, 3 ),
+				null, 4 );
+	}
+
+	@Test
+	public void testAfterRadius() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 6, 6 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		// events in the host's location prevent leaving, except during its movement radius
+		Tile start = grid.getTileAtRC( 2, 2 );
+		start.addMovementEvent( new TestMovementEvent( 0, VERY_HIGH, false, true ));
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, start );
+		DefaultMovement move = new DefaultMovement( mob, 5 );
+		move.movementRadius( 5 );
+		Tile destination = grid.getTileAtRC( 2, 4 );
+		assertEquals( 2, move.getMovementPath( destination, EAST ).length );
+
+		// the field doesn't depend on the radius, and the radius isn't changed
+		Tile target = grid.getTileAtRC( 0, 0 );
+		FlowField field = FlowField.generate( move, grid, target, 10 );
+		FlowField fresh = FlowField.generate( new DefaultMovement( mob, 5 ), grid, target, 10 );
+		assertFalse( field.isReachable( start ));
+		assertEquals( fresh.size(), field.size() );
+		assertEquals( 2, move.getMovementPath( destination, EAST ).length );
+	}
+
+	@Test
+	public void testUnreachable() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 3, 3 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		// a wall of impassable terrain cuts the grid in two
+		Terrain wall = new Terrain( MovementMode.IMPASSABLE_MOVE_COST, FLAT );
+		for (int row = 0; row < 3; row++)
+			grid.getTileAtRC( row, 1 ).setTerrain( wall );
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		DefaultMovement move = new DefaultMovement( mob, 10 );
+		Tile target = grid.getTileAtRC( 1, 0 );
+		FlowField field = FlowField.generate( move, grid, target, 10 );
+
+		assertSame( target, field.getTarget() );
+		assertEquals( grid.getVersion(), field.getGridVersion() );
+		assertEquals( 6, field.size() );		// can step out of the wall, but not in
+		assertEquals( 0, field.getCost( target ), 0.001 );
+		assertNull( field.getNextTile( target ));
+		assertNull( field.getNextDirection( target ));
+		assertEquals( 0, field.getPath( target ).length );
+
+		Tile behind = grid.getTileAtRC( 1, 2 );
+		assertFalse( field.isReachable( behind ));
+		assertEquals( -1, field.getCost( behind ), 0.001 );
+		assertNull( field.getNextTile( behind ));
+		assertEquals( 0, field.getPath( behind ).length );
+		assertTrue( field.isReachable( grid.getTileAtRC( 0, 0 )));
+
+		// maximum cost limits the field
+		assertEquals( 1, FlowField.generate( move, grid, target, 0 ).size() );
+	}
+
+	// compares the field to movement radiuses from each tile to the target
+	private static void testField( TileGrid <?> grid ) {
+		Random random = new Random( 5 );
+		setTerrain( grid, random );
+		Tile[][] tiles = grid.getTiles();
+
+		Tile target = tiles[5][5];
+		for (int i = 0; i < 8; i++) {
+			Tile[] row = tiles[ random.nextInt( tiles.length ) ];
+			Tile tile = row[ random.nextInt( row.length ) ];
+			Obstacle obstacle = new TestObstacle( LOW, 2f );
+			if (tile != target)
+				obstacle.setPosition( EAST, tile );
+		}
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		DefaultMovement move = new DefaultMovement( mob, 8 );
+		FlowField field = FlowField.generate( move, grid, target, 8 );
+
+		int reachable = 0;
+		for (Tile[] row : tiles)
+			for (Tile tile : row) {
+				mob.setPosition( EAST, tile );
+				if (mob.getLocation() != tile)
+					continue;		// can't be occupied
+
+				DefaultMovement compared = new DefaultMovement( mob, 8 );
+				compared.movementRadius( 8 );
+				MovementRadius radius = compared.getMovementRadius();
+
+				assertEquals( radius.isReachable( target ), field.isReachable( tile ));
+				assertEquals( radius.getCost( target ), field.getCost( tile ), 0.001 );
+				assertEquals( radius.getRisk( target ), field.getRisk( tile ), 0.001 );
+				mob.setLocation( null );
+
+				if (!field.isReachable( tile ))
+					continue;
+
+				// the best path starts with the next step and ends at the target
+				reachable++;
+				Tile[] path = field.getPath( tile );
+				if (tile == target)
+					continue;
+
+				assertSame( field.getNextTile( tile ), path[0] );
+				assertSame( tile.getDirection( path[0] ), field.getNextDirection( tile ));
+				assertSame( target, path[ path.length - 1 ]);
+
+				// next steps reach the target without more risk
+				Tile next = tile;
+				for (int i = 0; next != target; i++) {
+					assertTrue( i < tiles.length * tiles.length );
+					Tile previous = next;
+					next = field.getNextTile( previous );
+					assertTrue( field.getRisk( next ) <= field.getRisk( previous ));
+				}
+			}
+
+		assertTrue( reachable > 1 );
+	}
+}
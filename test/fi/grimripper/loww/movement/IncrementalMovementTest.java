@@ -0,0 +1,155 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.LOW;
+import static fi.grimripper.loww.test.RandomTerrain.setTerrain;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.templates.HorizontalTwoTileTemplate;
+import fi.grimripper.loww.templates.MovementTemplate;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestObstacle;
+import fi.grimripper.loww.test.TestObstacleTemplate;
+import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Obstacle;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class IncrementalMovementTest {
+
+	@Test
+	public void testRepairSquares() {
+		testRepair( new FilledSquareGrid( 1, 12, 12 ), new SingleTileTemplate(), false );
+		testRepair( new FilledSquareGrid( 1, 12, 12 ), new SingleTileTemplate(), true );
+	}
+
+	@Test
+	public void testRepairHexes() {
+		testRepair( FilledRowHexGrid.createWithHexSize( 1, 1, 12, 12, 12 ),
+				new HorizontalTwoTileTemplate(), false );
+		testRepair( FilledRowHexGrid.createWithHexSize( 1, 1, 12, 12, 12 ),
+				new HorizontalTwoTileTemplate(), true );
+	}
+
+	@Test
+	public void testUpdateRadius() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 5, 5 );
+		setTerrain( grid, new Random( 3 ));
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 2, 2 ));
+		IncrementalMovement move = new IncrementalMovement( mob, 3 );
+		move.watch( grid );
+		assertTrue( grid.getTileAtRC( 0, 0 ).hasMotionListener( move ));
+
+		// without a movement radius, it's generated with current movement
+		assertFalse( move.updateRadius() );
+		assertRadius( move, 3 );
+		assertTrue( move.updateRadius() );		// no changes
+
+		// changes are collected until updated
+		Obstacle obstacle = new TestObstacle( LOW );
+		obstacle.setPosition( EAST, grid.getTileAtRC( 2, 3 ));
+		assertTrue( move.hasChanges() );
+		assertTrue( move.getMovementRadius().isReachable( grid.getTileAtRC( 2, 3 )));
+		assertTrue( move.updateRadius() );
+		assertFalse( move.hasChanges() );
+		assertFalse( move.getMovementRadius().isReachable( grid.getTileAtRC( 2, 3 )));
+		assertRadius( move, 3 );
+
+		// the host moving requires a new movement radius
+		move.executeMovementPath( grid.getTileAtRC( 1, 2 ), EAST );
+		assertTrue( move.hasChanges() );
+		assertFalse( move.repairRadius( Arrays.asList( grid.getTileAtRC( 0, 0 ))));
+		assertFalse( move.updateRadius() );
+		assertRadius( move, 3 );
+
+		// a change at the host's location requires a new movement radius
+		Obstacle sharing = new TestObstacle( LOW, 1f, false, new TestObstacleTemplate() );
+		sharing.setPosition( EAST, grid.getTileAtRC( 1, 2 ));
+		assertFalse( move.updateRadius() );
+		assertRadius( move, 3 );
+
+		// new movement radius forgets changes, and keeps the new total move
+		obstacle.setLocation( null );
+		move.movementRadius( 2 );
+		assertFalse( move.hasChanges() );
+		obstacle.setPosition( EAST, grid.getTileAtRC( 3, 3 ));
+		assertTrue( move.updateRadius() );
+		assertRadius( move, 2 );
+
+		// nothing to repair after clearing
+		move.clearRadius();
+		assertFalse( move.repairRadius( Collections. <Tile>emptyList() ));
+
+		move.unwatch( grid );
+		assertFalse( grid.getTileAtRC( 0, 0 ).hasMotionListener( move ));
+		obstacle.setLocation( null );
+		assertFalse( move.hasChanges() );
+	}
+
+	// moves obstacles around, and compares repaired radius to a new one after each move
+	private static void testRepair( TileGrid <?> grid, MovementTemplate template,
+			boolean labelSetting ) {
+		Random random = new Random( 11 );
+		setTerrain( grid, random );
+		Tile[][] tiles = grid.getTiles();
+
+		MobileObject mob = new TestMobileObject( LOW, template );
+		mob.setPosition( EAST, tiles[6][6] );
+		IncrementalMovement move = new IncrementalMovement( mob, 6 );
+		move.setLabelSetting( labelSetting );
+		move.watch( grid );
+		move.movementRadius( 6 );
+
+		Obstacle[] obstacles = {
+			new TestObstacle( LOW ), new TestObstacle( LOW ), new TestObstacle( LOW, 2f ),
+			new TestObstacle( LOW, 1f, false, new TestObstacleTemplate() )
+		};
+
+		int repaired = 0;
+		for (int i = 0; i < 60; i++) {
+			Obstacle obstacle = obstacles[ random.nextInt( obstacles.length ) ];
+			Tile[] row = tiles[ random.nextInt( tiles.length ) ];
+			Tile tile = row[ random.nextInt( row.length ) ];
+			if (tile == mob.getLocation() || random.nextInt( 5 ) == 0)
+				tile = null;		// sometimes just remove the obstacle
+			obstacle.setPosition( EAST, tile );
+
+			repaired += move.updateRadius() ? 1 : 0;
+			assertRadius( move, 6 );
+		}
+
+		assertTrue( repaired > 0 );
+	}
+
+	// compares movement radius to a new one from a default movement mode
+	private static void assertRadius( DefaultMovement move, int totalMove ) {
+		DefaultMovement compared = new DefaultMovement( move.getHost(), totalMove );
+		compared.setLabelSetting( move.isLabelSetting() );
+		compared.movementRadius( totalMove );
+		MovementRadius expected = compared.getMovementRadius();
+		MovementRadius actual = move.getMovementRadius();
+
+		assertEquals( expected.size(), actual.size() );
+		for (Tile tile : expected.getTiles())
+			for (Direction facing : Direction.values()) {
+				assertEquals( expected.isReachable( tile, facing ),
+						actual.isReachable( tile, facing ));
+				assertEquals( expected.getCost( tile, facing ), actual.getCost( tile, facing ),
+						0.001 );
+				assertEquals( expected.getRisk( tile, facing ), actual.getRisk( tile, facing ),
+						0.001 );
+			}
+	}
+}
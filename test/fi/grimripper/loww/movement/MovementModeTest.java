@@ -315,6 +315,30 @@ public class MovementModeTest {
 		testOccupyHeight( FilledRowHexGrid.createWithHexSize( 0, 0, 5, 5, 5 ));
 	}
 	
+	@Test
+	public void testTemplateTiles() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 3, 3 );
+		Tile main = grid.getTileAtRC( 1, 1 ), other = grid.getTileAtRC( 0, 0 );
+		TestMovementTemplate template = new TestMovementTemplate();
+		MovementMode mode = new TestMovementMode( new TestMobileObject( FLAT, template ), 100 );
+		
+		// template tiles are saved by main tile and facing
+		Tile[] tiles = mode.getTemplateTiles( main, EAST );
+		assertArrayEquals( new Tile[] { main }, tiles );
+		assertSame( tiles, mode.getTemplateTiles( main, EAST ));
+		assertNotSame( tiles, mode.getTemplateTiles( main, WEST ));
+		assertArrayEquals( new Tile[] { other }, mode.getTemplateTiles( other, EAST ));
+		
+		// saved tiles are kept until movement radius is cleared
+		template.setSize( 2 );
+		template.setAlternateTile( other );
+		assertSame( tiles, mode.getTemplateTiles( main, EAST ));
+		
+		mode.clearRadius();
+		assertArrayEquals( new Tile[] { main, other }, mode.getTemplateTiles( main, EAST ));
+		assertArrayEquals( new Tile[] { other, other }, mode.getTemplateTiles( other, EAST ));
+	}
+	
 	@Test (expected = NullPointerException.class)
 	public void testMinimumHeightNullPointerException1() {
 		new TestMovementMode( null, 0 ).getMinimumHeight( true, (Tile[])null );
@@ -339,6 +363,26 @@ public class MovementModeTest {
 		testMoveCost( FilledRowHexGrid.createWithHexSize( 0, 0, 1, 2, 0 ));
 	}
 	
+	@Test
+	public void testSharedTerrainCosts() {
+		MovementMode first = new TestMovementMode( null, 100 );
+		MovementMode second = new TestMovementMode( null, 100 );
+		TestMovementModifier terrainMod = new TestMovementModifier( 3f );
+		OnceOnlyTerrain terrain = new OnceOnlyTerrain( 2f, FLAT );
+		
+		// modes with the same modifiers calculate terrain costs only once (terrain checked once)
+		first.addMovementModifier( terrainMod );
+		second.addMovementModifier( terrainMod );
+		assertEquals( terrainMod.getTerrainCost(), first.getTerrainCost( terrain ), 0.001 );
+		assertEquals( terrainMod.getTerrainCost(), second.getTerrainCost( terrain ), 0.001 );
+		
+		// without the modifier, the cost is calculated again
+		terrain.cancelCostRetrieved();
+		second.removeMovementModifier( terrainMod );
+		assertEquals( 2f, second.getTerrainCost( terrain ), 0.001 );
+		assertEquals( terrainMod.getTerrainCost(), first.getTerrainCost( terrain ), 0.001 );
+	}
+	
 	@Test( expected=NullPointerException.class )
 	public void testObstacleCostNullPointerException() {
 		MobileObject mob = new TestMobileObject( FLAT, new SingleTileTemplate() );
@@ -0,0 +1,157 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.movement.DefaultMovement.PathData;
+import fi.grimripper.loww.templates.HorizontalTwoTileTemplate;
+import fi.grimripper.loww.templates.MovementTemplate;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementEvent;
+import fi.grimripper.loww.test.TestMovementMode;
+import fi.grimripper.loww.test.TestObstacle;
+import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class MovementRadiusTest {
+
+	@Test
+	public void testPaths() {
+		testPaths( new FilledSquareGrid( 1, 9, 9 ), new SingleTileTemplate() );
+		testPaths( new FilledSquareGrid( 1, 9, 9 ), new HorizontalTwoTileTemplate() );
+		testPaths( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ), new SingleTileTemplate() );
+	}
+
+	@Test
+	public void testOptionalCopy() {
+		TileGrid <?> grid = createGrid( new FilledSquareGrid( 1, 5, 5 ));
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 2, 2 ));
+
+		DefaultMovement move = new DefaultMovement( mob, 3 );
+		assertNull( move.movementRadius( 3, false ));
+		assertNotNull( move.movementRadius( 3, true ));
+		assertNull( new TestMovementMode( mob, 3 ).movementRadius( 3, true ));
+	}
+
+	@Test
+	public void testConcurrentQueries() throws Exception {
+		final TileGrid <?> grid = createGrid( new FilledSquareGrid( 1, 15, 15 ));
+		MobileObject mob = new TestMobileObject( LOW, new HorizontalTwoTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 7, 7 ));
+
+		DefaultMovement move = new DefaultMovement( mob, 8 );
+		final MovementRadius radius = move.movementRadius( 8, true );
+		final List <Tile[]> expected = getPaths( radius, grid );
+
+		// threads query the same copy while the movement mode searches again
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		List <Future <List <Tile[]>>> futures = new ArrayList <>();
+		for (int i = 0; i < 8; i++)
+			futures.add( executor.submit( new Callable <List <Tile[]>>() {
+				@Override
+				public List <Tile[]> call() {
+					return getPaths( radius, grid );
+				}
+			}));
+
+		move.movementRadius( 2 );
+		for (Future <List <Tile[]>> future : futures) {
+			List <Tile[]> paths = future.get();
+			for (int i = 0; i < expected.size(); i++)
+				assertArrayEquals( expected.get( i ), paths.get( i ));
+		}
+
+		executor.shutdown();
+	}
+
+	private void testPaths( TileGrid <?> grid, MovementTemplate template ) {
+		createGrid( grid );
+		MobileObject mob = new TestMobileObject( LOW, template );
+		Tile starting = grid.getTileAtRC( 4, 4 );
+		mob.setPosition( EAST, starting );
+
+		DefaultMovement move = new DefaultMovement( mob, 6 );
+		MovementRadius radius = move.movementRadius( 6, true );
+
+		// same paths, costs and risks by facing as in the movement mode
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				for (Direction facing : Direction.values()) {
+					Tile[] path = move.getMovementPath( t, facing );
+					assertArrayEquals( path, radius.getPath( t, facing ));
+
+					PathData best = move.canBeOccupied( t, facing ) ?
+							move.selectBestPath( move.getPathData( t ), facing ) : null;
+					assertEquals( best != null, radius.isReachable( t, facing ));
+					assertEquals( best == null ? -1 : best.getTotalCost(),
+							radius.getCost( t, facing ), 0.001 );
+					assertEquals( best == null ? -1 : best.getRisk(),
+							radius.getRisk( t, facing ), 0.001 );
+
+					if (best != null)
+						assertTrue( radius.getCost( t ) <= radius.getCost( t, facing ) ||
+								radius.getRisk( t ) < radius.getRisk( t, facing ));
+				}
+
+		// paths stay after clearing
+		Tile[] tiles = radius.getTiles();
+		move.clearRadius();
+		for (Tile t : tiles)
+			assertTrue( radius.isReachable( t ));
+		assertEquals( 0, radius.getPath( starting, EAST ).length );
+	}
+
+	// gets paths to all tiles and facings
+	private static List <Tile[]> getPaths( MovementRadius radius, TileGrid <?> grid ) {
+		List <Tile[]> paths = new ArrayList <>();
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				for (Direction facing : Direction.values())
+					paths.add( radius.getPath( t, facing ));
+
+		return paths;
+	}
+
+	// sets varied terrain, risky events and obstacles outside the middle row
+	private TileGrid <?> createGrid( TileGrid <?> grid ) {
+		Terrain[] terrains = {
+			new Terrain( 1f, FLAT ), new Terrain( 2f, FLAT ), new Terrain( 1.5f, FLAT ) };
+		TestMovementEvent risky = new TestMovementEvent( 1f, FLAT, false, false );
+		Tile[][] tiles = grid.getTiles();
+		int middle = tiles.length / 2;
+
+		for (int row = 0; row < tiles.length; row++)
+			for (int col = 0; col < tiles[ row ].length; col++) {
+				Tile t = tiles[ row ][ col ];
+				t.setTerrain( terrains[ (row * 7 + col * 3) % terrains.length ]);
+
+				if (row != middle && (row + 2 * col) % 5 == 0)
+					t.addMovementEvent( risky );
+				if (row != middle && (row * col) % 7 == 3)
+					new TestObstacle( LOW, 2f ).setPosition( EAST, t );
+			}
+
+		return grid;
+	}
+}
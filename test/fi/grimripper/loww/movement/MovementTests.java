@@ -5,7 +5,12 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ MobileObjectTest.class, MovementModeTest.class, DefaultMovementTest.class })
+@SuiteClasses({ MobileObjectTest.class, MovementModeTest.class, DefaultMovementTest.class,
+		TileTableTest.class, TerrainCostsTest.class,
+		RadiusBatchTest.class, MovementRadiusTest.class, SearchMetricsTest.class,
+		FlightEventsTest.class, IncrementalMovementTest.class, PathCacheTest.class,
+		FlowFieldTest.class, ClusterGraphTest.class,
+		RoutePlannerTest.class, PathFrontierTest.class })
 public class MovementTests {
 
 }
@@ -0,0 +1,86 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Direction.WEST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementModifier;
+import fi.grimripper.loww.test.TestObstacle;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Obstacle;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class PathCacheTest {
+
+	@Test
+	public void testPathCache() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 5, 5 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 2, 0 ));
+		DefaultMovement move = new DefaultMovement( mob, 4 );
+		PathCache cache = new PathCache( grid, 2 );
+		assertEquals( 2, cache.getCapacity() );
+
+		// the same path as from the movement mode, shared by repeated queries
+		Tile destination = grid.getTileAtRC( 2, 3 );
+		List <Tile> path = cache.getMovementPath( move, destination, EAST, 4 );
+		assertEquals( Arrays.asList( move.findPath( destination, EAST, 4 )), path );
+		assertEquals( 3, path.size() );
+		assertSame( path, cache.getMovementPath( move, destination, EAST, 4 ));
+		assertEquals( 1, cache.getHits() );
+		assertEquals( 1, cache.getMisses() );
+
+		try {
+			path.clear();
+			fail( "Cached path was modified" );
+		} catch (UnsupportedOperationException uox) {
+		}
+
+		// another facing, total move or modifiers is another query
+		cache.getMovementPath( move, destination, WEST, 4 );
+		assertEquals( 0, cache.getMovementPath( move, destination, EAST, 2 ).size() );
+		assertEquals( 3, cache.getMisses() );
+		move.addMovementModifier( new TestMovementModifier() );
+		cache.getMovementPath( move, destination, EAST, 2 );
+		assertEquals( 4, cache.getMisses() );
+		assertEquals( 2, cache.size() );
+
+		// the least recently used paths were dropped
+		move.removeMovementModifier( move.getMovementModifiers()[0] );
+		assertNotSame( path, cache.getMovementPath( move, destination, EAST, 4 ));
+		assertEquals( 5, cache.getMisses() );
+		path = cache.getMovementPath( move, destination, EAST, 4 );
+		assertEquals( 2, cache.getHits() );
+
+		// changes in the grid outdate the paths
+		Obstacle obstacle = new TestObstacle( LOW, 2f );
+		obstacle.setPosition( EAST, grid.getTileAtRC( 2, 1 ));
+		List <Tile> changed = cache.getMovementPath( move, destination, EAST, 4 );
+		assertEquals( 6, cache.getMisses() );
+		assertEquals( 3, changed.size() );
+		assertTrue( !changed.contains( grid.getTileAtRC( 2, 1 )));
+
+		cache.clear();
+		assertEquals( 0, cache.size() );
+	}
+}
@@ -0,0 +1,100 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Direction.NORTH;
+import static fi.grimripper.loww.Direction.WEST;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.movement.DefaultMovement.PathData;
+
+public class PathFrontierTest {
+
+	@Test
+	public void testPathFrontier() {
+		assertEquals( 0, PathFrontier.getBucket( null ));
+		assertEquals( 0, PathFrontier.getBucket( WEST ));
+		assertEquals( 1, PathFrontier.getBucket( EAST ));
+		assertEquals( 2, PathFrontier.getBucket( NORTH ));
+		
+		PathData cost1risk3 = new PathData( null, null, 1, null, null, null, EAST, 3 );
+		PathData cost2risk2 = new PathData( null, null, 2, null, null, null, EAST, 2 );
+		PathData cost4risk1 = new PathData( null, null, 4, null, null, null, EAST, 1 );
+		PathData west = new PathData( null, null, 0, null, null, null, WEST, 0 );
+		
+		// sorted by cost in each bucket, and still a frontier
+		PathFrontier frontier = new PathFrontier();
+		frontier.add( cost4risk1 );
+		frontier.add( west );
+		frontier.add( cost1risk3 );
+		frontier.add( cost2risk2 );
+		assertEquals( 4, frontier.size() );
+		assertTrue( frontier.isFrontier() );
+		assertArrayEquals( new PathData[] { west, cost1risk3, cost2risk2, cost4risk1 },
+				frontier.toArray() );
+		assertTrue( frontier.contains( cost2risk2 ));
+		
+		// the closest path data with lower or equal cost decides
+		assertTrue( frontier.hasDominating( 1, 2, 2 ));
+		assertTrue( frontier.hasDominating( 1, 3, 2 ));
+		assertFalse( frontier.hasDominating( 1, 3, 1.5f ));
+		assertFalse( frontier.hasDominating( 1, 0.5f, 5 ));
+		assertTrue( frontier.hasDominating( 0, 3, 1 ));
+		assertFalse( frontier.hasDominating( 2, 3, 1 ));
+		
+		// removes path data with higher cost and no lower risk, or equal cost and higher risk
+		assertEquals( 0, frontier.removeDominated( 1, 2, 2 ));
+		assertEquals( 1, frontier.removeDominated( 1, 2, 1.5f ));
+		assertFalse( frontier.contains( cost2risk2 ));
+		assertEquals( 2, frontier.removeDominated( 1, 0, 0 ));
+		assertArrayEquals( new PathData[] { west }, frontier.toArray() );
+		assertFalse( frontier.contains( cost1risk3 ));
+		assertFalse( frontier.contains( cost4risk1 ));
+		
+		// path data that's at least as good in the same bucket breaks the frontier
+		frontier.add( cost1risk3 );
+		frontier.add( cost2risk2 );
+		assertTrue( frontier.isFrontier() );
+		frontier.add( cost4risk1 );
+		frontier.add( cost4risk1 );
+		assertFalse( frontier.isFrontier() );
+		
+		// added twice, must be removed twice
+		assertTrue( frontier.remove( cost4risk1 ));
+		assertTrue( frontier.contains( cost4risk1 ));
+		assertTrue( frontier.remove( cost4risk1 ));
+		assertFalse( frontier.contains( cost4risk1 ));
+		assertFalse( frontier.remove( cost4risk1 ));
+		assertFalse( frontier.isFrontier() );
+		
+		// emptied or cleared storage is a frontier again
+		frontier.clear();
+		assertEquals( 0, frontier.size() );
+		assertTrue( frontier.isFrontier() );
+		assertFalse( frontier.contains( west ));
+		frontier.add( west );
+		assertTrue( frontier.remove( west ));
+		assertTrue( frontier.isEmpty() );
+		
+		// changed path data is still found, but the frontier is no longer valid
+		frontier.add( cost1risk3 );
+		frontier.add( cost2risk2 );
+		cost2risk2.setTotalCost( 0 );
+		assertFalse( frontier.isFrontier() );
+		cost1risk3.setTemplateFacing( WEST );
+		assertTrue( frontier.remove( cost1risk3 ));
+		assertTrue( frontier.remove( cost2risk2 ));
+		assertTrue( frontier.isEmpty() );
+		
+		// each path data belongs to the storage where it was added last
+		PathFrontier other = new PathFrontier();
+		frontier.add( west );
+		other.add( west );
+		assertFalse( frontier.contains( west ));
+		assertTrue( other.contains( west ));
+	}
+}
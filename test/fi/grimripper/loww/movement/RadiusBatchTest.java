@@ -0,0 +1,150 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.templates.HorizontalTwoTileTemplate;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.movement.DefaultMovement.PathData;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementMode;
+import fi.grimripper.loww.test.TestObstacle;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class RadiusBatchTest {
+
+	@Test
+	public void testMovementRadius() {
+		TileGrid <?> grid = createGrid( 7 );
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		DefaultMovement move = new DefaultMovement( mob, 3 );
+		Tile starting = grid.getTileAtRC( 3, 3 );
+		mob.setPosition( EAST, starting );
+
+		assertNull( new TestMovementMode( mob, 3 ).getMovementRadius() );
+
+		// costs and risks are the same as for the best paths
+		move.movementRadius( 3 );
+		MovementRadius radius = move.getMovementRadius();
+		assertSame( mob, radius.getHost() );
+		assertEquals( 0, radius.getCost( starting ), 0.001 );
+		assertEquals( 0, radius.getRisk( starting ), 0.001 );
+
+		int reachable = 0;
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row) {
+				Tile[] path = move.getMovementPath( t, EAST );
+				if (path.length == 0 && t != starting) {
+					assertFalse( radius.isReachable( t ));
+					assertEquals( -1, radius.getCost( t ), 0.001 );
+					continue;
+				}
+
+				float cost = Float.MAX_VALUE;		// no risks, so best path has lowest cost
+				for (PathData pd : move.getPathData( t ))
+					cost = Math.min( cost, pd.getTotalCost() );
+				
+				reachable++;
+				assertTrue( radius.isReachable( t ));
+				assertEquals( cost, radius.getCost( t ), 0.001 );
+			}
+
+		assertEquals( reachable, radius.size() );
+		assertNotSame( radius.getTiles(), radius.getTiles() );
+
+		// later searches don't affect the copy
+		Tile[] tiles = radius.getTiles();
+		move.movementRadius( 1 );
+		assertTrue( move.getMovementRadius().size() < radius.size() );
+		assertArrayEquals( tiles, radius.getTiles() );
+
+		move.clearRadius();
+		assertEquals( 0, move.getMovementRadius().size() );
+		assertArrayEquals( tiles, radius.getTiles() );
+	}
+
+	@Test
+	public void testBatch() {
+		TileGrid <?> grid = createGrid( 15 );
+		List <MobileObject> mobiles = new ArrayList <>();
+
+		for (int i = 0; i < 25; i++) {
+			MobileObject mob = new TestMobileObject( LOW, i % 3 == 0 ?
+					new HorizontalTwoTileTemplate() : new SingleTileTemplate() );
+			mob.setPosition( EAST, grid.getTileAtRC( i / 5 * 3, i % 5 * 3 + 1 ));
+			mob.addMovementMode( new DefaultMovement( mob, 3 + i % 4 ));
+			mobiles.add( mob );
+		}
+
+		// mobile object without movement mode is left out, duplicates are searched once
+		MobileObject immobile = new TestMobileObject( LOW, new SingleTileTemplate() );
+		immobile.setPosition( EAST, grid.getTileAtRC( 14, 14 ));
+		mobiles.add( immobile );
+		mobiles.add( mobiles.get( 0 ));
+
+		ForkJoinPool pool = new ForkJoinPool( 4 );
+		Map <MobileObject, MovementRadius> radii =
+				new RadiusBatch( pool ).movementRadius( mobiles );
+		pool.shutdown();
+
+		assertEquals( 25, radii.size() );
+		assertFalse( radii.containsKey( immobile ));
+
+		// same results as searching one by one
+		for (MobileObject mob : mobiles.subList( 0, 25 )) {
+			MovementRadius radius = radii.get( mob );
+			assertSame( mob, radius.getHost() );
+			assertTrue( radius.isReachable( mob.getLocation() ));
+
+			DefaultMovement fresh = new DefaultMovement( mob, 0 );
+			fresh.movementRadius( mob.getMovementMode().getMovement() );
+			MovementRadius expected = fresh.getMovementRadius();
+			assertArrayEquals( expected.getTiles(), radius.getTiles() );
+
+			for (Tile t : expected.getTiles()) {
+				assertEquals( expected.getCost( t ), radius.getCost( t ), 0.001 );
+				assertEquals( expected.getRisk( t ), radius.getRisk( t ), 0.001 );
+			}
+		}
+	}
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void testUnmodifiableResults() {
+		new RadiusBatch().movementRadius( new ArrayList <MobileObject>() ).clear();
+	}
+
+	// creates a square grid with varied terrain, and some obstacles outside every third row
+	private TileGrid <?> createGrid( int size ) {
+		TileGrid <?> grid = new FilledSquareGrid( 1, size, size );
+		Terrain[] terrains = {
+			new Terrain( 1f, FLAT ), new Terrain( 2f, FLAT ), new Terrain( 1.5f, FLAT ) };
+		Tile[][] tiles = grid.getTiles();
+
+		for (int row = 0; row < tiles.length; row++)
+			for (int col = 0; col < tiles[ row ].length; col++) {
+				tiles[ row ][ col ].setTerrain( terrains[ (row * 7 + col * 3) % terrains.length ]);
+				if ((row * col) % 7 == 3 && row % 3 != 0)
+					new TestObstacle( LOW, 2f ).setPosition( EAST, tiles[ row ][ col ]);
+			}
+
+		return grid;
+	}
+}
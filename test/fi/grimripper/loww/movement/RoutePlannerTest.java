@@ -0,0 +1,153 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static fi.grimripper.loww.Height.VERY_HIGH;
+import static fi.grimripper.loww.test.RandomTerrain.setTerrain;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.templates.HexAndNeighborsTemplate;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementEvent;
+import fi.grimripper.loww.test.TestObstacle;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class RoutePlannerTest {
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testLargeTemplate() {
+		new RoutePlanner( new DefaultMovement(
+				new TestMobileObject( LOW, new HexAndNeighborsTemplate() ), 4 ));
+	}
+
+	@Test
+	public void testTurnEnds() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 1, 13 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile t : grid.getTiles()[0])
+			t.setTerrain( terrain );
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 0, 0 ));
+		DefaultMovement move = new DefaultMovement( mob, 4 );
+		RoutePlanner planner = new RoutePlanner( move );
+		assertSame( move, planner.getMovementMode() );
+		assertEquals( RoutePlanner.DEFAULT_NODE_BUDGET, planner.getNodeBudget() );
+
+		// three full turns
+		Tile destination = grid.getTileAtRC( 0, 12 );
+		Route route = planner.planRoute( destination, 4 );
+		assertTrue( route.isComplete() );
+		assertSame( mob.getLocation(), route.getStart() );
+		assertSame( destination, route.getDestination() );
+		assertEquals( 3, route.getTurnCount() );
+		assertEquals( 12, route.getCost(), 0.001 );
+		assertEquals( 12, route.getPath().length );
+		assertSame( grid.getTileAtRC( 0, 4 ), route.getEndTile( 0 ));
+		assertSame( grid.getTileAtRC( 0, 8 ), route.getEndTile( 1 ));
+		assertEquals( 4, route.getPath( 1 ).length );
+		assertSame( EAST, route.getEndFacing( 2 ));
+
+		// turns can't end on tiles that can't be occupied
+		new TestObstacle( LOW ).setPosition( EAST, grid.getTileAtRC( 0, 4 ));
+		new TestObstacle( LOW ).setPosition( EAST, grid.getTileAtRC( 0, 7 ));
+		route = planner.planRoute( destination, 4 );
+		assertEquals( 4, route.getTurnCount() );
+		for (int i = 0; i < route.getTurnCount(); i++) {
+			assertTrue( move.canOccupy( route.getEndTile( i ), route.getEndFacing( i )));
+			assertTrue( route.getPath( i ).length <= 4 );
+		}
+		assertSame( grid.getTileAtRC( 0, 3 ), route.getEndTile( 0 ));
+		assertSame( grid.getTileAtRC( 0, 6 ), route.getEndTile( 1 ));
+
+		// already at the destination
+		route = planner.planRoute( mob.getLocation(), 4 );
+		assertTrue( route.isComplete() );
+		assertEquals( 0, route.getTurnCount() );
+		assertEquals( 0, route.getCost(), 0.001 );
+
+		// the destination can't be occupied
+		route = planner.planRoute( grid.getTileAtRC( 0, 7 ), 4 );
+		assertFalse( route.isComplete() );
+		assertFalse( route.isBudgetExceeded() );
+		assertEquals( 0, route.getPath().length );
+		assertEquals( -1, route.getCost(), 0.001 );
+
+		// the budget runs out
+		planner.setNodeBudget( 5 );
+		route = planner.planRoute( destination, 4 );
+		assertFalse( route.isComplete() );
+		assertTrue( route.isBudgetExceeded() );
+		assertEquals( 5, route.getExploredNodes() );
+	}
+
+	@Test
+	public void testLeavingStart() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 6, 6 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		// events in the host's location can't prevent leaving, like in a movement radius
+		Tile start = grid.getTileAtRC( 2, 2 ), destination = grid.getTileAtRC( 2, 5 );
+		start.addMovementEvent( new TestMovementEvent( 0, VERY_HIGH, false, true ));
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, start );
+		DefaultMovement move = new DefaultMovement( mob, 5 );
+		Route route = new RoutePlanner( move ).planRoute( destination, 5 );
+		assertTrue( route.isComplete() );
+		assertEquals( 3, route.getCost(), 0.001 );
+
+		// the same after a movement radius, and the radius isn't changed
+		move.movementRadius( 5 );
+		assertEquals( 3, move.getMovementPath( destination, EAST ).length );
+		route = new RoutePlanner( move ).planRoute( destination, 5 );
+		assertTrue( route.isComplete() );
+		assertEquals( 3, route.getCost(), 0.001 );
+		assertEquals( 3, move.getMovementPath( destination, EAST ).length );
+	}
+
+	@Test
+	public void testSingleTurn() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 8, 8 );
+		setTerrain( grid, new Random( 19 ));
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		DefaultMovement move = new DefaultMovement( mob, 4 );
+		move.movementRadius( 4 );
+		MovementRadius radius = move.getMovementRadius();
+		RoutePlanner planner = new RoutePlanner( move );
+
+		// destinations in the movement radius take one turn, with the same cost and risk
+		for (Tile tile : radius.getTiles()) {
+			if (tile == mob.getLocation())
+				continue;
+
+			Route route = planner.planRoute( tile, 4 );
+			assertEquals( 1, route.getTurnCount() );
+			assertEquals( radius.getRisk( tile ), route.getRisk(), 0.001 );
+			assertEquals( radius.getCost( tile ), route.getCost(), 0.001 );
+		}
+
+		// the rest take more
+		Route route = planner.planRoute( grid.getTileAtRC( 0, 0 ), 4 );
+		assertFalse( radius.isReachable( grid.getTileAtRC( 0, 0 )));
+		assertTrue( route.getTurnCount() > 1 );
+		for (int i = 0; i < route.getTurnCount(); i++)
+			assertTrue( move.canOccupy( route.getEndTile( i ), route.getEndFacing( i )));
+	}
+}
@@ -0,0 +1,170 @@
+package fi.grimripper.loww.movement;
+
+import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.FLAT;
+import static fi.grimripper.loww.Height.LOW;
+import static fi.grimripper.loww.movement.SearchMetrics.Counter.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.movement.SearchMetrics.Counter;
+import fi.grimripper.loww.templates.SingleTileTemplate;
+import fi.grimripper.loww.test.TestBlock;
+import fi.grimripper.loww.test.TestMobileObject;
+import fi.grimripper.loww.test.TestMovementEvent;
+import fi.grimripper.loww.test.TestMovementModifier;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class SearchMetricsTest {
+
+	@Test
+	public void testPathCounters() {
+		TileGrid <?> grid = createGrid();
+		DefaultMovement move = createMovement( grid );
+		Recorder recorder = new Recorder();
+		move.setSearchMetricsListener( recorder );
+		assertSame( recorder, move.getSearchMetricsListener() );
+
+		move.movementRadius( 2 );
+		assertEquals( 1, recorder.counts.size() );
+		assertSame( move, recorder.modes.get( 0 ));
+		assertTrue( recorder.wallTimes.get( 0 ) > 0 );
+
+		// every created path was rejected, removed or is still saved
+		int saved = 0, reached = 0;
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row) {
+				saved += move.getPathData( t ).length;
+				reached += move.getPathData( t ).length > 0 ? 1 : 0;
+			}
+
+		assertEquals( recorder.get( 0, PATHS_CREATED ), recorder.get( 0, PATHS_REJECTED ) +
+				recorder.get( 0, PATHS_REMOVED ) + saved );
+		assertEquals( reached, recorder.get( 0, TILES_SETTLED ));
+
+		// terrain costs are only needed when move cost isn't saved, the terrain is new
+		assertTrue( recorder.get( 0, TILE_DATA_HITS ) > 0 );
+		assertEquals( 1, recorder.get( 0, TERRAIN_COST_MISSES ));
+		assertEquals( recorder.get( 0, TILE_DATA_MISSES ),
+				recorder.get( 0, TERRAIN_COST_HITS ) + recorder.get( 0, TERRAIN_COST_MISSES ));
+
+		// nothing to call back
+		assertEquals( 0, recorder.get( 0, EVENT_CALLBACKS ));
+		assertEquals( 0, recorder.get( 0, BLOCK_CALLBACKS ));
+		assertEquals( 0, recorder.get( 0, MODIFIER_CALLBACKS ));
+
+		// label-setting search doesn't explore tiles again without risks
+		move.setLabelSetting( true );
+		move.movementRadius( 2 );
+		assertEquals( 0, recorder.get( 1, PATHS_REEXPANDED ));
+		assertEquals( reached, recorder.get( 1, TILES_SETTLED ));
+		assertEquals( 0, recorder.get( 1, TERRAIN_COST_MISSES ));
+	}
+
+	@Test
+	public void testCallbackCounters() {
+		TileGrid <?> grid = createGrid();
+		grid.getTileAtRC( 1, 1 ).addMovementEvent( new TestMovementEvent( 1f, FLAT, false, false ));
+		grid.getTileAtRC( 3, 3 ).addBlock( new TestBlock( LOW, 0.5f ));
+
+		DefaultMovement move = createMovement( grid );
+		move.addMovementModifier( new TestMovementModifier() );
+		Recorder recorder = new Recorder();
+		move.setSearchMetricsListener( recorder );
+
+		move.movementRadius( 2 );
+		assertTrue( recorder.get( 0, EVENT_CALLBACKS ) > 0 );
+		assertTrue( recorder.get( 0, BLOCK_CALLBACKS ) > 0 );
+		assertTrue( recorder.get( 0, MODIFIER_CALLBACKS ) > 0 );
+
+		// point-to-point searches are counted too
+		assertEquals( 2, move.findPath( grid.getTileAtRC( 0, 4 ), EAST, 2 ).length );
+		assertEquals( 2, recorder.counts.size() );
+		assertTrue( recorder.get( 1, PATHS_CREATED ) > 0 );
+
+		// executing movement isn't a search
+		move.movementRadius( 2 );
+		move.executeMovementPath( grid.getTileAtRC( 1, 1 ), EAST );
+		assertEquals( 3, recorder.counts.size() );
+
+		// nothing is counted without a listener
+		move.setSearchMetricsListener( null );
+		assertNull( move.getSearchMetricsListener() );
+		move.movementRadius( 2 );
+		assertEquals( 3, recorder.counts.size() );
+	}
+
+	@Test
+	public void testDirectedSearch() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 9, 9 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 4, 4 ));
+		DefaultMovement move = new DefaultMovement( mob, 8 );
+		Recorder recorder = new Recorder();
+		move.setSearchMetricsListener( recorder );
+
+		// without a minimum move cost, every tile closer than the destination is settled
+		Tile destination = grid.getTileAtRC( 4, 7 );
+		assertEquals( 3, move.findPath( destination, EAST, 8 ).length );
+		assertTrue( recorder.get( 0, TILES_SETTLED ) >= 5 * 5 );
+
+		// with it, the search is directed towards the destination
+		move.setMinimumMoveCost( 1f );
+		assertEquals( 3, move.findPath( destination, EAST, 8 ).length );
+		assertTrue( recorder.get( 1, TILES_SETTLED ) < recorder.get( 0, TILES_SETTLED ) / 2 );
+	}
+
+	private static TileGrid <?> createGrid() {
+		TileGrid <?> grid = new FilledSquareGrid( 1, 5, 5 );
+		Terrain terrain = new Terrain( 1f, FLAT );
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row)
+				t.setTerrain( terrain );
+
+		return grid;
+	}
+
+	private static DefaultMovement createMovement( TileGrid <?> grid ) {
+		MobileObject mob = new TestMobileObject( LOW, new SingleTileTemplate() );
+		mob.setPosition( EAST, grid.getTileAtRC( 2, 2 ));
+		return new DefaultMovement( mob, 2 );
+	}
+
+	// copies counters from each search
+	private static class Recorder implements SearchMetricsListener {
+
+		private List <MovementMode> modes = new ArrayList <>();
+		private List <long[]> counts = new ArrayList <>();
+		private List <Long> wallTimes = new ArrayList <>();
+
+		@Override
+		public void searchFinished( MovementMode mode, SearchMetrics metrics ) {
+			long[] copy = new long[ Counter.values().length ];
+			for (Counter counter : Counter.values())
+				copy[ counter.ordinal() ] = metrics.get( counter );
+
+			modes.add( mode );
+			counts.add( copy );
+			wallTimes.add( metrics.getWallTime() );
+		}
+
+		private long get( int search, Counter counter ) {
+			return counts.get( search )[ counter.ordinal() ];
+		}
+	}
+}
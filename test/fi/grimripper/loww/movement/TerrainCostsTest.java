@@ -0,0 +1,52 @@
+package fi.grimripper.loww.movement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.test.TestMovementModifier;
+import fi.grimripper.loww.tiles.Terrain;
+
+public class TerrainCostsTest {
+
+	@Test
+	public void testSharedTables() {
+		MovementModifier first = new TestMovementModifier( 2f );
+		MovementModifier second = new TestMovementModifier( 3f );
+		
+		// same modifiers in the same order share a table, but equal arrays aren't needed
+		TerrainCosts costs = TerrainCosts.forModifiers( new MovementModifier[] { first, second });
+		assertSame( costs, TerrainCosts.forModifiers( new MovementModifier[] { first, second }));
+		assertNotSame( costs, TerrainCosts.forModifiers( new MovementModifier[] { second, first }));
+		assertNotSame( costs, TerrainCosts.forModifiers( new MovementModifier[] { first }));
+		assertNotSame( costs, TerrainCosts.forModifiers( new MovementModifier[] { first, first }));
+		assertSame( TerrainCosts.forModifiers( new MovementModifier[0] ),
+				TerrainCosts.forModifiers( new MovementModifier[0] ));
+	}
+	
+	@Test
+	public void testCosts() {
+		Terrain low = new Terrain( 1f ), high = new Terrain( 2f );
+		assertTrue( low.getId() >= 0 );
+		assertTrue( high.getId() > low.getId() );
+		
+		TerrainCosts costs =
+				TerrainCosts.forModifiers( new MovementModifier[] { new TestMovementModifier() });
+		assertTrue( Float.isNaN( costs.get( low )));
+		assertTrue( Float.isNaN( costs.get( high )));
+		
+		// saving a cost with a higher id leaves lower ones unset
+		costs.put( high, 4f );
+		assertTrue( Float.isNaN( costs.get( low )));
+		assertEquals( 4f, costs.get( high ), 0.001f );
+		costs.put( low, 3f );
+		assertEquals( 3f, costs.get( low ), 0.001f );
+		
+		costs.clear();
+		assertTrue( Float.isNaN( costs.get( low )));
+		assertTrue( Float.isNaN( costs.get( high )));
+	}
+}
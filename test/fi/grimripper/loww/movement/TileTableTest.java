@@ -0,0 +1,89 @@
+package fi.grimripper.loww.movement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
+import fi.grimripper.loww.tiles.Hex;
+import fi.grimripper.loww.tiles.Square;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TrackerTile;
+
+public class TileTableTest {
+
+	@Test
+	public void testTileTable() {
+		FilledSquareGrid squareGrid = new FilledSquareGrid( 1, 5, 5 );
+		FilledRowHexGrid hexGrid = FilledRowHexGrid.createWithHexSize( 1, 1, 5, 5, 5 );
+		Square square = squareGrid.getTileAtRC( 2, 3 );
+		Hex hex = hexGrid.getTileAtRC( 2, 3 );
+		Tile noId = new TrackerTile();
+		assertEquals( square.getId(), hex.getId() );
+		assertEquals( -1, noId.getId() );
+		
+		// tiles with same id, tile without id and null tile have separate values
+		TileTable <String> table = new TileTable <>();
+		assertNull( table.get( square ));
+		table.put( square, "square" );
+		table.put( hex, "hex" );
+		table.put( noId, "no id" );
+		table.put( null, "null" );
+		assertEquals( "square", table.get( square ));
+		assertEquals( "hex", table.get( hex ));
+		assertEquals( "no id", table.get( noId ));
+		assertEquals( "null", table.get( null ));
+		assertNull( table.get( squareGrid.getTileAtRC( 0, 0 )));
+		assertNull( table.getExpired( square ));
+		
+		// replace a value
+		table.put( square, "square 2" );
+		assertEquals( "square 2", table.get( square ));
+		
+		// clearing hides all values, but values in id slots can be recycled
+		table.clear();
+		assertNull( table.get( square ));
+		assertNull( table.get( hex ));
+		assertNull( table.get( noId ));
+		assertNull( table.get( null ));
+		assertEquals( "square 2", table.getExpired( square ));
+		assertEquals( "square 2", table.getExpired( hex ));		// same id
+		assertNull( table.getExpired( noId ));
+		assertNull( table.getExpired( null ));
+		
+		// after clearing, the slot goes to the first tile that's set
+		table.put( hex, "hex 2" );
+		table.put( square, "square 3" );
+		assertEquals( "hex 2", table.get( hex ));
+		assertEquals( "square 3", table.get( square ));
+		assertNull( table.getExpired( square ));
+		
+		// the table grows for large ids
+		FilledSquareGrid large = new FilledSquareGrid( 1, 50, 50 );
+		Square last = large.getTileAtRC( 49, 49 );
+		table.put( last, "last" );
+		assertSame( "last", table.get( last ));
+		assertEquals( "hex 2", table.get( hex ));
+		
+		// tiles with ids in id order, then the rest
+		assertEquals( Arrays.asList( hex, last, square ), table.getTiles() );
+		
+		// removed values expire, and other values stay
+		table.remove( hex );
+		table.remove( square );
+		table.remove( noId );
+		assertNull( table.get( hex ));
+		assertNull( table.get( square ));
+		assertEquals( "hex 2", table.getExpired( hex ));
+		assertSame( "last", table.get( last ));
+		assertEquals( Arrays.asList( last ), table.getTiles() );
+		table.clear();
+		assertTrue( table.getTiles().isEmpty() );
+	}
+}
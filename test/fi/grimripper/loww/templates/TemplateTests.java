@@ -50,6 +50,28 @@ public class TemplateTests {
 		}
 	}
 	
+	@Test
+	public void testIndexedMoveDirections() {
+		MovementTemplate[] templates = { Templates.SINGLE_TILE_TEMPLATE,
+			Templates.HORIZONTAL_TWO_TILE_TEMPLATE, Templates.FOUR_SQUARE_TEMPLATE,
+			new TestMovementTemplate( true, false ), new TestMovementTemplate( false, false ) };
+		Direction[] facings = Arrays.copyOf( Direction.values(), Direction.values().length + 1 );
+		
+		// same as copied directions, in same order, and none without facing
+		for (MovementTemplate template : templates)
+			for (Direction facing : facings) {
+				Direction[] moveDirs = Templates.getMoveDirections( facing, template );
+				assertEquals( moveDirs.length, Templates.countMoveDirections( facing, template ));
+				for (int i = 0; i < moveDirs.length; i++)
+					assertSame( moveDirs[i], Templates.getMoveDirection( facing, template, i ));
+			}
+	}
+	
+	@Test (expected = ArrayIndexOutOfBoundsException.class)
+	public void testIndexedMoveDirectionsNoFacing() {
+		Templates.getMoveDirection( null, Templates.SINGLE_TILE_TEMPLATE, 0 );
+	}
+	
 	@Test
 	public void testTemplateUtilities() {
 		new Templates();
@@ -486,7 +508,9 @@ public class TemplateTests {
 		Direction[] directions = { NORTHEAST, EAST, SOUTHEAST, SOUTHWEST, WEST, NORTHWEST };
 		
 		for (int i = 0; i < indices.length; i++) {
-			int[] moveIndices = template.getMoveIndices( directions[i] );
+			assertSame( template.getMoveIndices( directions[i] ),
+					template.getMoveIndices( directions[i] ));		// constant tables
+			int[] moveIndices = template.getMoveIndices( directions[i] ).clone();	// shared
 			
 			Arrays.sort( indices[i] );
 			Arrays.sort( moveIndices );
@@ -545,7 +569,9 @@ public class TemplateTests {
 			{ NORTH, NORTHEAST, EAST, SOUTHEAST, SOUTH, SOUTHWEST, WEST, NORTHWEST };
 		
 		for (int i = 0; i < indices.length; i++) {
-			int[] moveIndices = template.getMoveIndices( directions[i] );
+			assertSame( template.getMoveIndices( directions[i] ),
+					template.getMoveIndices( directions[i] ));		// constant tables
+			int[] moveIndices = template.getMoveIndices( directions[i] ).clone();	// shared
 			
 			Arrays.sort( indices[i] );
 			Arrays.sort( moveIndices );
@@ -0,0 +1,26 @@
+package fi.grimripper.loww.test;
+
+import static fi.grimripper.loww.Height.FLAT;
+
+import java.util.Random;
+
+import fi.grimripper.loww.tiles.Terrain;
+import fi.grimripper.loww.tiles.Tile;
+import fi.grimripper.loww.tiles.TileGrid;
+
+public class RandomTerrain {
+
+	private RandomTerrain() {
+	}
+
+	// random terrain costs and some risky tiles
+	public static void setTerrain( TileGrid <?> grid, Random random ) {
+		Terrain[] terrains = { new Terrain( 1f, FLAT ), new Terrain( 2f, FLAT ) };
+		for (Tile[] row : grid.getTiles())
+			for (Tile t : row) {
+				t.setTerrain( terrains[ random.nextInt( terrains.length ) ]);
+				if (random.nextInt( 10 ) == 0)
+					t.addMovementEvent( new TestMovementEvent( 1f, FLAT, false, false ));
+			}
+	}
+}
@@ -24,6 +24,7 @@ import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -37,6 +38,7 @@ import fi.grimripper.loww.tiles.Hex;
 import fi.grimripper.loww.tiles.Obstacle;
 import fi.grimripper.loww.tiles.Terrain;
 import fi.grimripper.loww.tiles.TileGrid;
+import fi.grimripper.loww.tiles.TileGrid.AreaIterator;
 import fi.grimripper.loww.tiles.TileGrid.LineHelper;
 
 public class FilledRowHexGridTest {
@@ -626,6 +628,27 @@ public class FilledRowHexGridTest {
 		assertNotNull( cutGrid.getTileAtRC( 0, 1 ));
 	}
 	
+	@Test
+	public void testTileIds() {
+		testTileIds( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ));
+		testTileIds( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 8 ));
+		testTileIds( FilledRowHexGrid.createWithHexSize( 1, 1, 8, 8, 9 ));
+	}
+	
+	@Test
+	public void testDistance() {
+		testDistance( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ));
+		testDistance( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 8 ));
+		testDistance( FilledRowHexGrid.createWithHexSize( 1, 1, 8, 8, 9 ));
+	}
+	
+	@Test
+	public void testAreaIterators() {
+		testAreaIterators( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 9 ));
+		testAreaIterators( FilledRowHexGrid.createWithHexSize( 1, 1, 9, 9, 8 ));
+		testAreaIterators( FilledRowHexGrid.createWithHexSize( 1, 1, 8, 8, 9 ));
+	}
+	
 	@Test
 	public void testHexLineHelper() {
 		FilledRowHexGrid grid = FilledRowHexGrid.createWithHexSize( 1, 1, 20, 20, 21 );
@@ -1248,6 +1271,101 @@ public class FilledRowHexGridTest {
 	}
 
 	// tests a direct line which goes from neighbor to neighbor with a given compass direction
+	private void testTileIds( FilledRowHexGrid grid ) {
+		int id = 0;
+		
+		for (Hex[] row : grid.getTiles())		// dense ids, row by row
+			for (Hex hex : row)
+				assertEquals( id++, hex.getId() );
+		
+		assertEquals( grid.getTileCount(), id );
+	}
+	
+	private void testDistance( FilledRowHexGrid grid ) {
+		Hex[][] hexes = grid.getTiles();
+		
+		// distance is the number of steps along a direct line
+		for (Hex[] fromRow : hexes)
+			for (Hex from : fromRow)
+				for (Hex[] toRow : hexes)
+					for (Hex to : toRow) {
+						int steps = countSteps( grid.createLineHelper( from, to ));
+						assertEquals( steps, grid.distance( from, to ));
+						assertEquals( steps, grid.distance( to, from ));
+					}
+		
+		// neighbors are one step away
+		Hex center = grid.getTileAtRC( 4, 4 );
+		for (Hex h : center.getNeighbors())
+			assertEquals( 1, grid.distance( center, h ));
+	}
+	
+	private void testAreaIterators( FilledRowHexGrid grid ) {
+		Hex[][] hexes = grid.getTiles();
+		AreaIterator <Hex> iterator = grid.createRingIterator( hexes[0][0], 0 );
+		
+		for (Hex[] row : hexes)
+			for (Hex center : row) {
+				
+				// a ring contains each hex at the given distance once
+				for (int radius = 0; radius < 10; radius++) {
+					iterator.resetRing( center, radius );
+					LinkedList <Hex> ring = new LinkedList <>();
+					
+					while (iterator.hasNext()) {
+						Hex h = iterator.next();
+						assertFalse( ring.contains( h ));
+						assertEquals( radius, grid.distance( center, h ));
+						assertEquals( radius, iterator.getDistance() );
+						ring.add( h );
+					}
+					
+					for (Hex[] otherRow : hexes)
+						for (Hex h : otherRow)
+							assertEquals( grid.distance( center, h ) == radius, ring.contains( h ));
+				}
+				
+				// a spiral contains all hexes within distance, closest first
+				iterator.resetSpiral( center, 3 );
+				assertSame( center, iterator.next() );
+				int count = 1, distance = 0;
+				
+				while (iterator.hasNext()) {
+					Hex h = iterator.next();
+					assertTrue( grid.distance( center, h ) >= distance );
+					distance = grid.distance( center, h );
+					count++;
+				}
+				
+				int expected = 0;
+				for (Hex[] otherRow : hexes)
+					for (Hex h : otherRow)
+						if (grid.distance( center, h ) <= 3)
+							expected++;
+				
+				assertEquals( expected, count );
+			}
+		
+		// negative radius has no hexes
+		iterator.resetRing( hexes[0][0], -1 );
+		assertFalse( iterator.hasNext() );
+		
+		try {
+			iterator.next();
+			fail();
+		} catch (NoSuchElementException nsex) {
+		}
+	}
+	
+	// counts steps along a line from source to target
+	private int countSteps( LineHelper <Hex> helper ) {
+		int steps = 0;
+		for (; !helper.targetReached(); steps++)
+			helper.nextTiles();
+		
+		return steps;
+	}
+	
 	private void testDirectLine( TileGrid <Hex> grid, Hex from, Hex to, Direction direction ) {
 		LineHelper <Hex> helper = grid.createLineHelper( from, to );
 		Hex current = from, previous = null, next = null;
@@ -25,6 +25,7 @@ import static org.junit.Assert.fail;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -38,6 +39,7 @@ import fi.grimripper.loww.tiles.Obstacle;
 import fi.grimripper.loww.tiles.Square;
 import fi.grimripper.loww.tiles.Terrain;
 import fi.grimripper.loww.tiles.TileGrid;
+import fi.grimripper.loww.tiles.TileGrid.AreaIterator;
 import fi.grimripper.loww.tiles.TileGrid.LineHelper;
 
 public class FilledSquareGridTest {
@@ -206,6 +208,28 @@ public class FilledSquareGridTest {
 		assertNotNull( grid.getTileAtRC( 2, 3 ));
 	}
 	
+	@Test
+	public void testTileIds() {
+		FilledSquareGrid grid = new FilledSquareGrid( 1, 7, 9 );
+		int id = 0;
+		
+		for (Square[] row : grid.getTiles())		// dense ids, row by row
+			for (Square square : row)
+				assertEquals( id++, square.getId() );
+		
+		assertEquals( grid.getTileCount(), id );
+	}
+	
+	@Test
+	public void testDistance() {
+		testDistance( new FilledSquareGrid( 1, 7, 9 ));
+	}
+	
+	@Test
+	public void testAreaIterators() {
+		testAreaIterators( new FilledSquareGrid( 1, 7, 9 ));
+	}
+	
 	@Test
 	public void testSquareLineHelper() {
 		
@@ -813,6 +837,91 @@ public class FilledSquareGridTest {
 	}
 
 	// tests a direct line which goes from neighbor to neighbor with a given compass direction
+	private void testDistance( FilledSquareGrid grid ) {
+		Square[][] squares = grid.getTiles();
+		
+		// distance is the number of steps along a direct line
+		for (Square[] fromRow : squares)
+			for (Square from : fromRow)
+				for (Square[] toRow : squares)
+					for (Square to : toRow) {
+						int steps = countSteps( grid.createLineHelper( from, to ));
+						assertEquals( steps, grid.distance( from, to ));
+						assertEquals( steps, grid.distance( to, from ));
+					}
+		
+		// neighbors, including diagonal ones, are one step away
+		Square center = grid.getTileAtRC( 4, 4 );
+		for (Square h : center.getNeighbors())
+			assertEquals( 1, grid.distance( center, h ));
+	}
+	
+	private void testAreaIterators( FilledSquareGrid grid ) {
+		Square[][] squares = grid.getTiles();
+		AreaIterator <Square> iterator = grid.createRingIterator( squares[0][0], 0 );
+		
+		for (Square[] row : squares)
+			for (Square center : row) {
+				
+				// a ring contains each square at the given distance once
+				for (int radius = 0; radius < 10; radius++) {
+					iterator.resetRing( center, radius );
+					LinkedList <Square> ring = new LinkedList <>();
+					
+					while (iterator.hasNext()) {
+						Square h = iterator.next();
+						assertFalse( ring.contains( h ));
+						assertEquals( radius, grid.distance( center, h ));
+						assertEquals( radius, iterator.getDistance() );
+						ring.add( h );
+					}
+					
+					for (Square[] otherRow : squares)
+						for (Square h : otherRow)
+							assertEquals( grid.distance( center, h ) == radius, ring.contains( h ));
+				}
+				
+				// a spiral contains all squares within distance, closest first
+				iterator.resetSpiral( center, 3 );
+				assertSame( center, iterator.next() );
+				int count = 1, distance = 0;
+				
+				while (iterator.hasNext()) {
+					Square h = iterator.next();
+					assertTrue( grid.distance( center, h ) >= distance );
+					distance = grid.distance( center, h );
+					count++;
+				}
+				
+				int expected = 0;
+				for (Square[] otherRow : squares)
+					for (Square h : otherRow)
+						if (grid.distance( center, h ) <= 3)
+							expected++;
+				
+				assertEquals( expected, count );
+			}
+		
+		// negative radius has no squares
+		iterator.resetRing( squares[0][0], -1 );
+		assertFalse( iterator.hasNext() );
+		
+		try {
+			iterator.next();
+			fail();
+		} catch (NoSuchElementException nsex) {
+		}
+	}
+	
+	// counts steps along a line from source to target
+	private int countSteps( LineHelper <Square> helper ) {
+		int steps = 0;
+		for (; !helper.targetReached(); steps++)
+			helper.nextTiles();
+		
+		return steps;
+	}
+	
 	private void testDirectLine( TileGrid <Square> grid, Square from, Square to, Direction dir ) {
 		LineHelper <Square> helper = grid.createLineHelper( from, to );
 		Square current = from, previous = null, next = null;
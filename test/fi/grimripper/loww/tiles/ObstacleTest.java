@@ -21,6 +21,7 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
 import fi.grimripper.loww.AdditionalProperties.Properties;
+import fi.grimripper.loww.templates.HorizontalTwoTileTemplate;
 import fi.grimripper.loww.test.TestMovementTemplate;
 import fi.grimripper.loww.test.TestObstacle;
 import fi.grimripper.loww.test.TestObstacleTemplate;
@@ -396,4 +397,22 @@ public class ObstacleTest {
 		assertTrue( first.occupiesTile() );
 		assertFalse( second.occupiesTile() );
 	}
+	
+	@Test
+	public void testTurnWithoutLocation() {
+		FilledSquareGrid grid = new FilledSquareGrid( 1, 1, 4 );
+		for (Square s : grid.getTiles()[0])
+			s.setTerrain( new Terrain( 1f, FLAT ));
+		
+		Obstacle obstacle = new TestObstacle( LOW, new HorizontalTwoTileTemplate() );
+		obstacle.setPosition( EAST, grid.getTileAtRC( 0, 1 ));
+		
+		// turning without location doesn't move the template, it's placed at the new location
+		obstacle.setLocation( null );
+		obstacle.setPosition( WEST, grid.getTileAtRC( 0, 2 ));
+		assertSame( grid.getTileAtRC( 0, 2 ), obstacle.getLocation() );
+		assertEquals( WEST, obstacle.getTemplateFacing() );
+		assertSame( obstacle, grid.getTileAtRC( 0, 3 ).getObstacle( 0 ));
+		assertEquals( 0, grid.getTileAtRC( 0, 1 ).countObstacles() );
+	}
 }
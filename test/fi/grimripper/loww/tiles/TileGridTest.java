@@ -9,21 +9,33 @@ import static fi.grimripper.loww.Direction.SOUTHEAST;
 import static fi.grimripper.loww.Direction.SOUTHWEST;
 import static fi.grimripper.loww.Direction.WEST;
 import static fi.grimripper.loww.Height.LOW;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import fi.grimripper.loww.Direction;
+import fi.grimripper.loww.test.TestBlock;
 import fi.grimripper.loww.test.TestObstacle;
 import fi.grimripper.loww.test.TestTileGrid;
 import fi.grimripper.loww.tiles.FilledRowHexGrid;
+import fi.grimripper.loww.tiles.FilledSquareGrid;
 import fi.grimripper.loww.tiles.Hex;
+import fi.grimripper.loww.tiles.Obstacle;
 import fi.grimripper.loww.tiles.Square;
+import fi.grimripper.loww.tiles.Terrain;
 import fi.grimripper.loww.tiles.Tile;
 import fi.grimripper.loww.tiles.TileGrid;
+import fi.grimripper.loww.tiles.TileGrid.AreaIterator;
+import fi.grimripper.loww.tiles.TileGrid.LineHelper;
 
 public class TileGridTest {
 
@@ -107,4 +119,113 @@ public class TileGridTest {
 	public void testLineOfSightNullPointerException() {
 		TileGrid.hasLineOfSight( null, new TestObstacle( LOW ));
 	}
+	
+	@Test
+	public void testDefaultDistance() {
+		testDefaultDistance( new FilledSquareGrid( 1, 5, 6 ));
+		testDefaultDistance( FilledRowHexGrid.createWithHexSize( 1, 1, 5, 5, 4 ));
+		testDefaultDistance( FilledRowHexGrid.createWithHexSize( 1, 1, 6, 5, 6 ));
+	}
+	
+	private <T extends Tile> void testDefaultDistance( final TileGrid <T> grid ) {
+		
+		// uses the grid's tiles, but the default distance and area iterator
+		TileGrid <T> defaultGrid = new TileGrid <T>( grid.getTileWidth(), grid.getTileHeight() ) {
+			@Override
+			public int getTotalWidth() {
+				return grid.getTotalWidth();
+			}
+			@Override
+			public int getTotalHeight() {
+				return grid.getTotalHeight();
+			}
+			@Override
+			public int getTileCount() {
+				return grid.getTileCount();
+			}
+			@Override
+			public T[][] getTiles() {
+				return grid.getTiles();
+			}
+			@Override
+			public T getTileAtXY( double x, double y ) {
+				return grid.getTileAtXY( x, y );
+			}
+			@Override
+			public T getTileAtRC( int row, int col ) {
+				return grid.getTileAtRC( row, col );
+			}
+			@Override
+			public LineHelper <T> createLineHelper( T from, T to ) {
+				return grid.createLineHelper( from, to );
+			}
+		};
+		
+		T[][] tiles = grid.getTiles();
+		AreaIterator <T> expected = grid.createSpiralIterator( tiles[0][0], 0 );
+		AreaIterator <T> actual = defaultGrid.createSpiralIterator( tiles[0][0], 0 );
+		
+		for (T[] row : tiles)
+			for (T center : row) {
+				for (T[] otherRow : tiles)
+					for (T t : otherRow)
+						assertEquals(
+								grid.distance( center, t ), defaultGrid.distance( center, t ));
+				
+				// same tiles, possibly in different order within a ring
+				expected.resetSpiral( center, 4 );
+				actual.resetSpiral( center, 4 );
+				ArrayList <T> expectedTiles = new ArrayList <>(), actualTiles = new ArrayList <>();
+				
+				while (expected.hasNext()) {
+					assertTrue( actual.hasNext() );
+					expectedTiles.add( expected.next() );
+					actualTiles.add( actual.next() );
+					assertEquals( expected.getDistance(), actual.getDistance() );
+				}
+				
+				assertFalse( actual.hasNext() );
+				assertTrue( actualTiles.containsAll( expectedTiles ));
+			}
+	}
+
+	@Test
+	public void testChangeJournal() {
+		FilledSquareGrid grid = new FilledSquareGrid( 1, 3, 3 );
+		Square first = grid.getTileAtRC( 0, 0 ), second = grid.getTileAtRC( 1, 2 );
+		assertEquals( 0, grid.getVersion() );
+		assertEquals( TileGrid.DEFAULT_JOURNAL_SIZE, grid.getJournalSize() );
+		assertArrayEquals( new Tile[0], grid.getChangedTiles( 0 ));
+		
+		// tiles record their changes in the grid
+		Terrain terrain = new Terrain( 1f, LOW );
+		first.setTerrain( terrain );
+		second.setTerrain( terrain );
+		first.addBlock( new TestBlock() );
+		assertEquals( 3, grid.getVersion() );
+		assertArrayEquals( new Tile[] { first, second, first }, grid.getChangedTiles( 0 ));
+		assertArrayEquals( new Tile[] { first }, grid.getChangedTiles( 2 ));
+		assertArrayEquals( new Tile[0], grid.getChangedTiles( 3 ));
+		
+		// tiles outside the grid don't change its version
+		new TrackerTile().setTerrain( terrain );
+		assertEquals( 3, grid.getVersion() );
+		
+		// resizing empties the journal, and old changes are lost when it's full
+		grid.setJournalSize( 2 );
+		assertEquals( 2, grid.getJournalSize() );
+		assertNull( grid.getChangedTiles( 2 ));
+		assertArrayEquals( new Tile[0], grid.getChangedTiles( 3 ));
+		
+		Obstacle obstacle = new TestObstacle( LOW );
+		obstacle.setPosition( EAST, second );
+		assertArrayEquals( new Tile[] { second }, grid.getChangedTiles( 3 ));
+		obstacle.setLocation( first );
+		assertEquals( 6, grid.getVersion() );
+		assertNull( grid.getChangedTiles( 3 ));
+		assertArrayEquals( new Tile[] { second, first }, grid.getChangedTiles( 4 ));
+		
+		grid.setJournalSize( 0 );
+		assertEquals( 1, grid.getJournalSize() );
+	}
 }
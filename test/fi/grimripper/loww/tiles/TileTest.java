@@ -1,6 +1,7 @@
 package fi.grimripper.loww.tiles;
 
 import static fi.grimripper.loww.Direction.EAST;
+import static fi.grimripper.loww.Height.LOW;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -370,6 +371,156 @@ public class TileTest {
 		assertArrayEquals( new MovementEvent[0], tile.getMovementEvents() );	
 	}
 
+	@Test
+	public void testVersion() {
+		TrackerTile tile = new TrackerTile();
+		TrackerTile remote = new TrackerTile();
+		assertEquals( 0, tile.getVersion() );
+		
+		// each change in contents increases the version
+		Terrain terrain = new Terrain( 1f, LOW );
+		tile.setTerrain( terrain );
+		assertEquals( 1, tile.getVersion() );
+		tile.setTerrain( terrain );				// not a change
+		assertEquals( 1, tile.getVersion() );
+		
+		Obstacle obstacle = new TestObstacle( LOW );
+		tile.addObstacle( obstacle );
+		assertEquals( 2, tile.getVersion() );
+		tile.removeObstacle( obstacle );
+		tile.removeObstacle( obstacle );		// not found
+		assertEquals( 3, tile.getVersion() );
+		
+		Block block = new TestBlock();
+		tile.addBlock( block );
+		tile.addBlock( null );
+		tile.removeBlock( block );
+		tile.removeBlock( block );
+		assertEquals( 5, tile.getVersion() );
+		
+		MovementEvent event = new TestMovementEvent();
+		tile.addMovementEvent( event );
+		tile.addMovementEvent( null );
+		tile.removeMovementEvent( event );
+		tile.removeMovementEvent( event );
+		assertEquals( 7, tile.getVersion() );
+		
+		tile.addRemoteNeighbor( remote );
+		tile.addRemoteNeighbor( null );
+		tile.removeRemoteNeighbor( remote );
+		tile.removeRemoteNeighbor( remote );
+		assertEquals( 9, tile.getVersion() );
+		assertEquals( 0, remote.getVersion() );
+		
+		// motion listeners aren't contents
+		tile.addMotionListener( new TrackingMotionListener() );
+		assertEquals( 9, tile.getVersion() );
+	}
+	
+	@Test
+	public void testIndexedAccess() {
+		TrackerTile tile = new TrackerTile();
+		
+		// nothing to access yet
+		assertEquals( 0, tile.countObstacles() );
+		assertEquals( 0, tile.countBlocks() );
+		assertEquals( 0, tile.countMovementEvents() );
+		assertEquals( 0, tile.countRemoteNeighbors() );
+		
+		TestObstacle obstacle = new TestObstacle( LOW ), obstacle2 = new TestObstacle( LOW );
+		obstacle.setOccupying( false );
+		obstacle2.setOccupying( false );
+		tile.addObstacle( obstacle );
+		tile.addObstacle( obstacle2 );
+		
+		Block block = new TestBlock(), block2 = new TestBlock();
+		tile.addBlock( block );
+		tile.addBlock( block2 );
+		
+		MovementEvent event = new TestMovementEvent(), event2 = new TestMovementEvent();
+		tile.addMovementEvent( event );
+		tile.addMovementEvent( event2 );
+		
+		Tile remote = new TrackerTile(), remote2 = new TrackerTile();
+		tile.addRemoteNeighbor( remote );
+		tile.addRemoteNeighbor( remote2 );
+		
+		// same as copied arrays, in same order
+		assertIndexedAccess( tile );
+		
+		// indexed access reflects removals
+		tile.removeObstacle( obstacle );
+		tile.removeBlock( block2 );
+		tile.removeMovementEvent( event );
+		tile.removeRemoteNeighbor( remote2 );
+		assertIndexedAccess( tile );
+		assertSame( obstacle2, tile.getObstacle( 0 ));
+		assertSame( block, tile.getBlock( 0 ));
+		assertSame( event2, tile.getMovementEvent( 0 ));
+		assertSame( remote, tile.getRemoteNeighbor( 0 ));
+	}
+	
+	@Test
+	public void testIndexedNeighbors() {
+		TileGrid <?> squares = new FilledSquareGrid( 1, 3, 3 );
+		TileGrid <?> hexes = FilledRowHexGrid.createWithHexSize( 1, 1, 3, 3, 3 );
+		
+		// same as copied neighbors, in same order, also at the edges
+		for (TileGrid <?> grid : Arrays.asList( squares, hexes ))
+			for (Tile[] row : grid.getTiles())
+				for (Tile tile : row) {
+					Tile[] neighbors = tile.getNeighbors();
+					assertEquals( neighbors.length, tile.countNeighbors() );
+					for (int i = 0; i < neighbors.length; i++)
+						assertSame( neighbors[i], tile.getNeighbor( i ));
+				}
+	}
+	
+	@Test (expected = ArrayIndexOutOfBoundsException.class)
+	public void testIndexedNeighborsInvalidIndex() {
+		Tile corner = new FilledSquareGrid( 1, 3, 3 ).getTileAtRC( 0, 0 );
+		corner.getNeighbor( corner.countNeighbors() );
+	}
+	
+	@Test (expected = ArrayIndexOutOfBoundsException.class)
+	public void testIndexedAccessNoObstacles() {
+		new TrackerTile().getObstacle( 0 );
+	}
+	
+	@Test (expected = ArrayIndexOutOfBoundsException.class)
+	public void testIndexedAccessNoRemoteNeighbors() {
+		new TrackerTile().getRemoteNeighbor( 0 );
+	}
+	
+	@Test (expected = ArrayIndexOutOfBoundsException.class)
+	public void testIndexedAccessInvalidBlock() {
+		TrackerTile tile = new TrackerTile();
+		tile.addBlock( new TestBlock() );
+		tile.getBlock( 1 );
+	}
+	
+	private void assertIndexedAccess( Tile tile ) {
+		Obstacle[] obstacles = tile.getObstacles();
+		assertEquals( obstacles.length, tile.countObstacles() );
+		for (int i = 0; i < obstacles.length; i++)
+			assertSame( obstacles[i], tile.getObstacle( i ));
+		
+		Block[] blocks = tile.getBlocks();
+		assertEquals( blocks.length, tile.countBlocks() );
+		for (int i = 0; i < blocks.length; i++)
+			assertSame( blocks[i], tile.getBlock( i ));
+		
+		MovementEvent[] events = tile.getMovementEvents();
+		assertEquals( events.length, tile.countMovementEvents() );
+		for (int i = 0; i < events.length; i++)
+			assertSame( events[i], tile.getMovementEvent( i ));
+		
+		Tile[] remotes = tile.getRemoteNeighbors();
+		assertEquals( remotes.length, tile.countRemoteNeighbors() );
+		for (int i = 0; i < remotes.length; i++)
+			assertSame( remotes[i], tile.getRemoteNeighbor( i ));
+	}
+	
 	@Test
 	public void testMotionListeners() {
 		TrackerTile tile = new TrackerTile();